@@ -0,0 +1,214 @@
+package com.duramec.time.benchmark;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.Clock;
+import com.duramec.time.HybridClock;
+import com.duramec.time.StripedTickGen;
+import com.duramec.time.T60Clock;
+import com.duramec.time.T60Discipline;
+import com.duramec.time.T72Clock;
+import com.duramec.time.T72Instant;
+import com.duramec.time.TAIClock;
+import com.duramec.time.TickGen;
+import com.duramec.time.UUIDGen;
+
+/**
+ * Tick sources, each measured from a single thread and from as many threads
+ * as there are processors all sharing one instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClockBenchmark {
+
+	private final TickGen tickGen = new TickGen();
+
+	private final long[] block = new long[1000];
+
+	private final StripedTickGen stripedTickGen = new StripedTickGen();
+
+	private final Clock clock = new Clock();
+
+	private final T60Clock t60Clock = new T60Clock();
+
+	private T60Discipline discipline;
+
+	private T60Clock disciplinedClock;
+
+	private final UUIDGen uuidGen = new UUIDGen();
+
+	private final T72Clock t72Clock = new T72Clock();
+
+	private final long[] stamp = new long[2];
+
+	private TAIClock taiClock;
+
+	private final long[] gpsWeek = new long[3];
+
+	private final HybridClock hybridClock = new HybridClock();
+
+	private final HybridClock peerClock = new HybridClock();
+
+	@Setup
+	public void setup() throws ParseException, IOException {
+		Inputs.loadLeapTable();
+		taiClock = new TAIClock();
+		peerClock.now();
+		discipline = new T60Discipline();
+		disciplinedClock = new T60Clock(discipline);
+	}
+
+	@TearDown
+	public void tearDown() {
+		discipline.close();
+	}
+
+	@Benchmark
+	public long tickGenNext() {
+		return tickGen.next();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public long tickGenNextContended() {
+		return tickGen.next();
+	}
+
+	/**
+	 * Cost per tick when a batch of records is stamped at once.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(1000)
+	public long[] tickGenNextBlock() {
+		tickGen.next(block);
+		return block;
+	}
+
+	@Benchmark
+	public long stripedTickGenNext() {
+		return stripedTickGen.next();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public long stripedTickGenNextContended() {
+		return stripedTickGen.next();
+	}
+
+	@Benchmark
+	public long clockTick() {
+		return clock.tick();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public long clockTickContended() {
+		return clock.tick();
+	}
+
+	@Benchmark
+	public long t60ClockTick() {
+		return t60Clock.tick();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public long t60ClockTickContended() {
+		return t60Clock.tick();
+	}
+
+	@Benchmark
+	public long t60ClockDisciplinedTick() {
+		return disciplinedClock.tick();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public long t60ClockDisciplinedTickContended() {
+		return disciplinedClock.tick();
+	}
+
+	@Benchmark
+	public UUID uuidGenNext() {
+		return uuidGen.next();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public UUID uuidGenNextContended() {
+		return uuidGen.next();
+	}
+
+	@Benchmark
+	public long[] t72ClockNext() {
+		t72Clock.next(stamp, 0);
+		return stamp;
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public T72Instant t72ClockNextContended() {
+		return t72Clock.next();
+	}
+
+	@Benchmark
+	public long[] taiClockNow() {
+		taiClock.now(stamp, 0);
+		return stamp;
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public long[] taiClockNowContended() {
+		long[] out = new long[2];
+		taiClock.now(out, 0);
+		return out;
+	}
+
+	@Benchmark
+	public long[] taiClockNowGPSWeek() {
+		taiClock.nowGPSWeek(gpsWeek, 0);
+		return gpsWeek;
+	}
+
+	@Benchmark
+	public long hybridClockNow() {
+		return hybridClock.now();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public long hybridClockNowContended() {
+		return hybridClock.now();
+	}
+
+	/**
+	 * Merge of the last stamp of another clock, as on receipt of a message.
+	 */
+	@Benchmark
+	public long hybridClockReceive() {
+		return hybridClock.receive(peerClock.last());
+	}
+
+}
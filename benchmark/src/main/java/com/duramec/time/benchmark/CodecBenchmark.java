@@ -0,0 +1,102 @@
+package com.duramec.time.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.T60Instant;
+import com.duramec.time.TAIInstant;
+
+/**
+ * Binary forms of instants in heap and direct buffers, singly and in bulk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+	@Param({ "heap", "direct" })
+	public String buffers;
+
+	private ByteBuffer buffer;
+
+	private final long[] ticks = new long[Inputs.SIZE];
+
+	private final long[] seconds = new long[Inputs.SIZE];
+
+	private final long[] nanos = new long[Inputs.SIZE];
+
+	private final T60Instant instant = new T60Instant(0x01E2A4C8D0F00000L);
+
+	private final TAIInstant taiInstant = new TAIInstant(1800000000L,
+			123456789L);
+
+	@Setup
+	public void setup() {
+		int length = Inputs.SIZE * TAIInstant.encodedLength;
+		buffer = "direct".equals(buffers) ? ByteBuffer.allocateDirect(length)
+				: ByteBuffer.allocate(length);
+		for (int j = 0; j < Inputs.SIZE; j++) {
+			ticks[j] = instant.asLong() + j;
+			seconds[j] = taiInstant.getSecondsSinceEpoch() + j;
+			nanos[j] = j;
+		}
+	}
+
+	/**
+	 * The allocating form used before the codecs existed.
+	 */
+	@Benchmark
+	public byte[] t60GetBytes() {
+		return instant.getBytes();
+	}
+
+	@Benchmark
+	public ByteBuffer t60Put() {
+		instant.put(buffer, 0);
+		return buffer;
+	}
+
+	@Benchmark
+	public ByteBuffer taiPut() {
+		taiInstant.put(buffer, 0);
+		return buffer;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public ByteBuffer t60PutBulk() {
+		T60Instant.putTicks(buffer, 0, ticks, 0, Inputs.SIZE);
+		return buffer;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public long[] t60GetBulk() {
+		T60Instant.getTicks(buffer, 0, ticks, 0, Inputs.SIZE);
+		return ticks;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public ByteBuffer taiPutBulk() {
+		TAIInstant.put(buffer, 0, seconds, nanos, 0, Inputs.SIZE);
+		return buffer;
+	}
+
+}
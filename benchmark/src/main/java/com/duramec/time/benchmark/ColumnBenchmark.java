@@ -0,0 +1,87 @@
+package com.duramec.time.benchmark;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.Posix;
+import com.duramec.time.T60Column;
+import com.duramec.time.T60Instant;
+
+/**
+ * Bulk column kernels, reported per value converted.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColumnBenchmark {
+
+	@Param({ "recent", "distinctDays", "nearLeapSeconds" })
+	public String inputs;
+
+	private long[] ticks;
+
+	private long[] seconds;
+
+	private long[] nanos;
+
+	private int[] weeks;
+
+	@Setup
+	public void setup() throws ParseException, IOException {
+		Inputs.loadLeapTable();
+		long[] posix = Inputs.byName(inputs);
+		ticks = new long[Inputs.SIZE];
+		seconds = new long[Inputs.SIZE];
+		nanos = new long[Inputs.SIZE];
+		weeks = new int[Inputs.SIZE];
+		for (int j = 0; j < Inputs.SIZE; j++) {
+			ticks[j] = new T60Instant(new Posix(posix[j])).asLong();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public long[] toPosix() {
+		T60Column.toPosix(ticks, 0, seconds, nanos, 0, Inputs.SIZE);
+		return seconds;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public long[] toGPS() {
+		T60Column.toGPS(ticks, 0, seconds, nanos, 0, Inputs.SIZE);
+		return seconds;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public int[] toGPSWeeks() {
+		T60Column.toGPSWeeks(ticks, 0, weeks, weeks, 0, Inputs.SIZE);
+		return weeks;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public long[] toTAI() {
+		T60Column.toTAI(ticks, 0, seconds, nanos, 0, Inputs.SIZE);
+		return seconds;
+	}
+
+}
@@ -0,0 +1,164 @@
+package com.duramec.time.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.EpochSeconds;
+import com.duramec.time.EpochSecondsReader;
+import com.duramec.time.GPSInstant;
+import com.duramec.time.Posix;
+import com.duramec.time.RFC3339;
+import com.duramec.time.T60Instant;
+import com.duramec.time.TAIInstant;
+
+/**
+ * Conversions between the instant classes, RFC 3339 text of T60, and the
+ * seconds text of TAI singly and as a whole archive of lines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConversionBenchmark {
+
+	@Param({ "recent", "distinctDays", "nearLeapSeconds" })
+	public String inputs;
+
+	private T60Instant[] t60;
+
+	private GPSInstant[] gps;
+
+	private String[] text;
+
+	private byte[][] bytes;
+
+	private final char[] chars = new char[RFC3339.maximumLength];
+
+	private String[] taiText;
+
+	private byte[][] taiBytes;
+
+	/**
+	 * All of taiText, one per line.
+	 */
+	private byte[] archive;
+
+	private final long[] out = new long[2];
+
+	private final long[] seconds = new long[Inputs.SIZE];
+
+	private final long[] nanos = new long[Inputs.SIZE];
+
+	private int i;
+
+	@Setup
+	public void setup() throws ParseException, IOException {
+		Inputs.loadLeapTable();
+		long[] seconds = Inputs.byName(inputs);
+		t60 = new T60Instant[Inputs.SIZE];
+		gps = new GPSInstant[Inputs.SIZE];
+		text = new String[Inputs.SIZE];
+		bytes = new byte[Inputs.SIZE][];
+		taiText = new String[Inputs.SIZE];
+		taiBytes = new byte[Inputs.SIZE][];
+		ByteArrayOutputStream lines = new ByteArrayOutputStream();
+		for (int j = 0; j < Inputs.SIZE; j++) {
+			long nanos = (j * 7919L * 100L) % 1000000000L;
+			Posix posix = new Posix(seconds[j], nanos);
+			gps[j] = new GPSInstant(posix);
+			t60[j] = gps[j].toT60Instant();
+			text[j] = t60[j].toString();
+			bytes[j] = text[j].getBytes("UTF-8");
+			taiText[j] = new TAIInstant(posix).toString();
+			taiBytes[j] = taiText[j].getBytes("UTF-8");
+			lines.write(taiBytes[j]);
+			lines.write('\n');
+		}
+		archive = lines.toByteArray();
+	}
+
+	@Benchmark
+	public T60Instant gpsToT60() {
+		i = (i + 1) & Inputs.MASK;
+		return gps[i].toT60Instant();
+	}
+
+	@Benchmark
+	public GPSInstant t60ToGps() {
+		i = (i + 1) & Inputs.MASK;
+		return new GPSInstant(t60[i]);
+	}
+
+	@Benchmark
+	public T60Instant parseT60() throws ParseException {
+		i = (i + 1) & Inputs.MASK;
+		return T60Instant.parse(text[i]);
+	}
+
+	@Benchmark
+	public long parseT60Bytes() throws ParseException {
+		i = (i + 1) & Inputs.MASK;
+		return RFC3339.parseT60(bytes[i], 0, bytes[i].length);
+	}
+
+	@Benchmark
+	public String formatT60() {
+		i = (i + 1) & Inputs.MASK;
+		return t60[i].toString();
+	}
+
+	@Benchmark
+	public int formatT60Chars() {
+		i = (i + 1) & Inputs.MASK;
+		return RFC3339.formatT60(t60[i].asLong(), 9, chars, 0);
+	}
+
+	@Benchmark
+	public TAIInstant parseTAI() throws ParseException {
+		i = (i + 1) & Inputs.MASK;
+		return TAIInstant.parse(taiText[i]);
+	}
+
+	@Benchmark
+	public long parseTAIBytes() throws ParseException {
+		i = (i + 1) & Inputs.MASK;
+		return EpochSeconds.parseTAI(taiBytes[i], 0, taiBytes[i].length, out,
+				0);
+	}
+
+	/**
+	 * Cost per line of reading an archive into columns.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public int readTAIArchive() throws ParseException, IOException {
+		EpochSecondsReader reader = new EpochSecondsReader(
+				Channels.newChannel(new ByteArrayInputStream(archive)),
+				EpochSeconds.Scale.TAI);
+		try {
+			return reader.read(seconds, nanos, 0, Inputs.SIZE);
+		} finally {
+			reader.close();
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.duramec.time.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.T60DeltaDecoder;
+import com.duramec.time.T60DeltaEncoder;
+import com.duramec.time.T60Instant;
+
+/**
+ * Delta-of-delta compression of a series sampled once a second, with and
+ * without jitter, compared against the plain 8-byte form.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeltaCodecBenchmark {
+
+	private static final int blockSize = 1024;
+
+	@Param({ "0", "100" })
+	public int jitterTicks;
+
+	private final long[] ticks = new long[Inputs.SIZE];
+
+	private final long[] decoded = new long[Inputs.SIZE];
+
+	private ByteBuffer buffer;
+
+	private ByteBuffer encoded;
+
+	private ByteBuffer plain;
+
+	@Setup
+	public void setup() {
+		long tick = 0x01E2A4C8D0F00000L;
+		for (int j = 0; j < Inputs.SIZE; j++) {
+			tick += 10000000L + ((j * 7919) % (jitterTicks + 1));
+			ticks[j] = tick;
+		}
+		int length = T60DeltaEncoder.maximumBlockLength(blockSize)
+				* (Inputs.SIZE / blockSize);
+		buffer = ByteBuffer.allocateDirect(length);
+		encoded = ByteBuffer.allocateDirect(length);
+		T60DeltaEncoder encoder = new T60DeltaEncoder(encoded, blockSize);
+		encoder.append(ticks, 0, Inputs.SIZE);
+		encoder.flush();
+		encoded.flip();
+		plain = ByteBuffer.allocateDirect(Inputs.SIZE * T60Instant.encodedLength);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public ByteBuffer encode() {
+		buffer.clear();
+		T60DeltaEncoder encoder = new T60DeltaEncoder(buffer, blockSize);
+		encoder.append(ticks, 0, Inputs.SIZE);
+		encoder.flush();
+		return buffer;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public long[] decode() {
+		new T60DeltaDecoder(encoded).read(decoded, 0, Inputs.SIZE);
+		return decoded;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public ByteBuffer encodePlain() {
+		T60Instant.putTicks(plain, 0, ticks, 0, Inputs.SIZE);
+		return plain;
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.duramec.time.benchmark;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.GPSCalendar;
+import com.duramec.time.GPSInstant;
+import com.duramec.time.GPSWeek;
+import com.duramec.time.Posix;
+import com.duramec.time.T60Instant;
+
+/**
+ * Assigning instants to GPS weeks, through the calendar and by building a
+ * week directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GPSCalendarBenchmark {
+
+	@Param({ "recent", "distinctDays", "nearLeapSeconds" })
+	public String inputs;
+
+	private long[] ticks;
+
+	private int i;
+
+	@Setup
+	public void setup() throws ParseException, IOException {
+		Inputs.loadLeapTable();
+		long[] seconds = Inputs.byName(inputs);
+		ticks = new long[Inputs.SIZE];
+		for (int j = 0; j < Inputs.SIZE; j++) {
+			ticks[j] = new T60Instant(new Posix(seconds[j])).asLong();
+		}
+	}
+
+	@Benchmark
+	public GPSWeek weekContaining() {
+		i = (i + 1) & Inputs.MASK;
+		return GPSCalendar.weekContaining(ticks[i]);
+	}
+
+	/**
+	 * The lookup as done before the calendar existed.
+	 */
+	@Benchmark
+	public GPSWeek newWeek() {
+		i = (i + 1) & Inputs.MASK;
+		T60Instant instant = new T60Instant(ticks[i]);
+		return new GPSWeek(new GPSInstant(instant).getAbsoluteWeek());
+	}
+
+}
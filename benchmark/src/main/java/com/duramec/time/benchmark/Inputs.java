@@ -0,0 +1,98 @@
+package com.duramec.time.benchmark;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import com.duramec.time.LeapSecond;
+import com.duramec.time.LeapTable;
+import com.duramec.time.Posix;
+
+/**
+ * Input sets shared by the benchmarks. Every set has a power-of-two size so
+ * benchmarks can cycle through it with a mask instead of a modulo.
+ */
+final class Inputs {
+
+	static final int SIZE = 1 << 12;
+
+	static final int MASK = SIZE - 1;
+
+	/**
+	 * Fixed seed so that every run measures the same inputs.
+	 */
+	private static final long SEED = 0x5DEECE66DL;
+
+	private Inputs() {
+	}
+
+	/**
+	 * Load the leapseconds table given by the build, falling back to the file
+	 * relative to the repository root.
+	 */
+	static void loadLeapTable() throws ParseException, IOException {
+		String file = System.getProperty("com.duramec.time.leapseconds",
+				"tzdata/leapseconds");
+		LeapTable.load(file);
+	}
+
+	/**
+	 * POSIX seconds at a random time of day on many distinct days between
+	 * 1972 and 2030.
+	 */
+	static long[] distinctDays() {
+		Random random = new Random(SEED);
+		long begin = new Posix(1972, 1, 1).secondsPosixEpoch();
+		long end = new Posix(2030, 1, 1).secondsPosixEpoch();
+		long[] seconds = new long[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			seconds[i] = begin + (long) (random.nextDouble() * (end - begin));
+		}
+		return seconds;
+	}
+
+	/**
+	 * POSIX seconds within a few seconds either side of every leap second in
+	 * the table.
+	 */
+	static long[] nearLeapSeconds() {
+		Random random = new Random(SEED);
+		ArrayList<LeapSecond> table = LeapTable.getTableClone();
+		long[] seconds = new long[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			LeapSecond leap = table.get(random.nextInt(table.size()));
+			seconds[i] = leap.occursAtPosixSeconds() + random.nextInt(5) - 2;
+		}
+		return seconds;
+	}
+
+	/**
+	 * POSIX seconds within the last day, i.e. the common case of stamping
+	 * live events.
+	 */
+	static long[] recent() {
+		Random random = new Random(SEED);
+		long now = System.currentTimeMillis() / 1000L;
+		long[] seconds = new long[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			seconds[i] = now - random.nextInt(86400);
+		}
+		return seconds;
+	}
+
+	/**
+	 * Select one of the input sets above by name, for use with @Param.
+	 */
+	static long[] byName(String name) {
+		if ("distinctDays".equals(name)) {
+			return distinctDays();
+		} else if ("nearLeapSeconds".equals(name)) {
+			return nearLeapSeconds();
+		} else if ("recent".equals(name)) {
+			return recent();
+		}
+		throw new IllegalArgumentException("unknown input set " + name);
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.duramec.time.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.Julian;
+
+/**
+ * Day numbers of civil dates and civil dates of day numbers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JulianBenchmark {
+
+	@Param({ "recent", "distinctDays", "nearLeapSeconds" })
+	public String inputs;
+
+	private long[] seconds;
+
+	private final int[] years = new int[Inputs.SIZE];
+
+	private final int[] months = new int[Inputs.SIZE];
+
+	private final int[] days = new int[Inputs.SIZE];
+
+	private final long[] tjd = new long[Inputs.SIZE];
+
+	private final int[] buckets = new int[Inputs.SIZE];
+
+	@Setup
+	public void setup() {
+		seconds = Inputs.byName(inputs);
+		for (int j = 0; j < Inputs.SIZE; j++) {
+			tjd[j] = Julian.truncatedOfPosixSeconds(seconds[j]);
+		}
+		Julian.civilOfTruncated(tjd, 0, years, months, days, 0, Inputs.SIZE);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public long[] truncated() {
+		Julian.truncated(years, months, days, 0, tjd, 0, Inputs.SIZE);
+		return tjd;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public int[] civilOfTruncated() {
+		Julian.civilOfTruncated(tjd, 0, years, months, days, 0, Inputs.SIZE);
+		return days;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public int[] bucketByDay() {
+		Julian.truncatedOfPosixSeconds(seconds, 0, buckets, 0, Inputs.SIZE);
+		return buckets;
+	}
+
+}
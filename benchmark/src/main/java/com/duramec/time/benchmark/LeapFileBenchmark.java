@@ -0,0 +1,51 @@
+package com.duramec.time.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.LeapFile;
+
+/**
+ * Parsing of the leap second files in both formats, from memory so that only
+ * the parser is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LeapFileBenchmark {
+
+	@Param({ "leapseconds", "leap-seconds.list" })
+	public String file;
+
+	private byte[] bytes;
+
+	@Setup
+	public void setup() throws IOException {
+		bytes = Files.readAllBytes(Paths.get("tzdata", file));
+	}
+
+	@Benchmark
+	public LeapFile parse() throws ParseException, IOException {
+		return LeapFile.parse(new ByteArrayInputStream(bytes));
+	}
+
+}
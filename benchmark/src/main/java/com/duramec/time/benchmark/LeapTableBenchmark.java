@@ -0,0 +1,118 @@
+package com.duramec.time.benchmark;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.LeapTable;
+import com.duramec.time.Posix;
+import com.duramec.time.TAIInstant;
+
+/**
+ * Leap table lookups and the POSIX to TAI conversion built on them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LeapTableBenchmark {
+
+	@Param({ "recent", "distinctDays", "nearLeapSeconds" })
+	public String inputs;
+
+	private long[] seconds;
+
+	private long[] sortedSeconds;
+
+	private long[] taiSeconds;
+
+	private Posix[] posix;
+
+	private int i;
+
+	@Setup
+	public void setup() throws ParseException, IOException {
+		Inputs.loadLeapTable();
+		seconds = Inputs.byName(inputs);
+		posix = new Posix[Inputs.SIZE];
+		for (int j = 0; j < Inputs.SIZE; j++) {
+			posix[j] = new Posix(seconds[j]);
+		}
+		sortedSeconds = seconds.clone();
+		Arrays.sort(sortedSeconds);
+		taiSeconds = new long[Inputs.SIZE];
+	}
+
+	@Benchmark
+	public int offset() {
+		i = (i + 1) & Inputs.MASK;
+		return LeapTable.offset(seconds[i]);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public int offsetContended() {
+		i = (i + 1) & Inputs.MASK;
+		return LeapTable.offset(seconds[i]);
+	}
+
+	@Benchmark
+	public boolean isLeapSecond() {
+		i = (i + 1) & Inputs.MASK;
+		return LeapTable.isLeapSecond(seconds[i]);
+	}
+
+	/**
+	 * Full conversion including construction of the Posix argument, as done
+	 * by callers which only hold a count of seconds.
+	 */
+	@Benchmark
+	public TAIInstant taiFromSeconds() {
+		i = (i + 1) & Inputs.MASK;
+		return new TAIInstant(new Posix(seconds[i]));
+	}
+
+	@Benchmark
+	public TAIInstant taiFromPosix() {
+		i = (i + 1) & Inputs.MASK;
+		return new TAIInstant(posix[i]);
+	}
+
+	/**
+	 * Batch conversion of the whole input, one binary search per value.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public long[] taiBatchUnsorted() {
+		LeapTable.toTAI(seconds, 0, taiSeconds, 0, Inputs.SIZE);
+		return taiSeconds;
+	}
+
+	/**
+	 * Batch conversion of the same input sorted, walking the table once.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public long[] taiBatchSorted() {
+		LeapTable.toTAI(sortedSeconds, 0, taiSeconds, 0, Inputs.SIZE);
+		return taiSeconds;
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.duramec.time.benchmark;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.Posix;
+import com.duramec.time.Smooth;
+import com.duramec.time.T60Instant;
+
+/**
+ * Conversion of T60 ticks to smeared time, singly and in bulk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SmoothBenchmark {
+
+	@Param({ "recent", "distinctDays", "nearLeapSeconds" })
+	public String inputs;
+
+	@Param({ "LINEAR", "COSINE" })
+	public Smooth.Profile profile;
+
+	private Smooth smooth;
+
+	private long[] ticks;
+
+	private long[] smeared;
+
+	private int i;
+
+	@Setup
+	public void setup() throws ParseException, IOException {
+		Inputs.loadLeapTable();
+		smooth = new Smooth(profile, 86400, Smooth.Alignment.CENTER);
+		long[] seconds = Inputs.byName(inputs);
+		ticks = new long[Inputs.SIZE];
+		smeared = new long[Inputs.SIZE];
+		for (int j = 0; j < Inputs.SIZE; j++) {
+			ticks[j] = new T60Instant(new Posix(seconds[j])).asLong();
+		}
+	}
+
+	@Benchmark
+	public long fromT60() {
+		i = (i + 1) & Inputs.MASK;
+		return smooth.fromT60(ticks[i]);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public long[] fromT60Bulk() {
+		smooth.fromT60(ticks, 0, smeared, 0, Inputs.SIZE);
+		return smeared;
+	}
+
+}
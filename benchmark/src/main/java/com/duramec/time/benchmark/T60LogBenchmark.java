@@ -0,0 +1,79 @@
+package com.duramec.time.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.T60LogReader;
+import com.duramec.time.T60LogWriter;
+import com.duramec.time.TickGen;
+
+/**
+ * Searching a memory-mapped T60 log of a million records with 16-byte
+ * payloads by time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class T60LogBenchmark {
+
+	private static final int records = 1 << 20;
+
+	private final byte[] payload = new byte[16];
+
+	private final TickGen tickGen = new TickGen();
+
+	private Path directory;
+
+	private T60LogReader reader;
+
+	private long[] targets;
+
+	private int i;
+
+	@Setup
+	public void setup() throws IOException {
+		directory = Files.createTempDirectory("t60log");
+		T60LogWriter filler = new T60LogWriter(directory.resolve("read"), 16,
+				records);
+		long[] ticks = new long[records];
+		tickGen.next(ticks);
+		for (int j = 0; j < records; j++) {
+			filler.append(ticks[j], payload, 0);
+		}
+		filler.close();
+		reader = new T60LogReader(directory.resolve("read"));
+		targets = new long[Inputs.SIZE];
+		for (int j = 0; j < Inputs.SIZE; j++) {
+			targets[j] = ticks[(j * 7919) & (records - 1)];
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		reader.close();
+	}
+
+	@Benchmark
+	public long search() {
+		i = (i + 1) & Inputs.MASK;
+		return reader.search(targets[i]);
+	}
+
+}
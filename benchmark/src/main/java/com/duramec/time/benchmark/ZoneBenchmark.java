@@ -0,0 +1,104 @@
+package com.duramec.time.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.duramec.time.T60Instant;
+import com.duramec.time.ZoneCompiler;
+import com.duramec.time.ZoneRules;
+
+/**
+ * UTC offset lookups and local fields of compiled time zones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ZoneBenchmark {
+
+	@Param({ "America/New_York", "Asia/Tokyo" })
+	public String zone;
+
+	@Param({ "recent", "distinctDays" })
+	public String inputs;
+
+	private ZoneRules rules;
+
+	private long[] seconds;
+
+	private long[] ticks;
+
+	private long[] sortedTicks;
+
+	private int[] fields;
+
+	private int i;
+
+	@Setup
+	public void setup() throws ParseException, IOException {
+		rules = ZoneCompiler.compile(Paths.get("tzdata")).get(zone);
+		seconds = Inputs.byName(inputs);
+		ticks = new long[Inputs.SIZE];
+		for (int j = 0; j < Inputs.SIZE; j++) {
+			ticks[j] = T60Instant.lilianToPosixTicks
+					+ (seconds[j] * 10000000L);
+		}
+		sortedTicks = ticks.clone();
+		Arrays.sort(sortedTicks);
+		fields = new int[Inputs.SIZE * ZoneRules.fieldCount];
+	}
+
+	@Benchmark
+	public int offset() {
+		i = (i + 1) & Inputs.MASK;
+		return rules.offset(seconds[i]);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public int offsetContended() {
+		i = (i + 1) & Inputs.MASK;
+		return rules.offset(seconds[i]);
+	}
+
+	@Benchmark
+	public int[] localFields() {
+		i = (i + 1) & Inputs.MASK;
+		rules.localFields(ticks[i], fields, 0);
+		return fields;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public int[] localFieldsBatchUnsorted() {
+		rules.localFields(ticks, 0, fields, 0, Inputs.SIZE);
+		return fields;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Inputs.SIZE)
+	public int[] localFieldsBatchSorted() {
+		rules.localFields(sortedTicks, 0, fields, 0, Inputs.SIZE);
+		return fields;
+	}
+
+}
@@ -68,11 +68,16 @@ object Dependencies {
   val core = Seq(
       jodaTime,
       scalaTest)
+
+  val benchmark = Seq(
+      jmhCore,
+      jmhGenerator)
 }
 
 object Version {
   val Scala     = "2.10.1"
   val ScalaTest = "2.0.M5b"
+  val JMH       = "1.21"
 }
 
 object Dependency {
@@ -80,6 +85,81 @@ object Dependency {
   
   val jodaTime     = "joda-time"                 % "joda-time"         % "2.1"     % "compile"
   val scalaTest    = "org.scalatest"             % "scalatest_2.10"    % ScalaTest % "test"
+  val jmhCore      = "org.openjdk.jmh"           % "jmh-core"          % JMH       % "compile"
+  val jmhGenerator = "org.openjdk.jmh"           % "jmh-generator-annprocess" % JMH % "compile"
+}
+
+/**
+ * Compiles the bundled IERS leap-seconds.list file into LeapTableData, the
+ * table LeapTable starts out with, so that conversions work without reading
+ * any file at run time. The file is rewritten only when its content changes.
+ *
+ * Each line of the list gives the NTP seconds at which a TAI-UTC offset comes
+ * into effect, the end of the leap second; it is turned into the civil fields
+ * of second 60 (or 59 for a removed second) of the day before, as in tzdata.
+ * The first line, the start of UTC in 1972, is not a leap second.
+ */
+object LeapTableGenerator {
+  val ntpToPosix = 2208988800L
+
+  val leap = """^(\d+)\s+(\d+).*$""".r
+  val expiresLine = """^#@\s+(\d+).*$""".r
+
+  def generate(source: File, dir: File): Seq[File] = {
+    val out = dir / "com" / "duramec" / "time" / "LeapTableData.java"
+    var expires = "LeapFile.NEVER_VALID"
+    var lastOffset = 10
+    val rows = IO.readLines(source) flatMap {
+      case leap(ntp, offsetText) =>
+        val posix = ntp.toLong - ntpToPosix
+        val offset = offsetText.toInt
+        val correction = offset - lastOffset
+        lastOffset = offset
+        if (correction == 0) None
+        else if (math.abs(correction) != 1 || posix % 86400L != 0)
+          sys.error(source.getName + ": offset " + offset + " at " + posix + " is not a leap second")
+        else {
+          val calendar = new java.util.GregorianCalendar(java.util.TimeZone.getTimeZone("UTC"))
+          calendar.setTimeInMillis((posix - 86400L) * 1000L)
+          val fields = Seq(calendar.get(java.util.Calendar.YEAR),
+            calendar.get(java.util.Calendar.MONTH) + 1,
+            calendar.get(java.util.Calendar.DAY_OF_MONTH),
+            23, 59, if (correction > 0) 60 else 59, correction)
+          Some(fields.mkString("\t\t\t", ", ", ","))
+        }
+      case expiresLine(ntp) =>
+        expires = (ntp.toLong - ntpToPosix) + "L"
+        None
+      case _ => None
+    }
+    val text = Seq(
+      "package com.duramec.time;",
+      "",
+      "/**",
+      " * Generated by project/Build.scala from " + source.getName + "; do not edit.",
+      " */",
+      "final class LeapTableData {",
+      "",
+      "\tprivate LeapTableData() {",
+      "\t}",
+      "",
+      "\t/**",
+      "\t * Year, month, day, hour, minute, second and correction (+1 or -1) of",
+      "\t * each leap second, in order.",
+      "\t */",
+      "\tstatic final int[] fields = {") ++ rows ++ Seq(
+      "\t};",
+      "",
+      "\tstatic final long expires = " + expires + ";",
+      "",
+      "}",
+      "")
+    val content = text.mkString("\n")
+    if (!out.exists || IO.read(out) != content) {
+      IO.write(out, content)
+    }
+    Seq(out)
+  }
 }
 
 object TimeBuild extends Build {
@@ -90,7 +170,37 @@ object TimeBuild extends Build {
     id = "time",
     base = file("."),
     settings = defaultSettings ++ Seq(
-      libraryDependencies ++= Dependencies.core
+      libraryDependencies ++= Dependencies.core,
+      sourceGenerators in Compile <+= (sourceManaged in Compile, baseDirectory) map {
+        (dir, base) => LeapTableGenerator.generate(base / "tzdata" / "leap-seconds.list", dir)
+      }
+      )
+    )
+
+  /**
+   * JMH benchmarks, kept out of the default build. Run all of them with
+   * allocation profiling through:
+   *
+   *   sbt "benchmark/run"
+   *
+   * or pass regular JMH options, e.g. a filter and a results file:
+   *
+   *   sbt "benchmark/run -t 4 -rf json -rff baseline.json LeapTable"
+   *
+   * JMH forks its own JVMs from the classpath of the one it is started in,
+   * so the run must be forked out of sbt.
+   */
+  lazy val benchmark = Project(
+    id = "benchmark",
+    base = file("benchmark"),
+    dependencies = Seq(time),
+    settings = defaultSettings ++ Seq(
+      libraryDependencies ++= Dependencies.benchmark,
+      fork in run := true,
+      javaOptions in run += ("-Dcom.duramec.time.leapseconds="
+        + (file("tzdata") / "leapseconds").getAbsolutePath),
+      mainClass in (Compile, run) := Some("com.duramec.time.benchmark.BenchmarkMain"),
+      publishArtifact := false
       )
     )
 }
@@ -0,0 +1,67 @@
+package com.duramec.time;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Short text copied into a per-thread byte array, so that the text parsers
+ * keep a single scanning routine over bytes and convert characters once per
+ * call rather than dispatching on the source for every character. Byte arrays
+ * and heap buffers are scanned in place and never copied.
+ *
+ * Only the first copyLength characters are copied, which is further than any
+ * parser reads. A character beyond ASCII becomes 0x7F, which no parser
+ * accepts, so that it cannot be mistaken for the ASCII character in its low
+ * byte.
+ */
+final class Ascii {
+
+	/**
+	 * Number of characters copied from the start of the text.
+	 */
+	static final int copyLength = 64;
+
+	private static final ThreadLocal<byte[]> scratch = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[copyLength];
+		}
+	};
+
+	private Ascii() {
+	}
+
+	static byte[] copy(CharSequence text, int offset, int length) {
+		byte[] bytes = scratch.get();
+		int n = Math.min(length, copyLength);
+		for (int i = 0; i < n; i++) {
+			bytes[i] = ascii(text.charAt(offset + i));
+		}
+		return bytes;
+	}
+
+	static byte[] copy(char[] chars, int offset, int length) {
+		byte[] bytes = scratch.get();
+		int n = Math.min(length, copyLength);
+		for (int i = 0; i < n; i++) {
+			bytes[i] = ascii(chars[offset + i]);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Copy from a buffer without a backing array, by absolute index.
+	 */
+	static byte[] copy(ByteBuffer buffer, int offset, int length) {
+		byte[] bytes = scratch.get();
+		int n = Math.min(length, copyLength);
+		for (int i = 0; i < n; i++) {
+			bytes[i] = buffer.get(offset + i);
+		}
+		return bytes;
+	}
+
+	private static byte ascii(char c) {
+		return (byte) ((c < 0x80) ? c : 0x7F);
+	}
+
+}
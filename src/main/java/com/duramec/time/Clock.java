@@ -21,7 +21,7 @@ public final class Clock {
 		}
 	}
 
-	public synchronized final long tick() {
+	public final long tick() {
 		long now = System.nanoTime();
 		return startTick + ((now - startNanos) / 100L);
 	}
@@ -0,0 +1,122 @@
+package com.duramec.time;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-width big-endian binary forms of instants in caller-supplied buffers,
+ * shared by the instant classes. Every value is written big-endian whatever
+ * the order of the buffer, so encodings sort bytewise and are the same in heap
+ * and direct buffers; only absolute gets and puts are used, so nothing is
+ * allocated.
+ */
+final class Codec {
+
+	/**
+	 * Length of seconds and nanos: an 8-byte count of seconds followed by a
+	 * 4-byte count of nanos.
+	 */
+	static final int secondsNanosLength = 12;
+
+	private Codec() {
+	}
+
+	static void putLong(ByteBuffer buffer, int index, long value) {
+		if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+			value = Long.reverseBytes(value);
+		}
+		buffer.putLong(index, value);
+	}
+
+	static long getLong(ByteBuffer buffer, int index) {
+		long value = buffer.getLong(index);
+		if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+			value = Long.reverseBytes(value);
+		}
+		return value;
+	}
+
+	static void putInt(ByteBuffer buffer, int index, int value) {
+		if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+			value = Integer.reverseBytes(value);
+		}
+		buffer.putInt(index, value);
+	}
+
+	static int getInt(ByteBuffer buffer, int index) {
+		int value = buffer.getInt(index);
+		if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+			value = Integer.reverseBytes(value);
+		}
+		return value;
+	}
+
+	static void putLongs(ByteBuffer buffer, int index, long[] values,
+			int offset, int length) {
+		if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+			for (int i = 0; i < length; i++) {
+				buffer.putLong(index + (i << 3),
+						Long.reverseBytes(values[offset + i]));
+			}
+		} else {
+			for (int i = 0; i < length; i++) {
+				buffer.putLong(index + (i << 3), values[offset + i]);
+			}
+		}
+	}
+
+	static void getLongs(ByteBuffer buffer, int index, long[] values,
+			int offset, int length) {
+		if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+			for (int i = 0; i < length; i++) {
+				values[offset + i] = Long.reverseBytes(buffer.getLong(index
+						+ (i << 3)));
+			}
+		} else {
+			for (int i = 0; i < length; i++) {
+				values[offset + i] = buffer.getLong(index + (i << 3));
+			}
+		}
+	}
+
+	static void putSecondsNanos(ByteBuffer buffer, int index, long seconds,
+			long nanos) {
+		int n = (int) nanos;
+		if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+			seconds = Long.reverseBytes(seconds);
+			n = Integer.reverseBytes(n);
+		}
+		buffer.putLong(index, seconds);
+		buffer.putInt(index + 8, n);
+	}
+
+	static long getSeconds(ByteBuffer buffer, int index) {
+		return getLong(buffer, index);
+	}
+
+	static long getNanos(ByteBuffer buffer, int index) {
+		int n = buffer.getInt(index + 8);
+		if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+			n = Integer.reverseBytes(n);
+		}
+		return n & 0xFFFFFFFFL;
+	}
+
+	static void putSecondsNanos(ByteBuffer buffer, int index, long[] seconds,
+			long[] nanos, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			putSecondsNanos(buffer, index + (i * secondsNanosLength),
+					seconds[offset + i], nanos[offset + i]);
+		}
+	}
+
+	static void getSecondsNanos(ByteBuffer buffer, int index, long[] seconds,
+			long[] nanos, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			int p = index + (i * secondsNanosLength);
+			seconds[offset + i] = getSeconds(buffer, p);
+			nanos[offset + i] = getNanos(buffer, p);
+		}
+	}
+
+}
@@ -34,4 +34,16 @@ public final class Epoch {
 
 	public static final long LILIAN_TO_POSIX = 12219292800L;
 
+	/**
+	 * Truncated Julian Dates of the other epochs above, kept as literals for
+	 * the same reason as POSIX_TJD.
+	 */
+	public static final long LILIAN_TJD = -140840;
+
+	public static final long GPS_TJD = 4244;
+
+	public static final long TAI_TJD = -3796;
+
+	public static final long JULIAN_TJD = -23;
+
 }
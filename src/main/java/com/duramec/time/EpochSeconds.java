@@ -0,0 +1,279 @@
+package com.duramec.time;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+
+/**
+ * Text form of TAIInstant and GPSInstant: a count of seconds since the epoch,
+ * a '.', the fraction of the second and the name of the time scale, as in
+ *
+ * 1234567890.328328328TAI
+ *
+ * The seconds may be negative; the fraction is always counted forward from
+ * them, as toString writes it. The fraction has from 1 to 9 digits and is
+ * read as a decimal fraction, so ".5" is 500 ms.
+ *
+ * Text is scanned by hand from a CharSequence or UTF-8 encoded bytes without
+ * creating any intermediate objects, the seconds and nanos being written into
+ * a caller-supplied array. Bytes are scanned in place and characters first
+ * copied once into a per-thread byte array, as in RFC3339. EpochSecondsReader
+ * applies the same scanner to whole files of such instants, one per line.
+ */
+public final class EpochSeconds {
+
+	/**
+	 * Time scales with a text form.
+	 */
+	public enum Scale {
+		TAI, GPS
+	}
+
+	private EpochSeconds() {
+	}
+
+	private static final int maximumSecondsDigits = 18;
+
+	private static final int maximumFractionDigits = 9;
+
+	private static final long[] powersOfTen = { 1L, 10L, 100L, 1000L, 10000L,
+			100000L, 1000000L, 10000000L, 100000000L, 1000000000L };
+
+	private static final Charset utf8 = Charset.forName("UTF-8");
+
+	/**
+	 * Write seconds and nanos in text form, with all nine digits of the
+	 * fraction.
+	 *
+	 * @param seconds
+	 * @param nanos
+	 * @param scale
+	 * @return
+	 */
+	public static String toString(long seconds, long nanos, Scale scale) {
+		StringBuilder out = new StringBuilder(32);
+		out.append(seconds).append('.');
+		for (int i = maximumFractionDigits - 1; i >= 0; i--) {
+			out.append((char) ('0' + ((nanos / powersOfTen[i]) % 10)));
+		}
+		return out.append(scale.name()).toString();
+	}
+
+	/**
+	 * Parse text into seconds since the TAI epoch and nanos, written to
+	 * out[outOffset] and out[outOffset + 1]. Returns the seconds.
+	 *
+	 * @param text
+	 * @param out
+	 * @param outOffset
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseTAI(CharSequence text, long[] out, int outOffset)
+			throws ParseException {
+		return scan(text, 0, text.length(), Scale.TAI, out, outOffset);
+	}
+
+	/**
+	 * Parse a range of UTF-8 bytes into seconds since the TAI epoch and nanos.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @param out
+	 * @param outOffset
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseTAI(byte[] bytes, int offset, int length,
+			long[] out, int outOffset) throws ParseException {
+		return scan(bytes, offset, length, Scale.TAI, out, outOffset);
+	}
+
+	/**
+	 * Parse a range of UTF-8 bytes into seconds since the TAI epoch and nanos.
+	 * The range is given in absolute indexes; the position of the buffer is
+	 * not changed.
+	 *
+	 * @param buffer
+	 * @param offset
+	 * @param length
+	 * @param out
+	 * @param outOffset
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseTAI(ByteBuffer buffer, int offset, int length,
+			long[] out, int outOffset) throws ParseException {
+		return scan(buffer, offset, length, Scale.TAI, out, outOffset);
+	}
+
+	/**
+	 * Parse text into seconds since the GPS epoch and nanos, written to
+	 * out[outOffset] and out[outOffset + 1]. Returns the seconds.
+	 *
+	 * @param text
+	 * @param out
+	 * @param outOffset
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseGPS(CharSequence text, long[] out, int outOffset)
+			throws ParseException {
+		return scan(text, 0, text.length(), Scale.GPS, out, outOffset);
+	}
+
+	/**
+	 * Parse a range of UTF-8 bytes into seconds since the GPS epoch and nanos.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @param out
+	 * @param outOffset
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseGPS(byte[] bytes, int offset, int length,
+			long[] out, int outOffset) throws ParseException {
+		return scan(bytes, offset, length, Scale.GPS, out, outOffset);
+	}
+
+	/**
+	 * Parse a range of UTF-8 bytes into seconds since the GPS epoch and nanos.
+	 * The range is given in absolute indexes; the position of the buffer is
+	 * not changed.
+	 *
+	 * @param buffer
+	 * @param offset
+	 * @param length
+	 * @param out
+	 * @param outOffset
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseGPS(ByteBuffer buffer, int offset, int length,
+			long[] out, int outOffset) throws ParseException {
+		return scan(buffer, offset, length, Scale.GPS, out, outOffset);
+	}
+
+	private static ParseException fail(Object text, int offset, int length,
+			Scale scale, String reason) {
+		String string;
+		if (text instanceof CharSequence) {
+			string = ((CharSequence) text).subSequence(offset, offset + length)
+					.toString();
+		} else if (text instanceof byte[]) {
+			string = new String((byte[]) text, offset, length, utf8);
+		} else {
+			ByteBuffer buffer = ((ByteBuffer) text).duplicate();
+			byte[] bytes = new byte[length];
+			buffer.position(offset);
+			buffer.get(bytes);
+			string = new String(bytes, utf8);
+		}
+		return new ParseException("\"" + string + "\" cannot be parsed as "
+				+ scale.name() + " seconds: " + reason, 0);
+	}
+
+	/**
+	 * Check that the rest of the text, from the end of the fraction, is the
+	 * name of the scale, given as the characters c0 to c2 at its start, or -1
+	 * past the end.
+	 */
+	private static String suffix(int remaining, int c0, int c1, int c2,
+			Scale scale) {
+		if (c0 >= '0' && c0 <= '9') {
+			return "fraction must have 1 to " + maximumFractionDigits
+					+ " digits";
+		}
+		String name = scale.name();
+		if (remaining != 3 || c0 != name.charAt(0) || c1 != name.charAt(1)
+				|| c2 != name.charAt(2)) {
+			return "must end in " + name;
+		}
+		return null;
+	}
+
+	/**
+	 * Byte at an index, or -1 at or past the end.
+	 */
+	private static int byteAt(byte[] bytes, int index, int end) {
+		return (index < end) ? bytes[index] : -1;
+	}
+
+	private static long scan(CharSequence text, int offset, int length,
+			Scale scale, long[] out, int outOffset) throws ParseException {
+		return scan(Ascii.copy(text, offset, length), 0, text, offset, length,
+				scale, out, outOffset);
+	}
+
+	static long scan(byte[] bytes, int offset, int length, Scale scale,
+			long[] out, int outOffset) throws ParseException {
+		return scan(bytes, offset, bytes, offset, length, scale, out,
+				outOffset);
+	}
+
+	private static long scan(ByteBuffer buffer, int offset, int length,
+			Scale scale, long[] out, int outOffset) throws ParseException {
+		if (buffer.hasArray()) {
+			return scan(buffer.array(), buffer.arrayOffset() + offset, buffer,
+					offset, length, scale, out, outOffset);
+		}
+		return scan(Ascii.copy(buffer, offset, length), 0, buffer, offset,
+				length, scale, out, outOffset);
+	}
+
+	/**
+	 * Scan the text as bytes from start, the bytes being either the text
+	 * itself or its first characters copied by Ascii. The text, offset and
+	 * length are only used to report an error.
+	 */
+	private static long scan(byte[] bytes, int start, Object text, int offset,
+			int length, Scale scale, long[] out, int outOffset)
+			throws ParseException {
+		int end = start + length;
+		int i = start;
+		boolean negative = byteAt(bytes, i, end) == '-';
+		if (negative) {
+			i++;
+		}
+		int first = i;
+		long seconds = 0;
+		while (i < end && i - first < maximumSecondsDigits) {
+			int digit = bytes[i] - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			seconds = (seconds * 10) + digit;
+			i++;
+		}
+		if (i == first || byteAt(bytes, i, end) != '.') {
+			throw fail(text, offset, length, scale,
+					"not seconds followed by '.'");
+		}
+		first = ++i;
+		long fraction = 0;
+		while (i < end && i - first < maximumFractionDigits) {
+			int digit = bytes[i] - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			fraction = (fraction * 10) + digit;
+			i++;
+		}
+		int digits = i - first;
+		String error = (digits == 0) ? "no fraction" : suffix(end - i,
+				byteAt(bytes, i, end), byteAt(bytes, i + 1, end),
+				byteAt(bytes, i + 2, end), scale);
+		if (error != null) {
+			throw fail(text, offset, length, scale, error);
+		}
+		seconds = negative ? -seconds : seconds;
+		out[outOffset] = seconds;
+		out[outOffset + 1] = fraction * powersOfTen[maximumFractionDigits
+				- digits];
+		return seconds;
+	}
+
+}
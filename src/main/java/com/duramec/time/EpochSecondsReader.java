@@ -0,0 +1,182 @@
+package com.duramec.time;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+
+/**
+ * A reader of newline-delimited instants in the text form of EpochSeconds,
+ * such as an archive of TAIInstant.toString() output, into columns of seconds
+ * and nanos.
+ *
+ * The channel is read in large blocks into a single buffer and every line is
+ * scanned in place, so nothing is allocated per line. Lines may end in "\n"
+ * or "\r\n"; empty lines are skipped, and the last line need not end in a
+ * newline. A reader must only be used from one thread at a time.
+ */
+public final class EpochSecondsReader implements Closeable {
+
+	private static final int defaultBufferSize = 1 << 16;
+
+	private final ReadableByteChannel channel;
+
+	private final EpochSeconds.Scale scale;
+
+	private final byte[] bytes;
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * Start of the first line not yet read, and end of the bytes read from
+	 * the channel.
+	 */
+	private int start;
+
+	private int end;
+
+	private boolean endOfInput;
+
+	private long line;
+
+	private final long[] instant = new long[2];
+
+	/**
+	 * Create a reader of a channel, which is closed along with the reader.
+	 *
+	 * @param channel
+	 * @param scale
+	 */
+	public EpochSecondsReader(ReadableByteChannel channel,
+			EpochSeconds.Scale scale) {
+		this(channel, scale, defaultBufferSize);
+	}
+
+	/**
+	 * Create a reader of a channel with a buffer of the given size, which
+	 * must be longer than any line.
+	 *
+	 * @param channel
+	 * @param scale
+	 * @param bufferSize
+	 */
+	public EpochSecondsReader(ReadableByteChannel channel,
+			EpochSeconds.Scale scale, int bufferSize) {
+		this.channel = channel;
+		this.scale = scale;
+		this.bytes = new byte[bufferSize];
+		this.buffer = ByteBuffer.wrap(bytes);
+	}
+
+	/**
+	 * Open a reader of a file.
+	 *
+	 * @param file
+	 * @param scale
+	 * @throws IOException
+	 */
+	public EpochSecondsReader(Path file, EpochSeconds.Scale scale)
+			throws IOException {
+		this(FileChannel.open(file, StandardOpenOption.READ), scale);
+	}
+
+	/**
+	 * Number of lines read so far, including empty ones.
+	 *
+	 * @return
+	 */
+	public long getLine() {
+		return line;
+	}
+
+	/**
+	 * Move the partial line at the end of the buffer to its beginning and
+	 * fill the rest from the channel.
+	 */
+	private void fill() throws IOException, ParseException {
+		int remaining = end - start;
+		if (remaining == bytes.length) {
+			throw new ParseException("line " + (line + 1) + " is longer than "
+					+ bytes.length + " bytes", 0);
+		}
+		System.arraycopy(bytes, start, bytes, 0, remaining);
+		start = 0;
+		end = remaining;
+		buffer.clear();
+		buffer.position(end);
+		int n = channel.read(buffer);
+		if (n < 0) {
+			endOfInput = true;
+		} else {
+			end += n;
+		}
+	}
+
+	/**
+	 * Parse up to length instants into columns of seconds and nanos,
+	 * returning how many were read: fewer than length only at the end of the
+	 * input.
+	 *
+	 * @param seconds
+	 * @param nanos
+	 * @param offset
+	 * @param length
+	 * @return
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public int read(long[] seconds, long[] nanos, int offset, int length)
+			throws IOException, ParseException {
+		int read = 0;
+		int scanned = start;
+		while (read < length) {
+			while (scanned < end && bytes[scanned] != '\n') {
+				scanned++;
+			}
+			int lineEnd;
+			if (scanned < end) {
+				lineEnd = scanned;
+			} else if (!endOfInput) {
+				scanned -= start;
+				fill();
+				scanned += start;
+				continue;
+			} else if (start < end) {
+				lineEnd = end;
+			} else {
+				break;
+			}
+			line++;
+			int lineStart = start;
+			start = Math.min(lineEnd + 1, end);
+			scanned = start;
+			if (lineEnd > lineStart && bytes[lineEnd - 1] == '\r') {
+				lineEnd--;
+			}
+			if (lineEnd == lineStart) {
+				continue;
+			}
+			try {
+				EpochSeconds.scan(bytes, lineStart, lineEnd - lineStart,
+						scale, instant, 0);
+			} catch (ParseException e) {
+				throw new ParseException(e.getMessage() + " on line " + line,
+						e.getErrorOffset());
+			}
+			seconds[offset + read] = instant[0];
+			nanos[offset + read] = instant[1];
+			read++;
+		}
+		return read;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
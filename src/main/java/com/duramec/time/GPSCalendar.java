@@ -1,2 +1,222 @@
 package com.duramec.time;
 
+/**
+ * Calendar of GPS weeks, counted from the GPS epoch without rollover.
+ *
+ * GPS time has no leap seconds, so every week is exactly 604,800 seconds long
+ * and the week of an instant is found by arithmetic alone. Which GPS time an
+ * instant stands for depends on its scale:
+ * 
+ * ⇒ GPS seconds are used as they are, and TAI seconds are a constant 19 s
+ * ahead of them, so weekOfGPS and weekOfTAI are exact
+ * 
+ * ⇒ T60 ticks count UTC without its leap seconds, and are taken as GPS time
+ * shifted by the fixed epoch offset of GPSInstant, as are the week boundaries
+ * held as ticks; near a boundary weekOf(long) and weekOf(T60Instant) thus
+ * differ from weekOfTAI by the leap seconds since 1980
+ * 
+ * Week boundaries are kept as T60 ticks in a primitive table along with
+ * shared GPSWeek instances, so looking up the week of an observation
+ * allocates nothing.
+ *
+ * The table is immutable and published through a volatile reference. It
+ * starts out covering the weeks up to about ten years from now and is
+ * replaced by a larger copy the first time a later week is asked for.
+ */
+public final class GPSCalendar {
+
+	private static final long secondsInGpsWeek = 7 * 86400L;
+
+	private static final long ticksInGpsWeek = secondsInGpsWeek * 10000000L;
+
+	/**
+	 * T60 ticks at the GPS epoch.
+	 */
+	private static final long epochTicks = GPSInstant.GPS_TO_LILIAN * 10000000L;
+
+	/**
+	 * Seconds from the TAI epoch to the GPS epoch, counted in TAI.
+	 */
+	private static final long taiToGPS = Epoch.GPS.secondsPosixEpoch()
+			- Epoch.TAI.secondsPosixEpoch() + 19;
+
+	/**
+	 * Weeks beyond this are handed out as new instances rather than being
+	 * added to the table, which would otherwise grow without bound for
+	 * instants far in the future. This is in the year 3236.
+	 */
+	public static final int maximumCachedWeek = (1 << 16) - 1;
+
+	private static final class Table {
+
+		/**
+		 * First T60 tick of each week; one entry more than there are weeks,
+		 * so that the end of the last week is in the table as well.
+		 */
+		final long[] begins;
+
+		final GPSWeek[] weeks;
+
+		Table(int size, Table previous) {
+			this.begins = new long[size + 1];
+			this.weeks = new GPSWeek[size];
+			int copied = 0;
+			if (previous != null) {
+				copied = previous.weeks.length;
+				System.arraycopy(previous.weeks, 0, weeks, 0, copied);
+			}
+			for (int i = copied; i < size; i++) {
+				weeks[i] = new GPSWeek(i);
+			}
+			for (int i = 0; i <= size; i++) {
+				begins[i] = epochTicks + (i * ticksInGpsWeek);
+			}
+		}
+	}
+
+	/**
+	 * Weeks covered by the table to begin with: up to about ten years from
+	 * now.
+	 */
+	private static final int initialWeeks = weekOfGPS((System
+			.currentTimeMillis() / 1000L) - Epoch.GPS.secondsPosixEpoch()) + 520;
+
+	private static volatile Table table = new Table(initialWeeks, null);
+
+	private GPSCalendar() {
+	}
+
+	/**
+	 * Absolute GPS week of a number of T60 ticks, counted from the GPS epoch
+	 * as T60 ticks without leap seconds. Instants before the GPS epoch give
+	 * negative weeks.
+	 *
+	 * @param ticks
+	 * @return
+	 */
+	public static int weekOf(long ticks) {
+		long elapsed = ticks - epochTicks;
+		long week = elapsed / ticksInGpsWeek;
+		if (elapsed % ticksInGpsWeek < 0) {
+			week--;
+		}
+		return (int) week;
+	}
+
+	/**
+	 * Absolute GPS week of a number of seconds since the TAI epoch, which are
+	 * 19 s ahead of GPS seconds.
+	 *
+	 * @param seconds
+	 * @return
+	 */
+	public static int weekOfTAI(long seconds) {
+		return weekOfGPS(seconds - taiToGPS);
+	}
+
+	/**
+	 * Absolute GPS week of a number of seconds since the GPS epoch.
+	 *
+	 * @param seconds
+	 * @return
+	 */
+	public static int weekOfGPS(long seconds) {
+		long week = seconds / secondsInGpsWeek;
+		if (seconds % secondsInGpsWeek < 0) {
+			week--;
+		}
+		return (int) week;
+	}
+
+	/**
+	 * Absolute GPS week of a T60Instant, as by weekOf(long).
+	 *
+	 * @param instant
+	 * @return
+	 */
+	public static int weekOf(T60Instant instant) {
+		return weekOf(instant.asLong());
+	}
+
+	/**
+	 * Absolute GPS week of a TAIInstant, as by weekOfTAI.
+	 *
+	 * @param instant
+	 * @return
+	 */
+	public static int weekOf(TAIInstant instant) {
+		return weekOfTAI(instant.getSecondsSinceEpoch());
+	}
+
+	/**
+	 * Absolute GPS week of a GPSInstant.
+	 *
+	 * @param instant
+	 * @return
+	 */
+	public static int weekOf(GPSInstant instant) {
+		return weekOfGPS(instant.getSecondsSinceEpoch());
+	}
+
+	/**
+	 * Shared instance of an absolute GPS week.
+	 *
+	 * @param week
+	 * @return
+	 */
+	public static GPSWeek week(int week) {
+		if (week < 0) {
+			throw new IllegalArgumentException("GPS week " + week
+					+ " is before the GPS epoch");
+		}
+		Table t = table;
+		if (week < t.weeks.length) {
+			return t.weeks[week];
+		}
+		if (week > maximumCachedWeek) {
+			return new GPSWeek(week);
+		}
+		return grow(week).weeks[week];
+	}
+
+	/**
+	 * Shared instance of the GPS week containing a number of T60 ticks.
+	 *
+	 * @param ticks
+	 * @return
+	 */
+	public static GPSWeek weekContaining(long ticks) {
+		return week(weekOf(ticks));
+	}
+
+	/**
+	 * First T60 tick of an absolute GPS week.
+	 *
+	 * @param week
+	 * @return
+	 */
+	public static long beginTicks(int week) {
+		Table t = table;
+		if (week >= 0 && week < t.begins.length) {
+			return t.begins[week];
+		}
+		return epochTicks + (week * ticksInGpsWeek);
+	}
+
+	/**
+	 * Replace the table with one large enough to hold a week, unless another
+	 * thread already has.
+	 */
+	private static synchronized Table grow(int week) {
+		Table t = table;
+		if (week < t.weeks.length) {
+			return t;
+		}
+		int size = Math.min(Math.max(week + 1, t.weeks.length * 2),
+				maximumCachedWeek + 1);
+		t = new Table(size, t);
+		table = t;
+		return t;
+	}
+
+}
@@ -1,27 +1,24 @@
 package com.duramec.time;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public final class GPSInstant implements Comparable<GPSInstant>, Serializable {
 
 	private static final long serialVersionUID = 1610724597023251748L;
 
-	private static final long GPS_TO_LILIAN = Epoch.GPS.secondsPosixEpoch()
-			- Epoch.LILIAN.secondsPosixEpoch();
+	/**
+	 * Length of the binary form: seconds as a big-endian long followed by
+	 * nanos as a big-endian int.
+	 */
+	public static final int encodedLength = Codec.secondsNanosLength;
 
 	/**
-	 * Regular expression pattern describing .toString and parsing format of
-	 * this class. Format is:
-	 * 
-	 * (seconds-from-epoch).(fractional)GPS
-	 * 
-	 * where parentheses are not included.
+	 * Number of seconds from the Lilian (T60) epoch to the GPS epoch.
 	 */
-	private static Pattern pattern = Pattern
-			.compile("(\\d{1,12})\\.(\\d{3,15})TAI");
+	public static final long GPS_TO_LILIAN = Epoch.GPS.secondsPosixEpoch()
+			- Epoch.LILIAN.secondsPosixEpoch();
 
 	/**
 	 * Number of SI seconds in a GPS week.
@@ -117,8 +114,8 @@ public final class GPSInstant implements Comparable<GPSInstant>, Serializable {
 	 * Construct GPSInstant from a T60Instant.
 	 */
 	public GPSInstant(T60Instant instant) {
-		this((instant.asLong() / 100000000L) - GPS_TO_LILIAN,
-				(instant.asLong() % 100000000L) * 100L);
+		this((instant.asLong() / 10000000L) - GPS_TO_LILIAN,
+				(instant.asLong() % 10000000L) * 100L);
 	}
 
 	/**
@@ -187,14 +184,9 @@ public final class GPSInstant implements Comparable<GPSInstant>, Serializable {
 	 * @throws ParseException
 	 */
 	public static GPSInstant parse(String string) throws ParseException {
-		Matcher m = pattern.matcher(string);
-		if (!m.matches()) {
-			throw new ParseException("Invalid format for TAInstant given; \""
-					+ string + "\"", 0);
-		}
-		long seconds = Long.parseLong(m.group(1));
-		long nanos = Long.parseLong(m.group(2));
-		return new GPSInstant(seconds, nanos);
+		long[] out = new long[2];
+		EpochSeconds.parseGPS(string, out, 0);
+		return new GPSInstant(out[0], out[1]);
 	}
 
 	/**
@@ -205,7 +197,7 @@ public final class GPSInstant implements Comparable<GPSInstant>, Serializable {
 	 * where parentheses are not included.
 	 */
 	public String toString() {
-		return Long.toString(seconds) + "." + Long.toString(nanos) + "GPS";
+		return EpochSeconds.toString(seconds, nanos, EpochSeconds.Scale.GPS);
 	}
 
 	/**
@@ -243,6 +235,99 @@ public final class GPSInstant implements Comparable<GPSInstant>, Serializable {
 		return new T60Instant(secondsTicks + nanosTicks);
 	}
 
+	/**
+	 * Write the binary form at the position of a buffer and advance it. The
+	 * form is big-endian whatever the order of the buffer.
+	 * 
+	 * @param buffer
+	 */
+	public void put(ByteBuffer buffer) {
+		int position = buffer.position();
+		Codec.putSecondsNanos(buffer, position, seconds, nanos);
+		buffer.position(position + encodedLength);
+	}
+
+	/**
+	 * Write the binary form at an absolute index of a buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 */
+	public void put(ByteBuffer buffer, int index) {
+		Codec.putSecondsNanos(buffer, index, seconds, nanos);
+	}
+
+	/**
+	 * Read the binary form at the position of a buffer and advance it.
+	 * 
+	 * @param buffer
+	 * @return
+	 */
+	public static GPSInstant get(ByteBuffer buffer) {
+		int position = buffer.position();
+		GPSInstant instant = get(buffer, position);
+		buffer.position(position + encodedLength);
+		return instant;
+	}
+
+	/**
+	 * Read the binary form at an absolute index of a buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @return
+	 */
+	public static GPSInstant get(ByteBuffer buffer, int index) {
+		return new GPSInstant(Codec.getSeconds(buffer, index), Codec.getNanos(
+				buffer, index));
+	}
+
+	/**
+	 * Write seconds and nanos in the binary form at an absolute index of a
+	 * buffer, without an instance.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @param seconds
+	 * @param nanos
+	 */
+	public static void put(ByteBuffer buffer, int index, long seconds,
+			long nanos) {
+		Codec.putSecondsNanos(buffer, index, seconds, nanos);
+	}
+
+	/**
+	 * Write consecutive seconds and nanos in the binary form from an absolute
+	 * index of a buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @param seconds
+	 * @param nanos
+	 * @param offset
+	 * @param length
+	 */
+	public static void put(ByteBuffer buffer, int index, long[] seconds,
+			long[] nanos, int offset, int length) {
+		Codec.putSecondsNanos(buffer, index, seconds, nanos, offset, length);
+	}
+
+	/**
+	 * Read consecutive seconds and nanos in the binary form from an absolute
+	 * index of a buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @param seconds
+	 * @param nanos
+	 * @param offset
+	 * @param length
+	 */
+	public static void get(ByteBuffer buffer, int index, long[] seconds,
+			long[] nanos, int offset, int length) {
+		Codec.getSecondsNanos(buffer, index, seconds, nanos, offset, length);
+	}
+
 	public int compareTo(GPSInstant that) {
 		if (seconds < that.seconds)
 			return -1;
@@ -2,21 +2,32 @@ package com.duramec.time;
 
 public class GPSWeek implements Comparable<GPSWeek> {
 
+	private static final long ticksInGpsWeek = 7 * 86400 * 10000000L;
+
 	private final int absoluteWeek;
 
+	private final long beginTicks;
+
+	private final long endTicks;
+
 	private final T60Instant begin;
 
 	private final T60Instant end;
 
+	/**
+	 * Create a week. Prefer GPSCalendar.week, which hands out shared
+	 * instances.
+	 * 
+	 * @param week
+	 */
 	public GPSWeek(int week) {
 		assert (week >= 0);
 		this.absoluteWeek = week;
-		long elapsedSecondsBegin = week * 86400 * 7;
-		long elapsedSecondsEnd = (week + 1) * 86400 * 7;
-		GPSInstant gpsBegin = new GPSInstant(elapsedSecondsBegin, 0L);
-		GPSInstant gpsEnd = new GPSInstant(elapsedSecondsEnd, 0L);
-		this.begin = gpsBegin.toT60Instant();
-		this.end = gpsEnd.toT60Instant();
+		this.beginTicks = (GPSInstant.GPS_TO_LILIAN * 10000000L)
+				+ (week * ticksInGpsWeek);
+		this.endTicks = beginTicks + ticksInGpsWeek;
+		this.begin = new T60Instant(beginTicks);
+		this.end = new T60Instant(endTicks);
 	}
 
 	public int getAbsoluteWeek() {
@@ -31,8 +42,36 @@ public class GPSWeek implements Comparable<GPSWeek> {
 		return end;
 	}
 
+	/**
+	 * First T60 tick of the week.
+	 * 
+	 * @return
+	 */
+	public long getBeginTicks() {
+		return beginTicks;
+	}
+
+	/**
+	 * First T60 tick of the following week.
+	 * 
+	 * @return
+	 */
+	public long getEndTicks() {
+		return endTicks;
+	}
+
 	public boolean contains(T60Instant instant) {
-		return (instant.compareTo(begin) >= 0 && instant.compareTo(end) < 0);
+		return contains(instant.asLong());
+	}
+
+	/**
+	 * Determine whether a number of T60 ticks falls within the week.
+	 * 
+	 * @param ticks
+	 * @return
+	 */
+	public boolean contains(long ticks) {
+		return (ticks >= beginTicks && ticks < endTicks);
 	}
 
 	@Override
@@ -42,4 +81,4 @@ public class GPSWeek implements Comparable<GPSWeek> {
 		return 0;
 	}
 
-}
\ No newline at end of file
+}
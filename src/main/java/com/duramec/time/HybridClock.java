@@ -0,0 +1,209 @@
+package com.duramec.time;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A hybrid logical clock, giving stamps which follow physical time yet are
+ * ordered by causality across nodes: a stamp received from another node and
+ * passed to receive() is always below every later stamp of this clock.
+ *
+ * A stamp is a single long: the T60 ticks of a TickSource with the low
+ * logicalBits bits given over to a logical counter. Stamps are thus also T60
+ * ticks, at most about 6.5 ms from physical time, and are read and written
+ * with the 8-byte T60 form. The counter rises while physical time stands
+ * still relative to the last stamp and is cleared once it moves on; as
+ * physical time and counter share the long, a full counter carries into the
+ * physical part, keeping stamps increasing at the cost of running slightly
+ * ahead of the clock.
+ *
+ * The last stamp is advanced with a compare-and-set, as in TickGen, so stamps
+ * are strictly increasing across all threads without locking. A remote stamp
+ * further ahead of the physical clock than the maximum drift is refused, so
+ * that a node with a bad clock cannot drag the others into the future.
+ *
+ * Stamps from different nodes are only comparable if every node's source is
+ * anchored to the wall clock on the T60 epoch, as T60Clock is; a source
+ * counting from an arbitrary origin would make the drift check meaningless.
+ */
+public final class HybridClock {
+
+	/**
+	 * Number of low bits of a stamp holding the logical counter.
+	 */
+	public static final int logicalBits = 16;
+
+	private static final long logicalMask = (1L << logicalBits) - 1;
+
+	/**
+	 * Maximum drift of the default constructor: 500 ms in ticks.
+	 */
+	public static final long defaultMaximumDrift = 500L * 10000L;
+
+	private final TickSource source;
+
+	private final long maximumDrift;
+
+	private final AtomicLong last = new AtomicLong(0L);
+
+	/**
+	 * Create a clock on a T60Clock with the default maximum drift.
+	 */
+	public HybridClock() {
+		this(new T60Clock(), defaultMaximumDrift);
+	}
+
+	/**
+	 * Create a clock on a wall-anchored source of T60 ticks, refusing remote
+	 * stamps ahead of it by more than the maximum drift, in ticks.
+	 *
+	 * @param source
+	 * @param maximumDrift
+	 */
+	public HybridClock(TickSource source, long maximumDrift) {
+		if (maximumDrift < 0) {
+			throw new IllegalArgumentException("maximum drift " + maximumDrift
+					+ " is negative");
+		}
+		this.source = source;
+		this.maximumDrift = maximumDrift;
+	}
+
+	public long getMaximumDrift() {
+		return maximumDrift;
+	}
+
+	/**
+	 * Physical part of a stamp: its T60 ticks with the counter cleared.
+	 *
+	 * @param stamp
+	 * @return
+	 */
+	public static long physical(long stamp) {
+		return stamp & ~logicalMask;
+	}
+
+	/**
+	 * Logical counter of a stamp.
+	 *
+	 * @param stamp
+	 * @return
+	 */
+	public static int logical(long stamp) {
+		return (int) (stamp & logicalMask);
+	}
+
+	/**
+	 * Stamp of a physical time in ticks and a counter.
+	 *
+	 * @param ticks
+	 * @param logical
+	 * @return
+	 */
+	public static long stamp(long ticks, int logical) {
+		if (logical < 0 || logical > logicalMask) {
+			throw new IllegalArgumentException("logical counter " + logical
+					+ " is out of range");
+		}
+		return physical(ticks) | logical;
+	}
+
+	/**
+	 * Last stamp handed out, without advancing the clock.
+	 *
+	 * @return
+	 */
+	public long last() {
+		return last.get();
+	}
+
+	/**
+	 * Stamp a local event.
+	 *
+	 * @return
+	 */
+	public long now() {
+		long physical = physical(source.tick());
+		while (true) {
+			long previous = last.get();
+			long next = (physical > previous) ? physical : previous + 1;
+			if (last.compareAndSet(previous, next)) {
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * Stamp an event sent to another node; the same as now().
+	 *
+	 * @return
+	 */
+	public long send() {
+		return now();
+	}
+
+	/**
+	 * Merge a stamp received from another node and stamp the receipt, which
+	 * is above both the remote stamp and every stamp handed out before.
+	 *
+	 * @param remote
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if the remote stamp is ahead of the physical clock by more
+	 *             than the maximum drift
+	 */
+	public long receive(long remote) {
+		long physical = physical(source.tick());
+		long drift = physical(remote) - physical;
+		if (drift > maximumDrift) {
+			throw new IllegalArgumentException("remote stamp " + remote
+					+ " is " + drift + " ticks ahead of the clock, more than "
+					+ maximumDrift);
+		}
+		while (true) {
+			long previous = last.get();
+			long next = (remote > previous) ? remote + 1 : previous + 1;
+			if (physical > next) {
+				next = physical;
+			}
+			if (last.compareAndSet(previous, next)) {
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * Write a stamp in the 8-byte form of T60Instant at an absolute index of a
+	 * buffer.
+	 *
+	 * @param buffer
+	 * @param index
+	 * @param stamp
+	 */
+	public static void putStamp(ByteBuffer buffer, int index, long stamp) {
+		Codec.putLong(buffer, index, stamp);
+	}
+
+	/**
+	 * Read a stamp in the 8-byte form of T60Instant at an absolute index of a
+	 * buffer.
+	 *
+	 * @param buffer
+	 * @param index
+	 * @return
+	 */
+	public static long getStamp(ByteBuffer buffer, int index) {
+		return Codec.getLong(buffer, index);
+	}
+
+	/**
+	 * A stamp as a T60Instant, such as for formatting.
+	 *
+	 * @param stamp
+	 * @return
+	 */
+	public static T60Instant toInstant(long stamp) {
+		return new T60Instant(stamp);
+	}
+
+}
@@ -1,25 +1,229 @@
 package com.duramec.time;
 
+/**
+ * Day numbers for civil dates in the proleptic Gregorian calendar, and civil
+ * dates for day numbers, using integer arithmetic only.
+ * 
+ * Three day numbers are supported, each beginning its day at midnight:
+ * 
+ * ⇒ Truncated Julian Date (TJD), which the rest of this package uses
+ * 
+ * ⇒ Modified Julian Date (MJD), TJD plus 40000
+ * 
+ * ⇒ Julian Day Number (JDN), TJD plus 2440001, i.e. the Julian date at noon
+ * of the day
+ * 
+ * Dates are counted from March 1 of year 0 in 400-year eras of 146097 days,
+ * so that the leap day falls at the end of each counted year, and every
+ * division is floored so that dates before year 0 work as well as later ones.
+ */
 public class Julian {
 
+	/**
+	 * MJD minus TJD.
+	 */
+	public static final long TJD_TO_MJD = 40000L;
+
+	/**
+	 * JDN minus TJD.
+	 */
+	public static final long TJD_TO_JDN = 2440001L;
+
+	/**
+	 * Days from 0000-03-01 to 1970-01-01.
+	 */
+	private static final long marchZeroToPosix = 719468L;
+
+	/**
+	 * Number of days since the POSIX epoch of a civil date.
+	 * 
+	 * @param year
+	 * @param month
+	 * @param day
+	 * @return
+	 */
+	public static final long posixDays(int year, int month, int day) {
+		long y = (month <= 2) ? year - 1 : year;
+		long era = (y >= 0 ? y : y - 399) / 400;
+		long yoe = y - (era * 400); // [0, 399]
+		long mp = (month > 2) ? month - 3 : month + 9; // [0, 11] from March
+		long doy = (((153 * mp) + 2) / 5) + day - 1; // [0, 365]
+		long doe = (yoe * 365) + (yoe / 4) - (yoe / 100) + doy; // [0, 146096]
+		return (era * 146097) + doe - marchZeroToPosix;
+	}
+
 	/**
 	 * The Julian date epoch used here is not the full Julian period, but the
 	 * one devised by NASA in 1979 known as Truncated Julian Date (TJD).
 	 * Notably, it begins its date at midnight and not midday.
 	 */
 	public static final long truncated(int year, int month, int day) {
-		long y = year;
-		long m = month;
-		long d = day;
-		long L = (long) Math.ceil((m - 14.0) / 12.0);
-		long jd = (d - 32075) + (1461 * (y + 4800 + L) / 4)
-				+ (367 * (m - 2 - L * 12) / 12)
-				- (3 * ((y + 4900 + L) / 100) / 4);
-		return jd - 2440001;
+		return posixDays(year, month, day) + Epoch.POSIX_TJD;
 	}
 
 	public static final long truncated(Posix posix) {
 		return truncated(posix.getYear(), posix.getMonth(), posix.getDay());
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Modified Julian Date of a civil date.
+	 * 
+	 * @param year
+	 * @param month
+	 * @param day
+	 * @return
+	 */
+	public static final long modified(int year, int month, int day) {
+		return truncated(year, month, day) + TJD_TO_MJD;
+	}
+
+	/**
+	 * Julian Day Number of a civil date.
+	 * 
+	 * @param year
+	 * @param month
+	 * @param day
+	 * @return
+	 */
+	public static final long dayNumber(int year, int month, int day) {
+		return truncated(year, month, day) + TJD_TO_JDN;
+	}
+
+	/**
+	 * TJD of the day holding a number of seconds since the POSIX epoch.
+	 * 
+	 * @param posixSeconds
+	 * @return
+	 */
+	public static final long truncatedOfPosixSeconds(long posixSeconds) {
+		long days = posixSeconds / 86400L;
+		if (posixSeconds % 86400L < 0) {
+			days--;
+		}
+		return days + Epoch.POSIX_TJD;
+	}
+
+	/**
+	 * Convert a count of days since the POSIX epoch into a civil date, packed
+	 * into a single long so that no object is needed to return it. Use
+	 * civilYear, civilMonth and civilDay to unpack it.
+	 * 
+	 * @param posixDays
+	 * @return
+	 */
+	public static final long civil(long posixDays) {
+		long z = posixDays + marchZeroToPosix;
+		long era = (z >= 0 ? z : z - 146096L) / 146097L;
+		long doe = z - (era * 146097L); // [0, 146096]
+		long yoe = (doe - (doe / 1460L) + (doe / 36524L) - (doe / 146096L)) / 365L;
+		long doy = doe - ((365L * yoe) + (yoe / 4L) - (yoe / 100L)); // [0, 365]
+		long mp = ((5L * doy) + 2L) / 153L; // [0, 11] starting at March
+		long d = doy - (((153L * mp) + 2L) / 5L) + 1L;
+		long m = (mp < 10) ? mp + 3 : mp - 9;
+		long y = yoe + (era * 400L) + (m <= 2 ? 1 : 0);
+		return (y << 9) | (m << 5) | d;
+	}
+
+	/**
+	 * Civil date of a TJD, packed as by civil.
+	 * 
+	 * @param tjd
+	 * @return
+	 */
+	public static final long civilOfTruncated(long tjd) {
+		return civil(tjd - Epoch.POSIX_TJD);
+	}
+
+	/**
+	 * Civil date of an MJD, packed as by civil.
+	 * 
+	 * @param mjd
+	 * @return
+	 */
+	public static final long civilOfModified(long mjd) {
+		return civil(mjd - TJD_TO_MJD - Epoch.POSIX_TJD);
+	}
+
+	/**
+	 * Civil date of a JDN, packed as by civil.
+	 * 
+	 * @param jdn
+	 * @return
+	 */
+	public static final long civilOfDayNumber(long jdn) {
+		return civil(jdn - TJD_TO_JDN - Epoch.POSIX_TJD);
+	}
+
+	public static final int civilYear(long civil) {
+		return (int) (civil >> 9);
+	}
+
+	public static final int civilMonth(long civil) {
+		return (int) ((civil >> 5) & 0xF);
+	}
+
+	public static final int civilDay(long civil) {
+		return (int) (civil & 0x1F);
+	}
+
+	/**
+	 * TJD of consecutive civil dates.
+	 * 
+	 * @param years
+	 * @param months
+	 * @param days
+	 * @param offset
+	 * @param tjd
+	 * @param outOffset
+	 * @param length
+	 */
+	public static final void truncated(int[] years, int[] months, int[] days,
+			int offset, long[] tjd, int outOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			tjd[outOffset + i] = truncated(years[offset + i],
+					months[offset + i], days[offset + i]);
+		}
+	}
+
+	/**
+	 * Civil dates of consecutive TJDs.
+	 * 
+	 * @param tjd
+	 * @param offset
+	 * @param years
+	 * @param months
+	 * @param days
+	 * @param outOffset
+	 * @param length
+	 */
+	public static final void civilOfTruncated(long[] tjd, int offset,
+			int[] years, int[] months, int[] days, int outOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			long civil = civil(tjd[offset + i] - Epoch.POSIX_TJD);
+			years[outOffset + i] = civilYear(civil);
+			months[outOffset + i] = civilMonth(civil);
+			days[outOffset + i] = civilDay(civil);
+		}
+	}
+
+	/**
+	 * TJD of the days holding consecutive counts of seconds since the POSIX
+	 * epoch, e.g. to bucket timestamps by day.
+	 * 
+	 * @param posixSeconds
+	 * @param offset
+	 * @param tjd
+	 * @param outOffset
+	 * @param length
+	 */
+	public static final void truncatedOfPosixSeconds(long[] posixSeconds,
+			int offset, int[] tjd, int outOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			long seconds = posixSeconds[offset + i];
+			long remainder = seconds % 86400L;
+			long borrow = remainder >> 63; // -1 before the POSIX epoch
+			tjd[outOffset + i] = (int) ((seconds / 86400L) + borrow + Epoch.POSIX_TJD);
+		}
+	}
+
+}
@@ -0,0 +1,437 @@
+package com.duramec.time;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.duramec.time.LeapSecond.JumpDirection;
+
+/**
+ * The leap seconds and expiry parsed from a leap second file, read one line
+ * at a time without regular expressions. Two formats are understood, told
+ * apart by their content:
+ *
+ * ⇒ the tzdata leapseconds file, with lines of the form
+ *
+ * Leap YEAR MONTH DAY HH:MM:SS CORR R/S
+ *
+ * and an expiry given either as an "Expires YEAR MONTH DAY HH:MM:SS" line or
+ * as a "#expires" comment holding POSIX seconds
+ *
+ * ⇒ the IERS/NIST leap-seconds.list file, with lines of NTP seconds at which
+ * each TAI-UTC offset takes effect followed by the offset, the expiry on a
+ * "#@" line and a SHA-1 hash of the data on a "#h" line, which is checked
+ *
+ * The "R/S" (Rolling/Stationary) field of tzdata is ignored, as there should
+ * never be an offset in the file determined in reference to local time.
+ */
+public final class LeapFile {
+
+	/**
+	 * Seconds from the NTP epoch of 1900 to the POSIX epoch.
+	 */
+	static final long ntpToPosix = 2208988800L;
+
+	/**
+	 * Expiry of a file which does not give one.
+	 */
+	public static final long NEVER_VALID = Long.MIN_VALUE;
+
+	private static final Charset utf8 = Charset.forName("UTF-8");
+
+	private final ArrayList<LeapSecond> leapSeconds;
+
+	private final long expires;
+
+	private LeapFile(ArrayList<LeapSecond> leapSeconds, long expires) {
+		this.leapSeconds = leapSeconds;
+		this.expires = expires;
+	}
+
+	/**
+	 * Leap seconds in the file, sorted.
+	 *
+	 * @return
+	 */
+	public List<LeapSecond> getLeapSeconds() {
+		return Collections.unmodifiableList(leapSeconds);
+	}
+
+	/**
+	 * POSIX seconds up to which the file is guaranteed to hold every leap
+	 * second, or NEVER_VALID if it does not say.
+	 *
+	 * @return
+	 */
+	public long getExpires() {
+		return expires;
+	}
+
+	/**
+	 * Parse a file.
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public static LeapFile parse(Path file) throws IOException,
+			ParseException {
+		InputStream in = Files.newInputStream(file);
+		try {
+			return parse(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Parse a resource on the class path of this class, such as
+	 * "com/duramec/time/leapseconds".
+	 *
+	 * @param name
+	 * @return
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public static LeapFile parseResource(String name) throws IOException,
+			ParseException {
+		InputStream in = LeapFile.class.getClassLoader().getResourceAsStream(
+				name);
+		if (in == null) {
+			throw new FileNotFoundException("resource " + name
+					+ " is not on the class path");
+		}
+		try {
+			return parse(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Parse a stream of UTF-8 text, which is read to its end but not closed.
+	 *
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public static LeapFile parse(InputStream in) throws IOException,
+			ParseException {
+		Parser parser = new Parser();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in,
+				utf8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			parser.line(line);
+		}
+		return parser.finish();
+	}
+
+	private static final class Parser {
+
+		private final ArrayList<LeapSecond> leapSeconds = new ArrayList<LeapSecond>();
+
+		private final ArrayList<String> fields = new ArrayList<String>();
+
+		/**
+		 * UTC was originally defined with an offset of 10 on January 1, 1972.
+		 * The first leap second added to this offset by 1 on June 30, 1972.
+		 */
+		private int lastOffset = LeapSnapshot.initialOffset;
+
+		private long expires = NEVER_VALID;
+
+		private int number;
+
+		/**
+		 * Digits hashed by leap-seconds.list, and the hash it gives, if any.
+		 */
+		private StringBuilder hashed;
+
+		private String hash;
+
+		void line(String line) throws ParseException {
+			number++;
+			if (line.startsWith("#")) {
+				comment(line);
+				return;
+			}
+			split(line);
+			if (fields.isEmpty()) {
+				return;
+			}
+			String first = fields.get(0);
+			if (first.equals("Leap")) {
+				tzdataLeap();
+			} else if (first.equals("Expires")) {
+				expires = posix(1);
+			} else if (isDigits(first)) {
+				iersLeap();
+			} else {
+				throw fail("unknown line \"" + line + "\"");
+			}
+		}
+
+		private void comment(String line) throws ParseException {
+			if (line.startsWith("#expires")) {
+				split(line.substring(8));
+				expires = number(0);
+			} else if (line.startsWith("#@")) {
+				split(line.substring(2));
+				expires = number(0) - ntpToPosix;
+				hash(0);
+			} else if (line.startsWith("#$")) {
+				split(line.substring(2));
+				hash(0);
+			} else if (line.startsWith("#h")) {
+				split(line.substring(2));
+				StringBuilder words = new StringBuilder(40);
+				for (int i = 0; i < fields.size(); i++) {
+					String word = Long.toHexString(0x100000000L | hex(i));
+					words.append(word, 1, 9);
+				}
+				hash = words.toString();
+			}
+		}
+
+		/**
+		 * Split the part of a line before any comment into fields separated by
+		 * spaces and tabs.
+		 */
+		private void split(String line) {
+			fields.clear();
+			int length = line.length();
+			int i = 0;
+			while (i < length) {
+				char c = line.charAt(i);
+				if (c == '#') {
+					break;
+				}
+				if (c == ' ' || c == '\t') {
+					i++;
+					continue;
+				}
+				int start = i;
+				while (i < length) {
+					c = line.charAt(i);
+					if (c == ' ' || c == '\t' || c == '#') {
+						break;
+					}
+					i++;
+				}
+				fields.add(line.substring(start, i));
+			}
+		}
+
+		private String field(int index) throws ParseException {
+			if (index >= fields.size()) {
+				throw fail("missing field " + (index + 1));
+			}
+			return fields.get(index);
+		}
+
+		private static boolean isDigits(String s) {
+			if (s.isEmpty()) {
+				return false;
+			}
+			for (int i = 0; i < s.length(); i++) {
+				char c = s.charAt(i);
+				if (c < '0' || c > '9') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private long number(int index) throws ParseException {
+			String s = field(index);
+			if (!isDigits(s) || s.length() > 18) {
+				throw fail("\"" + s + "\" is not a number");
+			}
+			return Long.parseLong(s);
+		}
+
+		private long hex(int index) throws ParseException {
+			String s = field(index);
+			try {
+				if (s.length() <= 8) {
+					return Long.parseLong(s, 16);
+				}
+			} catch (NumberFormatException e) {
+				// fall through
+			}
+			throw fail("\"" + s + "\" is not a hash word");
+		}
+
+		private void hash(int index) throws ParseException {
+			if (hashed == null) {
+				hashed = new StringBuilder();
+			}
+			hashed.append(field(index));
+		}
+
+		/**
+		 * POSIX seconds of a date and time in fields of the form YEAR MONTH
+		 * DAY HH:MM:SS, starting at an index. Second 60 rolls over into the
+		 * next minute.
+		 */
+		private long posix(int index) throws ParseException {
+			int year = (int) number(index);
+			int month = month(field(index + 1));
+			int day = (int) number(index + 2);
+			int[] time = time(field(index + 3));
+			return (Julian.posixDays(year, month, day) * 86400L)
+					+ (time[0] * 3600L) + (time[1] * 60L) + time[2];
+		}
+
+		private int[] time(String s) throws ParseException {
+			if (s.length() != 8 || s.charAt(2) != ':' || s.charAt(5) != ':'
+					|| !isDigits(s.substring(0, 2))
+					|| !isDigits(s.substring(3, 5))
+					|| !isDigits(s.substring(6, 8))) {
+				throw fail("\"" + s + "\" is not a time of day");
+			}
+			int hour = Integer.parseInt(s.substring(0, 2));
+			int minute = Integer.parseInt(s.substring(3, 5));
+			int second = Integer.parseInt(s.substring(6, 8));
+			if (hour > 23 || minute > 59 || second > 60) {
+				throw fail("\"" + s + "\" is not a time of day");
+			}
+			return new int[] { hour, minute, second };
+		}
+
+		private void tzdataLeap() throws ParseException {
+			int year = (int) number(1);
+			int month = month(field(2));
+			int day = (int) number(3);
+			int[] time = time(field(4));
+			String correction = field(5);
+			JumpDirection direction;
+			int offset;
+			if (correction.equals("+")) {
+				direction = JumpDirection.FORWARD;
+				offset = lastOffset + 1;
+			} else if (correction.equals("-")) {
+				direction = JumpDirection.BACKWARD;
+				offset = lastOffset - 1;
+			} else {
+				throw fail("\"" + correction + "\" is not a correction");
+			}
+			add(new LeapSecond(offset, year, month, day, time[0], time[1],
+					time[2], direction));
+		}
+
+		/**
+		 * A line of leap-seconds.list gives the NTP seconds at which an offset
+		 * comes into effect, which is the end of the leap second. It is turned
+		 * into the form of tzdata: second 60 of the day before for an inserted
+		 * second, or second 59 for a removed one.
+		 */
+		private void iersLeap() throws ParseException {
+			long posix = number(0) - ntpToPosix;
+			int offset = (int) number(1);
+			hash(0);
+			hash(1);
+			if (offset == lastOffset) {
+				return; // the start of UTC in 1972, not a leap second
+			}
+			if ((offset != lastOffset + 1 && offset != lastOffset - 1)
+					|| posix % 86400L != 0) {
+				throw fail("offset " + offset + " at " + posix
+						+ " is not a leap second");
+			}
+			long civil = Julian.civil((posix / 86400L) - 1);
+			int year = Julian.civilYear(civil);
+			int month = Julian.civilMonth(civil);
+			int day = Julian.civilDay(civil);
+			if (offset > lastOffset) {
+				add(new LeapSecond(offset, year, month, day, 23, 59, 60,
+						JumpDirection.FORWARD));
+			} else {
+				add(new LeapSecond(offset, year, month, day, 23, 59, 59,
+						JumpDirection.BACKWARD));
+			}
+		}
+
+		private void add(LeapSecond leap) {
+			leapSeconds.add(leap);
+			lastOffset = leap.getOffset();
+		}
+
+		private int month(String month) throws ParseException {
+			switch (month) {
+			case "Jan":
+				return 1;
+			case "Feb":
+				return 2;
+			case "Mar":
+				return 3;
+			case "Apr":
+				return 4;
+			case "May":
+				return 5;
+			case "Jun":
+				return 6;
+			case "Jul":
+				return 7;
+			case "Aug":
+				return 8;
+			case "Sep":
+				return 9;
+			case "Oct":
+				return 10;
+			case "Nov":
+				return 11;
+			case "Dec":
+				return 12;
+			}
+			throw fail("\"" + month + "\" cannot be parsed into a month");
+		}
+
+		private ParseException fail(String reason) {
+			return new ParseException("line " + number + ": " + reason, number);
+		}
+
+		LeapFile finish() throws ParseException {
+			if (hash != null) {
+				String actual = sha1(hashed == null ? "" : hashed.toString());
+				if (!actual.equals(hash)) {
+					throw new ParseException("SHA-1 hash " + actual
+							+ " of the data does not match " + hash, 0);
+				}
+			}
+			Collections.sort(leapSeconds);
+			return new LeapFile(leapSeconds, expires);
+		}
+
+		private static String sha1(String data) {
+			MessageDigest digest;
+			try {
+				digest = MessageDigest.getInstance("SHA-1");
+			} catch (NoSuchAlgorithmException e) {
+				throw new AssertionError(e); // required of every platform
+			}
+			byte[] sum = digest.digest(data.getBytes(utf8));
+			StringBuilder hex = new StringBuilder(sum.length * 2);
+			for (int i = 0; i < sum.length; i++) {
+				hex.append(Character.forDigit((sum[i] >> 4) & 0xF, 16));
+				hex.append(Character.forDigit(sum[i] & 0xF, 16));
+			}
+			return hex.toString();
+		}
+	}
+
+}
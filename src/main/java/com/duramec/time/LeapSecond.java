@@ -1,7 +1,5 @@
 package com.duramec.time;
 
-import org.joda.time.DateTime;
-
 public final class LeapSecond implements Comparable<LeapSecond>, Cloneable {
 
 	public enum JumpDirection {
@@ -52,11 +50,13 @@ public final class LeapSecond implements Comparable<LeapSecond>, Cloneable {
 		this.second = second;
 		this.direction = direction;
 		/**
-		 * The seconds are left off the DateTime constructor. This is in the
-		 * event that the leap second is truncated from that constructor.
+		 * Leap seconds are always given in UTC, so the day is counted directly
+		 * rather than through a DateTime in the default time zone. The seconds
+		 * are added last so that second 60 rolls over into the next minute.
 		 */
-		DateTime dtPosix = new DateTime(year, month, day, hour, minute);
-		long secondsAtMinutePosix = dtPosix.getMillis() / 1000L;
+		long days = Julian.posixDays(year, month, day);
+		long secondsAtMinutePosix = (days * 86400L) + (hour * 3600L)
+				+ (minute * 60L);
 		this.occursAtPosixSeconds = secondsAtMinutePosix + second;
 	}
 
@@ -0,0 +1,330 @@
+package com.duramec.time;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable view of the leap second table at the time it was loaded.
+ *
+ * All lookups go against primitive arrays which are never modified after
+ * construction, so a snapshot may be shared freely between threads and read
+ * without locking or allocation. LeapTable publishes the current snapshot
+ * through a single volatile reference; a reader that needs several answers
+ * to agree with each other should fetch the snapshot once and query it
+ * directly rather than going through the static methods of LeapTable.
+ */
+public final class LeapSnapshot {
+
+	/**
+	 * TAI-UTC offset from the beginning of UTC on January 1, 1972, until the
+	 * first leap second.
+	 */
+	static final int initialOffset = 10;
+
+	/**
+	 * Table of all leap seconds, sorted.
+	 */
+	private final ArrayList<LeapSecond> table;
+
+	/**
+	 * Sorted POSIX seconds at which each leap second in the table takes effect.
+	 * This is a primitive index of the table above used by the search
+	 * functions so they never touch the boxed list.
+	 */
+	private final long[] occurs;
+
+	/**
+	 * TAI-UTC offset in effect from the matching entry of occurs onwards.
+	 */
+	private final int[] offsets;
+
+	/**
+	 * Seconds since the TAI epoch at which each entry of offsets comes into
+	 * effect, i.e. the entries of occurs as seen from TAI. Used to convert
+	 * from TAI back to UTC.
+	 */
+	private final long[] taiStarts;
+
+	/**
+	 * POSIX seconds up to which the table is known to be complete.
+	 */
+	private final long expires;
+
+	/**
+	 * Build a snapshot from a list of leap seconds. The list must be non-empty
+	 * and sorted; it is copied so later changes to it are not seen here.
+	 *
+	 * @param leapSeconds
+	 * @param expires
+	 */
+	LeapSnapshot(List<LeapSecond> leapSeconds, long expires) {
+		assert (!leapSeconds.isEmpty());
+		this.table = new ArrayList<LeapSecond>(leapSeconds);
+		this.expires = expires;
+		int size = table.size();
+		this.occurs = new long[size];
+		this.offsets = new int[size];
+		this.taiStarts = new long[size];
+		long taiEpochPosix = Epoch.TAI.secondsPosixEpoch();
+		for (int i = 0; i < size; i++) {
+			LeapSecond leap = table.get(i);
+			occurs[i] = leap.occursAtPosixSeconds();
+			offsets[i] = leap.getOffset();
+			taiStarts[i] = occurs[i] - taiEpochPosix + offsets[i];
+		}
+	}
+
+	/**
+	 * Number of leap seconds in the table.
+	 *
+	 * @return
+	 */
+	public int size() {
+		return occurs.length;
+	}
+
+	/**
+	 * POSIX seconds up to which the table is known to hold every leap second,
+	 * so that offsets before then will not change, or LeapFile.NEVER_VALID if
+	 * the source of the table did not say.
+	 *
+	 * @return
+	 */
+	public long getExpires() {
+		return expires;
+	}
+
+	/**
+	 * Get a copy of the table.
+	 *
+	 * @return
+	 */
+	public ArrayList<LeapSecond> getTableClone() {
+		return new ArrayList<LeapSecond>(table);
+	}
+
+	/**
+	 * Last leap second in the table.
+	 *
+	 * @return
+	 */
+	public LeapSecond getLast() {
+		return table.get(table.size() - 1);
+	}
+
+	/**
+	 * Number of seconds from reference until next leap second. If this number
+	 * if negative, it means we are ahead of the last known leap second.
+	 *
+	 * @param posixSeconds
+	 * @return
+	 */
+	public long secondsUntilFinalLeap(long posixSeconds) {
+		return occurs[occurs.length - 1] - posixSeconds;
+	}
+
+	/**
+	 * Determine if a leap second occurs at exactly the given number of seconds
+	 * in the POSIX frame.
+	 *
+	 * @param posix
+	 * @return
+	 */
+	public boolean isLeapSecond(long posix) {
+		if (posix > occurs[occurs.length - 1]) {
+			return false;
+		}
+		return Arrays.binarySearch(occurs, posix) >= 0;
+	}
+
+	/**
+	 * Determine if a positive leap second ends at exactly the given number of
+	 * seconds in the POSIX frame, i.e. whether the second before it was
+	 * followed by an inserted second 60.
+	 *
+	 * @param posix
+	 * @return
+	 */
+	public boolean insertsSecondAt(long posix) {
+		if (posix > occurs[occurs.length - 1]) {
+			return false;
+		}
+		int i = Arrays.binarySearch(occurs, posix);
+		if (i < 0) {
+			return false;
+		}
+		int before = (i == 0) ? initialOffset : offsets[i - 1];
+		return offsets[i] > before;
+	}
+
+	/**
+	 * Determine what the TAI-UTC offset is based upon a number of seconds in
+	 * the POSIX frame.
+	 *
+	 * Nearly every lookup is for a time after the most recent leap second, so
+	 * that interval is checked first before falling back to a binary search
+	 * over the index.
+	 *
+	 * @param posixSeconds
+	 * @return
+	 */
+	public int offset(long posixSeconds) {
+		int last = occurs.length - 1;
+		if (posixSeconds >= occurs[last]) {
+			return offsets[last];
+		}
+		int i = Arrays.binarySearch(occurs, 0, last, posixSeconds);
+		if (i < 0) {
+			/**
+			 * Not an exact hit, so take the entry preceding the insertion
+			 * point. An insertion point of 0 means the time is before the
+			 * first leap second.
+			 */
+			i = -i - 2;
+			if (i < 0) {
+				return initialOffset; // Reached before June 30, 1972
+			}
+		}
+		return offsets[i];
+	}
+
+	/**
+	 * Index of the last leap second in effect at a number of seconds in the
+	 * POSIX frame, or -1 before the first one.
+	 */
+	private int indexOf(long posixSeconds) {
+		int last = occurs.length - 1;
+		if (posixSeconds >= occurs[last]) {
+			return last;
+		}
+		int i = Arrays.binarySearch(occurs, 0, last, posixSeconds);
+		return (i < 0) ? -i - 2 : i;
+	}
+
+	/**
+	 * POSIX second at which the interval holding a number of seconds in the
+	 * POSIX frame ends, i.e. the next leap second, or MAX_VALUE after the last
+	 * one.
+	 */
+	long intervalEnd(long posixSeconds) {
+		int i = indexOf(posixSeconds);
+		return (i + 1 < occurs.length) ? occurs[i + 1] : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Convert seconds in the POSIX frame to seconds since the TAI epoch, as
+	 * TAIInstant(Posix) does for a single value. The input and output ranges
+	 * may be the same.
+	 *
+	 * Input sorted in ascending order is converted by walking the table once
+	 * alongside it, like a merge, so it costs O(length + leap seconds). When a
+	 * value is smaller than the one before it, the position in the table is
+	 * found again by binary search and the walk carries on from there, so
+	 * nearly sorted input stays cheap and unsorted input degrades to one
+	 * search per value.
+	 *
+	 * @param posixSeconds
+	 * @param offset
+	 * @param taiSeconds
+	 * @param outOffset
+	 * @param length
+	 */
+	public void toTAI(long[] posixSeconds, int offset, long[] taiSeconds,
+			int outOffset, int length) {
+		if (length <= 0) {
+			return;
+		}
+		long taiEpochPosix = Epoch.TAI.secondsPosixEpoch();
+		int last = occurs.length - 1;
+		long previous = posixSeconds[offset];
+		int j = indexOf(previous);
+		/**
+		 * The next leap second to be passed by the walk, or MAX_VALUE once
+		 * the last one has been passed.
+		 */
+		long next = (j < last) ? occurs[j + 1] : Long.MAX_VALUE;
+		int current = (j < 0) ? initialOffset : offsets[j];
+		for (int i = 0; i < length; i++) {
+			long posix = posixSeconds[offset + i];
+			if (posix < previous) {
+				j = indexOf(posix);
+				next = (j < last) ? occurs[j + 1] : Long.MAX_VALUE;
+				current = (j < 0) ? initialOffset : offsets[j];
+			}
+			while (posix >= next) {
+				j++;
+				current = offsets[j];
+				next = (j < last) ? occurs[j + 1] : Long.MAX_VALUE;
+			}
+			taiSeconds[outOffset + i] = posix - taiEpochPosix + current;
+			previous = posix;
+		}
+	}
+
+	/**
+	 * Convert seconds and nanos in the POSIX frame to seconds since the TAI
+	 * epoch and nanos; see toTAI above. The nanos are copied unchanged.
+	 *
+	 * @param posixSeconds
+	 * @param posixNanos
+	 * @param offset
+	 * @param taiSeconds
+	 * @param taiNanos
+	 * @param outOffset
+	 * @param length
+	 */
+	public void toTAI(long[] posixSeconds, long[] posixNanos, int offset,
+			long[] taiSeconds, long[] taiNanos, int outOffset, int length) {
+		toTAI(posixSeconds, offset, taiSeconds, outOffset, length);
+		System.arraycopy(posixNanos, offset, taiNanos, outOffset, length);
+	}
+
+	/**
+	 * Determine the TAI-UTC offset in effect at a number of seconds since the
+	 * TAI epoch. Subtracting it from the TAI seconds gives the seconds in the
+	 * POSIX frame.
+	 *
+	 * During an inserted leap second this gives the offset from before the
+	 * leap second, so the result lands on the first second after it; see
+	 * isInsertedSecondAtTAI.
+	 *
+	 * @param taiSeconds
+	 * @return
+	 */
+	public int offsetAtTAI(long taiSeconds) {
+		int last = taiStarts.length - 1;
+		if (taiSeconds >= taiStarts[last]) {
+			return offsets[last];
+		}
+		int i = Arrays.binarySearch(taiStarts, 0, last, taiSeconds);
+		if (i < 0) {
+			i = -i - 2;
+			if (i < 0) {
+				return initialOffset;
+			}
+		}
+		return offsets[i];
+	}
+
+	/**
+	 * Determine if a number of seconds since the TAI epoch falls within an
+	 * inserted leap second, i.e. second 60 of a minute in UTC.
+	 *
+	 * @param taiSeconds
+	 * @return
+	 */
+	public boolean isInsertedSecondAtTAI(long taiSeconds) {
+		long next = taiSeconds + 1;
+		if (next > taiStarts[taiStarts.length - 1]) {
+			return false;
+		}
+		int i = Arrays.binarySearch(taiStarts, next);
+		if (i < 0) {
+			return false;
+		}
+		int before = (i == 0) ? initialOffset : offsets[i - 1];
+		return offsets[i] > before;
+	}
+
+}
@@ -1,14 +1,12 @@
 package com.duramec.time;
 
 import java.util.ArrayList;
-import java.util.ListIterator;
-import java.util.Scanner;
-import java.util.Collections;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
-import java.io.File;
+import java.util.List;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.ParseException;
 
 import com.duramec.time.LeapSecond.JumpDirection;
@@ -21,12 +19,6 @@ public class LeapTable {
 	 */
 	public static long minimumEntriesRequired = 25;
 
-	/**
-	 * A LeapSecond past any time in range. Should have offset equal to the very
-	 * last offset in table.
-	 */
-	private static LeapSecond infinity;
-
 	/**
 	 * Disable the constructor. This is a static class.
 	 */
@@ -34,150 +26,126 @@ public class LeapTable {
 	}
 
 	/**
-	 * Regular expression for single line of a leapseconds table. The format is:
-	 * 
-	 * Leap YEAR MONTH DAY HH:MM:SS CORR R/S
-	 * 
-	 * The "R/S" (Rolling/Stationary) bit is ignored, as there should never be
-	 * an offset in the file determined in reference to Local Time. All properly
-	 * formed leapseconds files should only have "S" for Stationary.
+	 * The currently published table. Every reload builds a complete new
+	 * snapshot and swaps it in with a single volatile write, so readers always
+	 * see either the old table or the new one and never a mix of the two.
 	 * 
+	 * It starts out as the table compiled into LeapTableData by the build
+	 * from the bundled IERS leap-seconds.list file, so no file has to be read
+	 * before the first conversion; load replaces it with a newer one.
 	 */
-	private static String regex = "^Leap\\s+(\\d{4})\\s+(\\w+)\\s+(\\d{2})\\s+(\\d{2}):(\\d{2}):(\\d{2})\\s+([+-]).*$";
+	private static volatile LeapSnapshot snapshot = compiled();
 
 	/**
-	 * Compiled pattern for regex, employing MULTILINE option so that ^$ match
-	 * at newline.
+	 * Build a snapshot of the table compiled into LeapTableData.
 	 */
-	private static Pattern pattern = Pattern.compile(regex, Pattern.MULTILINE);
+	private static LeapSnapshot compiled() {
+		int[] fields = LeapTableData.fields;
+		ArrayList<LeapSecond> leapSeconds = new ArrayList<LeapSecond>(
+				fields.length / 7);
+		int offset = LeapSnapshot.initialOffset;
+		for (int i = 0; i < fields.length; i += 7) {
+			int correction = fields[i + 6];
+			offset += correction;
+			leapSeconds.add(new LeapSecond(offset, fields[i], fields[i + 1],
+					fields[i + 2], fields[i + 3], fields[i + 4], fields[i + 5],
+					(correction > 0) ? JumpDirection.FORWARD
+							: JumpDirection.BACKWARD));
+		}
+		return new LeapSnapshot(leapSeconds, LeapTableData.expires);
+	}
 
 	/**
-	 * Table of all leap seconds.
+	 * Go back to the table compiled into the library, undoing any load.
 	 */
-	private static ArrayList<LeapSecond> table;
+	public static synchronized void loadCompiled() {
+		LeapTable.snapshot = compiled();
+	}
 
 	/**
-	 * Last leap second
+	 * Get the currently published snapshot of the table.
+	 * 
+	 * @return
 	 */
-	private static LeapSecond last;
+	public static LeapSnapshot snapshot() {
+		return snapshot;
+	}
 
 	/**
 	 * Get a clone of the table.
 	 */
-	@SuppressWarnings("unchecked")
 	public static ArrayList<LeapSecond> getTableClone() {
-		return (ArrayList<LeapSecond>) (table.clone());
+		return snapshot.getTableClone();
 	}
 
 	/**
-	 * The creation of an "infinite" leap second that is ahead of any time in
-	 * range. This method should be given an offset which is equal to the last
-	 * offset found in the table.
+	 * POSIX seconds up to which the published table is known to hold every
+	 * leap second, or LeapFile.NEVER_VALID if its source did not say.
 	 * 
-	 * @param offset
 	 * @return
 	 */
-	private static LeapSecond createInfinity(int offset) {
-		return new LeapSecond(offset, 9999, 12, 31, 23, 59, 59,
-				JumpDirection.FORWARD);
+	public static long expires() {
+		return snapshot.getExpires();
 	}
 
 	/**
-	 * Pull in a whole file to String from a filename.
+	 * Load a leapseconds or leap-seconds.list file from a path.
 	 * 
 	 * @param file
-	 * @return
+	 * @throws ParseException
 	 * @throws FileNotFoundException
+	 * @throws IOException
+	 */
+	public static void load(String file) throws ParseException,
+			FileNotFoundException, IOException {
+		load(Paths.get(file));
+	}
+
+	/**
+	 * Load a leapseconds or leap-seconds.list file from a path.
+	 * 
+	 * @param file
 	 * @throws ParseException
+	 * @throws IOException
 	 */
-	private static String slurp(String file) throws FileNotFoundException,
-			ParseException {
-		return new Scanner(new File(file), "UTF-8").useDelimiter("\\A").next();
-	}
-
-	private static int stringMonthToInt(String month) throws ParseException {
-		switch (month) {
-		case "Jan":
-			return 1;
-		case "Feb":
-			return 2;
-		case "Mar":
-			return 3;
-		case "Apr":
-			return 4;
-		case "May":
-			return 5;
-		case "Jun":
-			return 6;
-		case "Jul":
-			return 7;
-		case "Aug":
-			return 8;
-		case "Sep":
-			return 9;
-		case "Oct":
-			return 10;
-		case "Nov":
-			return 11;
-		case "Dec":
-			return 12;
-		}
-		throw new ParseException("Input string \"" + month
-				+ "\" cannot be parsed into a month", 0);
+	public static void load(Path file) throws ParseException, IOException {
+		load(LeapFile.parse(file));
 	}
 
 	/**
-	 * Create a single LeapSecond (with given offset) from the currently
-	 * regular-expression match group.
+	 * Load a leapseconds or leap-seconds.list file from a stream, which is
+	 * read to its end but not closed.
 	 * 
-	 * @param m
-	 * @param offset
-	 * @return
+	 * @param in
+	 * @throws ParseException
+	 * @throws IOException
 	 */
-	private static LeapSecond createRecord(Matcher m, int lastOffset)
-			throws ParseException {
-		int year = Integer.parseInt(m.group(1));
-		int month = stringMonthToInt(m.group(2));
-		int day = Integer.parseInt(m.group(3));
-		int hour = Integer.parseInt(m.group(4));
-		int minute = Integer.parseInt(m.group(5));
-		int second = Integer.parseInt(m.group(6));
-		JumpDirection direction = null;
-		int offset = lastOffset;
-		if (m.group(7).equals("+")) {
-			direction = JumpDirection.FORWARD;
-			offset += 1;
-		} else {
-			direction = JumpDirection.BACKWARD;
-			offset -= 1;
-		}
-		return new LeapSecond(offset, year, month, day, hour, minute, second,
-				direction);
+	public static void load(InputStream in) throws ParseException,
+			IOException {
+		load(LeapFile.parse(in));
 	}
 
 	/**
-	 * Load leapseconds table from file.
+	 * Load a leapseconds or leap-seconds.list file from the class path.
 	 * 
-	 * @param file
+	 * @param name
 	 * @throws ParseException
-	 * @throws FileNotFoundException
 	 * @throws IOException
 	 */
-	public static synchronized void load(String file) throws ParseException,
-			FileNotFoundException, IOException {
-		String text = slurp(file);
-		Matcher m = pattern.matcher(text);
-		ArrayList<LeapSecond> leapSeconds = new ArrayList<LeapSecond>();
-		/**
-		 * UTC was originally defined with an offset of 10 on January 1, 1972.
-		 * The first leap second added to this offset by 1 on June 30, 1972.
-		 */
-		int lastOffset = 10;
-		while (m.find()) {
-			LeapSecond leap = createRecord(m, lastOffset);
-			leapSeconds.add(leap);
-			lastOffset = leap.getOffset();
-		}
+	public static void loadResource(String name) throws ParseException,
+			IOException {
+		load(LeapFile.parseResource(name));
+	}
+
+	/**
+	 * Publish the leap seconds of a parsed file as the table.
+	 * 
+	 * @param file
+	 * @throws ParseException
+	 */
+	public static synchronized void load(LeapFile file)
+			throws ParseException {
+		List<LeapSecond> leapSeconds = file.getLeapSeconds();
 		/**
 		 * Some minimal checking that the leap seconds file is not completely
 		 * invalid.
@@ -187,17 +155,7 @@ public class LeapTable {
 					"leapseconds file does not have enough entries to be valid",
 					0);
 		}
-		/**
-		 * Perform a sanity-check sort on the LeapSeconds (which occurs based
-		 * upon the underlying offset from the POSIX epoch) to ensure they are
-		 * in the proper ordre and add the table to the static reference inside
-		 * this class. Create a new "infinity" end of range to be used in
-		 * searching algorithms.
-		 */
-		Collections.sort(leapSeconds);
-		LeapTable.table = leapSeconds;
-		LeapTable.infinity = createInfinity(lastOffset);
-		LeapTable.last = leapSeconds.get(leapSeconds.size() - 1);
+		LeapTable.snapshot = new LeapSnapshot(leapSeconds, file.getExpires());
 	}
 
 	/**
@@ -208,18 +166,18 @@ public class LeapTable {
 	 * @return
 	 */
 	public static long secondsUntilFinalLeap(long posixSeconds) {
-		return last.occursAtPosixSeconds() - posixSeconds;
+		return snapshot.secondsUntilFinalLeap(posixSeconds);
 	}
 
-	// hmmm... i think this might be a bit fishy
-	public static Boolean isLeapSecond(long posix) {
-		ListIterator<LeapSecond> it = table.listIterator(table.size());
-		while (it.hasPrevious()) {
-			if (it.previous().occursAtPosixSeconds() == posix) {
-				return true;
-			}
-		}
-		return false;
+	/**
+	 * Determine if a leap second occurs at exactly the given number of seconds
+	 * in the POSIX frame.
+	 * 
+	 * @param posix
+	 * @return
+	 */
+	public static boolean isLeapSecond(long posix) {
+		return snapshot.isLeapSecond(posix);
 	}
 
 	/**
@@ -230,18 +188,52 @@ public class LeapTable {
 	 * @return
 	 */
 	public static int offset(Posix posix) {
-		long posixSeconds = posix.secondsPosixEpoch();
-		ListIterator<LeapSecond> it = table.listIterator(table.size());
-		LeapSecond leapOnePast = infinity;
-		LeapSecond leap = null;
-		while (it.hasPrevious()) {
-			leap = it.previous();
-			if (posixSeconds >= leap.occursAtPosixSeconds()) {
-				return leapOnePast.getOffset();
-			}
-			leapOnePast = leap;
-		}
-		return 10; // Reached before June 30, 1972
+		return snapshot.offset(posix.secondsPosixEpoch());
+	}
+
+	/**
+	 * Determine what the TAI-UTC offset is based upon a number of seconds in
+	 * the POSIX frame.
+	 * 
+	 * @param posixSeconds
+	 * @return
+	 */
+	public static int offset(long posixSeconds) {
+		return snapshot.offset(posixSeconds);
+	}
+
+	/**
+	 * Convert a batch of seconds in the POSIX frame to seconds since the TAI
+	 * epoch; see LeapSnapshot.toTAI.
+	 * 
+	 * @param posixSeconds
+	 * @param offset
+	 * @param taiSeconds
+	 * @param outOffset
+	 * @param length
+	 */
+	public static void toTAI(long[] posixSeconds, int offset,
+			long[] taiSeconds, int outOffset, int length) {
+		snapshot.toTAI(posixSeconds, offset, taiSeconds, outOffset, length);
+	}
+
+	/**
+	 * Convert a batch of seconds and nanos in the POSIX frame to seconds since
+	 * the TAI epoch and nanos; see LeapSnapshot.toTAI.
+	 * 
+	 * @param posixSeconds
+	 * @param posixNanos
+	 * @param offset
+	 * @param taiSeconds
+	 * @param taiNanos
+	 * @param outOffset
+	 * @param length
+	 */
+	public static void toTAI(long[] posixSeconds, long[] posixNanos,
+			int offset, long[] taiSeconds, long[] taiNanos, int outOffset,
+			int length) {
+		snapshot.toTAI(posixSeconds, posixNanos, offset, taiSeconds,
+				taiNanos, outOffset, length);
 	}
 
 }
@@ -0,0 +1,133 @@
+package com.duramec.time;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Watches a leapseconds file and reloads LeapTable whenever the file is
+ * created, replaced or modified, so that long-running processes pick up a new
+ * table without a restart.
+ *
+ * The reload happens on a daemon thread owned by the watcher. A file that
+ * fails to parse leaves the previously published table in place; the failure
+ * is kept and may be inspected with getLastError().
+ */
+public final class LeapTableWatcher implements Closeable, Runnable {
+
+	private final Path file;
+
+	private final WatchService service;
+
+	private final Thread thread;
+
+	private volatile Exception lastError;
+
+	private volatile long reloads;
+
+	/**
+	 * Start watching a leapseconds file. The file is expected to already have
+	 * been loaded with LeapTable.load; the watcher only reacts to changes.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public LeapTableWatcher(String file) throws IOException {
+		this(Paths.get(file));
+	}
+
+	/**
+	 * Start watching a leapseconds file.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public LeapTableWatcher(Path file) throws IOException {
+		this.file = file.toAbsolutePath();
+		this.service = FileSystems.getDefault().newWatchService();
+		/**
+		 * Directories are watched rather than files, and editors and package
+		 * managers commonly replace the file by renaming over it, so creation
+		 * is watched as well as modification.
+		 */
+		this.file.getParent().register(service,
+				StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+		this.thread = new Thread(this, "LeapTableWatcher-" + file.getFileName());
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Return the exception from the most recent failed reload, or null if the
+	 * most recent reload succeeded.
+	 *
+	 * @return
+	 */
+	public Exception getLastError() {
+		return lastError;
+	}
+
+	/**
+	 * Return the number of successful reloads performed by this watcher.
+	 *
+	 * @return
+	 */
+	public long getReloads() {
+		return reloads;
+	}
+
+	@Override
+	public void run() {
+		Path name = file.getFileName();
+		try {
+			while (true) {
+				WatchKey key = service.take();
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW
+							|| name.equals(event.context())) {
+						changed = true;
+					}
+				}
+				if (changed) {
+					reload();
+				}
+				if (!key.reset()) {
+					return; // directory is no longer accessible
+				}
+			}
+		} catch (InterruptedException e) {
+			// closed
+		} catch (ClosedWatchServiceException e) {
+			// closed
+		}
+	}
+
+	private void reload() {
+		try {
+			LeapTable.load(file);
+			lastError = null;
+			reloads++;
+		} catch (Exception e) {
+			lastError = e;
+		}
+	}
+
+	/**
+	 * Stop watching. The currently published table is left in place.
+	 */
+	@Override
+	public void close() throws IOException {
+		service.close();
+		thread.interrupt();
+	}
+
+}
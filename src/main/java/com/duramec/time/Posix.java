@@ -1,7 +1,5 @@
 package com.duramec.time;
 
-import org.joda.time.DateTime;
-
 public final class Posix {
 
 	private int year;
@@ -16,9 +14,19 @@ public final class Posix {
 
 	private int second;
 
-	private long secondsEpoch;
+	private final long secondsEpoch;
+
+	private final long nanos;
 
-	private long nanos;
+	/**
+	 * Whether the civil fields above have been filled in. When constructed
+	 * from a count of seconds they are only computed once a getter asks for
+	 * them, as most conversions only need secondsPosixEpoch().
+	 * 
+	 * Racing threads compute identical values, so the only requirement is that
+	 * the fields are written before this flag is set.
+	 */
+	private volatile boolean decomposed;
 
 	public Posix(long seconds) {
 		this(seconds, 0);
@@ -26,13 +34,6 @@ public final class Posix {
 
 	public Posix(long seconds, long nanos) {
 		this.secondsEpoch = seconds;
-		DateTime dateTime = new DateTime(seconds * 1000L);
-		this.year = dateTime.getYear();
-		this.month = dateTime.getMonthOfYear();
-		this.day = dateTime.getDayOfMonth();
-		this.hour = dateTime.getHourOfDay();
-		this.minute = dateTime.getMinuteOfHour();
-		this.second = dateTime.getSecondOfMinute();
 		this.nanos = nanos;
 	}
 
@@ -58,8 +59,31 @@ public final class Posix {
 		this.minute = min;
 		this.second = s;
 		this.nanos = nanos;
-		long days = Julian.truncated(yr, mon, day) - Epoch.POSIX_TJD;
+		long days = Julian.posixDays(yr, mon, day);
 		this.secondsEpoch = (days * 86400L) + (hr * 3600) + (min * 60) + s;
+		this.decomposed = true;
+	}
+
+	/**
+	 * Fill in the civil fields in UTC from the count of seconds using integer
+	 * arithmetic only.
+	 */
+	private void decompose() {
+		long days = secondsEpoch / 86400L;
+		long secondsOfDay = secondsEpoch % 86400L;
+		if (secondsOfDay < 0) {
+			secondsOfDay += 86400L;
+			days -= 1;
+		}
+		long date = Julian.civil(days);
+		int sod = (int) secondsOfDay;
+		this.year = Julian.civilYear(date);
+		this.month = Julian.civilMonth(date);
+		this.day = Julian.civilDay(date);
+		this.hour = sod / 3600;
+		this.minute = (sod / 60) % 60;
+		this.second = sod % 60;
+		this.decomposed = true;
 	}
 
 	public long secondsPosixEpoch() {
@@ -67,26 +91,44 @@ public final class Posix {
 	}
 
 	public int getYear() {
+		if (!decomposed) {
+			decompose();
+		}
 		return year;
 	}
 
 	public int getMonth() {
+		if (!decomposed) {
+			decompose();
+		}
 		return month;
 	}
 
 	public int getDay() {
+		if (!decomposed) {
+			decompose();
+		}
 		return day;
 	}
 
 	public int getHour() {
+		if (!decomposed) {
+			decompose();
+		}
 		return hour;
 	}
 
 	public int getMinute() {
+		if (!decomposed) {
+			decompose();
+		}
 		return minute;
 	}
 
 	public int getSecond() {
+		if (!decomposed) {
+			decompose();
+		}
 		return second;
 	}
 
@@ -1,14 +1,727 @@
 package com.duramec.time;
 
-// implements an extremely strict version of RFC3339
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.text.ParseException;
 
-// - requires millisecond precision at minimum
-// - handles a .60 leap second properly
-//
-//   - parseUTC(string) -> Instant
-//   - parseTAI(string) -> TAI, which is Instant + offset
-//                         GPS can be easily figured out from this
+/**
+ * Implements an extremely strict version of RFC 3339:
+ * 
+ * ⇒ requires millisecond precision at minimum, and at most nanosecond
+ * precision
+ * 
+ * ⇒ requires a time offset, either Z or a numeric offset
+ * 
+ * ⇒ handles a :60 leap second properly, as validated by LeapTable
+ * 
+ * Text is scanned by hand from a CharSequence, char array, or UTF-8 encoded
+ * bytes, without creating any intermediate objects: bytes are scanned in
+ * place, and characters are first copied once into a per-thread byte array,
+ * so a single routine does the scanning for every source. Instants are
+ * returned either as T60 ticks or as TAI seconds and nanos, the latter written
+ * into a caller-supplied array so that no result object is needed either.
+ * 
+ * Formatting works the same way in reverse: T60, TAI and GPS instants are
+ * written into a caller-supplied StringBuilder, char array or ByteBuffer
+ * using integer arithmetic only. Formatted instants are always in UTC with a
+ * 'Z' zone, and TAI and GPS instants within a leap second are written with
+ * second 60.
+ * 
+ * The layout of an accepted instant is:
+ * 
+ * YYYY-MM-DDTHH:MM:SS.fff[ffffff](Z|+HH:MM|-HH:MM)
+ * 
+ * where the date and time may also be separated by a space or a lowercase
+ * 't', and the zone may be a lowercase 'z'.
+ */
+public final class RFC3339 {
 
-public class RFC3339 {
+	private RFC3339() {
+	}
 
-}
\ No newline at end of file
+	private static final int minimumFractionDigits = 3;
+
+	private static final int maximumFractionDigits = 9;
+
+	/**
+	 * Shortest accepted text: date and time, a '.', the minimum number of
+	 * fractional digits, and 'Z'.
+	 */
+	private static final int minimumLength = 20 + minimumFractionDigits + 1;
+
+	private static final long[] powersOfTen = { 1L, 10L, 100L, 1000L, 10000L,
+			100000L, 1000000L, 10000000L, 100000000L, 1000000000L };
+
+	private static final long ticksPerSecond = 10000000L;
+
+	private static final long taiEpochPosix = Epoch.TAI.secondsPosixEpoch();
+
+	/**
+	 * Seconds to add to seconds since the GPS epoch to get seconds since the
+	 * TAI epoch, as in GPSInstant.toTAIInstant.
+	 */
+	private static final long gpsToTAI = Epoch.GPS.secondsPosixEpoch()
+			- taiEpochPosix + 19;
+
+	/**
+	 * Largest number of characters written by any of the format methods.
+	 */
+	public static final int maximumLength = 20 + maximumFractionDigits + 1;
+
+	private static final Charset utf8 = Charset.forName("UTF-8");
+
+	private static final int modeT60 = 0;
+
+	private static final int modeTAI = 1;
+
+	/**
+	 * Parse text into a T60Instant.
+	 * 
+	 * @param text
+	 * @return
+	 * @throws ParseException
+	 */
+	public static T60Instant parseUTC(CharSequence text) throws ParseException {
+		return new T60Instant(parseT60(text));
+	}
+
+	/**
+	 * Parse text into a TAIInstant.
+	 * 
+	 * @param text
+	 * @return
+	 * @throws ParseException
+	 */
+	public static TAIInstant parseTAI(CharSequence text) throws ParseException {
+		long[] out = new long[2];
+		parseTAI(text, out, 0);
+		return new TAIInstant(out[0], out[1]);
+	}
+
+	/**
+	 * Parse text into T60 ticks.
+	 * 
+	 * T60 has no room for a leap second, so an instant within second 60 is
+	 * pinned to the very last tick of second 59. Ticks therefore never go
+	 * backwards across a leap second, at the expense of not being unique
+	 * within it.
+	 * 
+	 * @param text
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseT60(CharSequence text) throws ParseException {
+		return scan(text, 0, text.length(), modeT60, null, 0);
+	}
+
+	/**
+	 * Parse a range of characters into T60 ticks.
+	 * 
+	 * @param chars
+	 * @param offset
+	 * @param length
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseT60(char[] chars, int offset, int length)
+			throws ParseException {
+		return scan(chars, offset, length, modeT60, null, 0);
+	}
+
+	/**
+	 * Parse a range of UTF-8 bytes into T60 ticks.
+	 * 
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseT60(byte[] bytes, int offset, int length)
+			throws ParseException {
+		return scan(bytes, offset, length, modeT60, null, 0);
+	}
+
+	/**
+	 * Parse a range of UTF-8 bytes into T60 ticks. The range is given in
+	 * absolute indexes; the position of the buffer is not changed.
+	 * 
+	 * @param buffer
+	 * @param offset
+	 * @param length
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseT60(ByteBuffer buffer, int offset, int length)
+			throws ParseException {
+		return scan(buffer, offset, length, modeT60, null, 0);
+	}
+
+	/**
+	 * Parse text into seconds since the TAI epoch and nanos, written to
+	 * out[outOffset] and out[outOffset + 1]. Returns the seconds.
+	 * 
+	 * @param text
+	 * @param out
+	 * @param outOffset
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseTAI(CharSequence text, long[] out, int outOffset)
+			throws ParseException {
+		return scan(text, 0, text.length(), modeTAI, out, outOffset);
+	}
+
+	/**
+	 * Parse a range of characters into seconds since the TAI epoch and nanos.
+	 * 
+	 * @param chars
+	 * @param offset
+	 * @param length
+	 * @param out
+	 * @param outOffset
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseTAI(char[] chars, int offset, int length,
+			long[] out, int outOffset) throws ParseException {
+		return scan(chars, offset, length, modeTAI, out, outOffset);
+	}
+
+	/**
+	 * Parse a range of UTF-8 bytes into seconds since the TAI epoch and nanos.
+	 * 
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @param out
+	 * @param outOffset
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseTAI(byte[] bytes, int offset, int length,
+			long[] out, int outOffset) throws ParseException {
+		return scan(bytes, offset, length, modeTAI, out, outOffset);
+	}
+
+	/**
+	 * Parse a range of UTF-8 bytes into seconds since the TAI epoch and nanos.
+	 * The range is given in absolute indexes; the position of the buffer is
+	 * not changed.
+	 * 
+	 * @param buffer
+	 * @param offset
+	 * @param length
+	 * @param out
+	 * @param outOffset
+	 * @return
+	 * @throws ParseException
+	 */
+	public static long parseTAI(ByteBuffer buffer, int offset, int length,
+			long[] out, int outOffset) throws ParseException {
+		return scan(buffer, offset, length, modeTAI, out, outOffset);
+	}
+
+	/**
+	 * Append T60 ticks to a StringBuilder with the given number of fractional
+	 * digits, from 0 to 9. Returns the StringBuilder.
+	 * 
+	 * @param ticks
+	 * @param precision
+	 * @param out
+	 * @return
+	 */
+	public static StringBuilder formatT60(long ticks, int precision,
+			StringBuilder out) {
+		return write(civilT60(ticks), nanosT60(ticks), precision, out);
+	}
+
+	/**
+	 * Write T60 ticks into a char array at an offset with the given number of
+	 * fractional digits, from 0 to 9. Returns the offset after the last
+	 * character written; at most maximumLength characters are written.
+	 * 
+	 * @param ticks
+	 * @param precision
+	 * @param out
+	 * @param offset
+	 * @return
+	 */
+	public static int formatT60(long ticks, int precision, char[] out,
+			int offset) {
+		return write(civilT60(ticks), nanosT60(ticks), precision, out, offset);
+	}
+
+	/**
+	 * Put T60 ticks into a ByteBuffer as UTF-8 at its position with the given
+	 * number of fractional digits, from 0 to 9. Returns the ByteBuffer.
+	 * 
+	 * @param ticks
+	 * @param precision
+	 * @param out
+	 * @return
+	 */
+	public static ByteBuffer formatT60(long ticks, int precision,
+			ByteBuffer out) {
+		return write(civilT60(ticks), nanosT60(ticks), precision, out);
+	}
+
+	/**
+	 * Append seconds since the TAI epoch and nanos to a StringBuilder with the
+	 * given number of fractional digits, from 0 to 9. Returns the
+	 * StringBuilder.
+	 * 
+	 * @param seconds
+	 * @param nanos
+	 * @param precision
+	 * @param out
+	 * @return
+	 */
+	public static StringBuilder formatTAI(long seconds, long nanos,
+			int precision, StringBuilder out) {
+		return write(civilTAI(seconds), nanos, precision, out);
+	}
+
+	/**
+	 * Write seconds since the TAI epoch and nanos into a char array at an
+	 * offset. Returns the offset after the last character written.
+	 * 
+	 * @param seconds
+	 * @param nanos
+	 * @param precision
+	 * @param out
+	 * @param offset
+	 * @return
+	 */
+	public static int formatTAI(long seconds, long nanos, int precision,
+			char[] out, int offset) {
+		return write(civilTAI(seconds), nanos, precision, out, offset);
+	}
+
+	/**
+	 * Put seconds since the TAI epoch and nanos into a ByteBuffer as UTF-8 at
+	 * its position. Returns the ByteBuffer.
+	 * 
+	 * @param seconds
+	 * @param nanos
+	 * @param precision
+	 * @param out
+	 * @return
+	 */
+	public static ByteBuffer formatTAI(long seconds, long nanos,
+			int precision, ByteBuffer out) {
+		return write(civilTAI(seconds), nanos, precision, out);
+	}
+
+	/**
+	 * Append seconds since the GPS epoch and nanos to a StringBuilder with the
+	 * given number of fractional digits, from 0 to 9. Returns the
+	 * StringBuilder.
+	 * 
+	 * @param seconds
+	 * @param nanos
+	 * @param precision
+	 * @param out
+	 * @return
+	 */
+	public static StringBuilder formatGPS(long seconds, long nanos,
+			int precision, StringBuilder out) {
+		return write(civilTAI(seconds + gpsToTAI), nanos, precision, out);
+	}
+
+	/**
+	 * Write seconds since the GPS epoch and nanos into a char array at an
+	 * offset. Returns the offset after the last character written.
+	 * 
+	 * @param seconds
+	 * @param nanos
+	 * @param precision
+	 * @param out
+	 * @param offset
+	 * @return
+	 */
+	public static int formatGPS(long seconds, long nanos, int precision,
+			char[] out, int offset) {
+		return write(civilTAI(seconds + gpsToTAI), nanos, precision, out,
+				offset);
+	}
+
+	/**
+	 * Put seconds since the GPS epoch and nanos into a ByteBuffer as UTF-8 at
+	 * its position. Returns the ByteBuffer.
+	 * 
+	 * @param seconds
+	 * @param nanos
+	 * @param precision
+	 * @param out
+	 * @return
+	 */
+	public static ByteBuffer formatGPS(long seconds, long nanos,
+			int precision, ByteBuffer out) {
+		return write(civilTAI(seconds + gpsToTAI), nanos, precision, out);
+	}
+
+	/**
+	 * Civil date and time of a count of POSIX seconds, packed into a long as
+	 * the packed date of Julian.civil followed by 5 bits of hour and 6 bits
+	 * each of minute and second. When leap is set, the seconds are the end of
+	 * a leap second and the second before is given as second 60.
+	 */
+	private static long civil(long posix, boolean leap) {
+		if (leap) {
+			posix -= 1;
+		}
+		long days = posix / 86400L;
+		long secondsOfDay = posix % 86400L;
+		if (secondsOfDay < 0) {
+			secondsOfDay += 86400L;
+			days -= 1;
+		}
+		int sod = (int) secondsOfDay;
+		long hour = sod / 3600;
+		long minute = (sod / 60) % 60;
+		long second = leap ? 60 : sod % 60;
+		return (Julian.civil(days) << 17) | (hour << 12) | (minute << 6)
+				| second;
+	}
+
+	private static long civilT60(long ticks) {
+		long seconds = ticks / ticksPerSecond;
+		if (ticks % ticksPerSecond < 0) {
+			seconds -= 1;
+		}
+		return civil(seconds - Epoch.LILIAN_TO_POSIX, false);
+	}
+
+	private static long nanosT60(long ticks) {
+		long remainder = ticks % ticksPerSecond;
+		if (remainder < 0) {
+			remainder += ticksPerSecond;
+		}
+		return remainder * 100L;
+	}
+
+	private static long civilTAI(long seconds) {
+		LeapSnapshot leaps = LeapTable.snapshot();
+		boolean leap = leaps.isInsertedSecondAtTAI(seconds);
+		long posix = seconds + taiEpochPosix - leaps.offsetAtTAI(seconds);
+		return civil(posix, leap);
+	}
+
+	private static int fraction(long nanos, int precision) {
+		if (precision < 0 || precision > maximumFractionDigits) {
+			throw new IllegalArgumentException("precision of " + precision
+					+ " is not between 0 and " + maximumFractionDigits);
+		}
+		if (nanos < 0 || nanos >= 1000000000L) {
+			throw new IllegalArgumentException("nanos of " + nanos
+					+ " is not within a second");
+		}
+		return (int) (nanos / powersOfTen[maximumFractionDigits - precision]);
+	}
+
+	private static int year(long civil) {
+		int year = Julian.civilYear(civil >> 17);
+		if (year < 0 || year > 9999) {
+			throw new IllegalArgumentException("year " + year
+					+ " cannot be written in RFC-3339");
+		}
+		return year;
+	}
+
+	private static StringBuilder write(long civil, long nanos,
+			int precision, StringBuilder out) {
+		int fraction = fraction(nanos, precision);
+		appendDigits(out, year(civil), 4);
+		out.append('-');
+		appendDigits(out, Julian.civilMonth(civil >> 17), 2);
+		out.append('-');
+		appendDigits(out, Julian.civilDay(civil >> 17), 2);
+		out.append('T');
+		appendDigits(out, (int) ((civil >> 12) & 0x1F), 2);
+		out.append(':');
+		appendDigits(out, (int) ((civil >> 6) & 0x3F), 2);
+		out.append(':');
+		appendDigits(out, (int) (civil & 0x3F), 2);
+		if (precision > 0) {
+			out.append('.');
+			appendDigits(out, fraction, precision);
+		}
+		out.append('Z');
+		return out;
+	}
+
+	private static void appendDigits(StringBuilder out, int value, int digits) {
+		for (int i = digits - 1; i >= 0; i--) {
+			out.append((char) ('0' + ((value / (int) powersOfTen[i]) % 10)));
+		}
+	}
+
+	private static int write(long civil, long nanos, int precision,
+			char[] out, int offset) {
+		int fraction = fraction(nanos, precision);
+		writeDigits(out, offset, year(civil), 4);
+		out[offset + 4] = '-';
+		writeDigits(out, offset + 5, Julian.civilMonth(civil >> 17), 2);
+		out[offset + 7] = '-';
+		writeDigits(out, offset + 8, Julian.civilDay(civil >> 17), 2);
+		out[offset + 10] = 'T';
+		writeDigits(out, offset + 11, (int) ((civil >> 12) & 0x1F), 2);
+		out[offset + 13] = ':';
+		writeDigits(out, offset + 14, (int) ((civil >> 6) & 0x3F), 2);
+		out[offset + 16] = ':';
+		writeDigits(out, offset + 17, (int) (civil & 0x3F), 2);
+		int i = offset + 19;
+		if (precision > 0) {
+			out[i++] = '.';
+			writeDigits(out, i, fraction, precision);
+			i += precision;
+		}
+		out[i++] = 'Z';
+		return i;
+	}
+
+	private static void writeDigits(char[] out, int offset, int value,
+			int digits) {
+		for (int i = offset + digits - 1; i >= offset; i--) {
+			out[i] = (char) ('0' + (value % 10));
+			value /= 10;
+		}
+	}
+
+	private static ByteBuffer write(long civil, long nanos, int precision,
+			ByteBuffer out) {
+		int fraction = fraction(nanos, precision);
+		putDigits(out, year(civil), 4);
+		out.put((byte) '-');
+		putDigits(out, Julian.civilMonth(civil >> 17), 2);
+		out.put((byte) '-');
+		putDigits(out, Julian.civilDay(civil >> 17), 2);
+		out.put((byte) 'T');
+		putDigits(out, (int) ((civil >> 12) & 0x1F), 2);
+		out.put((byte) ':');
+		putDigits(out, (int) ((civil >> 6) & 0x3F), 2);
+		out.put((byte) ':');
+		putDigits(out, (int) (civil & 0x3F), 2);
+		if (precision > 0) {
+			out.put((byte) '.');
+			putDigits(out, fraction, precision);
+		}
+		out.put((byte) 'Z');
+		return out;
+	}
+
+	private static void putDigits(ByteBuffer out, int value, int digits) {
+		int position = out.position();
+		for (int i = position + digits - 1; i >= position; i--) {
+			out.put(i, (byte) ('0' + (value % 10)));
+			value /= 10;
+		}
+		out.position(position + digits);
+	}
+
+	private static boolean isTimeSeparator(int c) {
+		return c == 'T' || c == 't' || c == ' ';
+	}
+
+	private static int daysInMonth(int year, int month) {
+		switch (month) {
+		case 2:
+			boolean leap = (year % 4 == 0)
+					&& (year % 100 != 0 || year % 400 == 0);
+			return leap ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
+	/**
+	 * Validate the scanned fields and convert them according to mode. Only the
+	 * leap second and TAI conversions consult LeapTable.
+	 */
+	private static long compose(int mode, int year, int month, int day,
+			int hour, int minute, int second, long nanos, int offsetSeconds,
+			long[] out, int outOffset, Object text, int offset, int length)
+			throws ParseException {
+		if (month < 1 || month > 12 || day < 1
+				|| day > daysInMonth(year, month) || hour > 23 || minute > 59
+				|| second > 60) {
+			throw fail(text, offset, length, "field out of range");
+		}
+		long days = Julian.posixDays(year, month, day);
+		long posix = (days * 86400L) + (hour * 3600) + (minute * 60) + second
+				- offsetSeconds;
+		/**
+		 * Second 60 rolls over into the next minute above, so for a leap
+		 * second posix is now the instant the leap second ends.
+		 */
+		boolean leap = (second == 60);
+		LeapSnapshot leaps = null;
+		if (leap) {
+			leaps = LeapTable.snapshot();
+			if (!leaps.insertsSecondAt(posix)) {
+				throw fail(text, offset, length, "not a leap second");
+			}
+		}
+		if (mode == modeT60) {
+			long ticks;
+			if (leap) {
+				ticks = (posix * ticksPerSecond) + T60Instant.lilianToPosixTicks
+						- 1;
+			} else {
+				ticks = (posix * ticksPerSecond) + T60Instant.lilianToPosixTicks
+						+ (nanos / 100L);
+			}
+			if (ticks < T60Instant.MIN.asLong()
+					|| ticks > T60Instant.MAX.asLong()) {
+				throw fail(text, offset, length, "outside of the T60 range");
+			}
+			return ticks;
+		}
+		if (leaps == null) {
+			leaps = LeapTable.snapshot();
+		}
+		long seconds = posix - taiEpochPosix;
+		if (leap) {
+			seconds += leaps.offset(posix - 1);
+		} else {
+			seconds += leaps.offset(posix);
+		}
+		out[outOffset] = seconds;
+		out[outOffset + 1] = nanos;
+		return seconds;
+	}
+
+	private static ParseException fail(Object text, int offset, int length,
+			String reason) {
+		String string;
+		if (text instanceof CharSequence) {
+			string = ((CharSequence) text).subSequence(offset, offset + length)
+					.toString();
+		} else if (text instanceof char[]) {
+			string = new String((char[]) text, offset, length);
+		} else if (text instanceof byte[]) {
+			string = new String((byte[]) text, offset, length, utf8);
+		} else {
+			ByteBuffer buffer = ((ByteBuffer) text).duplicate();
+			byte[] bytes = new byte[length];
+			buffer.position(offset);
+			buffer.get(bytes);
+			string = new String(bytes, utf8);
+		}
+		return new ParseException("\"" + string
+				+ "\" cannot be parsed as a strict RFC-3339 instant: " + reason,
+				0);
+	}
+
+	private static long scan(CharSequence text, int offset, int length,
+			int mode, long[] out, int outOffset) throws ParseException {
+		return scan(Ascii.copy(text, offset, length), 0, text, offset, length,
+				mode, out, outOffset);
+	}
+
+	private static long scan(char[] chars, int offset, int length, int mode,
+			long[] out, int outOffset) throws ParseException {
+		return scan(Ascii.copy(chars, offset, length), 0, chars, offset,
+				length, mode, out, outOffset);
+	}
+
+	private static long scan(byte[] bytes, int offset, int length, int mode,
+			long[] out, int outOffset) throws ParseException {
+		return scan(bytes, offset, bytes, offset, length, mode, out, outOffset);
+	}
+
+	private static long scan(ByteBuffer buffer, int offset, int length,
+			int mode, long[] out, int outOffset) throws ParseException {
+		if (buffer.hasArray()) {
+			return scan(buffer.array(), buffer.arrayOffset() + offset, buffer,
+					offset, length, mode, out, outOffset);
+		}
+		return scan(Ascii.copy(buffer, offset, length), 0, buffer, offset,
+				length, mode, out, outOffset);
+	}
+
+	/**
+	 * Scan the text as bytes from start, the bytes being either the text
+	 * itself or its first characters copied by Ascii. The text, offset and
+	 * length are only used to report an error.
+	 */
+	private static long scan(byte[] bytes, int start, Object text, int offset,
+			int length, int mode, long[] out, int outOffset)
+			throws ParseException {
+		if (length < minimumLength) {
+			throw fail(text, offset, length, "too short");
+		}
+		int end = start + length;
+		int year = number(bytes, start, 4);
+		int month = number(bytes, start + 5, 2);
+		int day = number(bytes, start + 8, 2);
+		int hour = number(bytes, start + 11, 2);
+		int minute = number(bytes, start + 14, 2);
+		int second = number(bytes, start + 17, 2);
+		if ((year | month | day | hour | minute | second) < 0
+				|| bytes[start + 4] != '-' || bytes[start + 7] != '-'
+				|| !isTimeSeparator(bytes[start + 10])
+				|| bytes[start + 13] != ':' || bytes[start + 16] != ':'
+				|| bytes[start + 19] != '.') {
+			throw fail(text, offset, length, "not a date and time");
+		}
+		int i = start + 20;
+		int first = i;
+		long fraction = 0;
+		while (i < end && i - first <= maximumFractionDigits) {
+			int digit = bytes[i] - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			fraction = (fraction * 10) + digit;
+			i++;
+		}
+		int digits = i - first;
+		if (digits < minimumFractionDigits || digits > maximumFractionDigits) {
+			throw fail(text, offset, length, "fraction must have "
+					+ minimumFractionDigits + " to " + maximumFractionDigits
+					+ " digits");
+		}
+		int zone = (i < end) ? bytes[i] : -1;
+		int offsetSeconds;
+		if ((zone == 'Z' || zone == 'z') && i + 1 == end) {
+			offsetSeconds = 0;
+		} else if ((zone == '+' || zone == '-') && i + 6 == end
+				&& bytes[i + 3] == ':') {
+			int offsetHours = number(bytes, i + 1, 2);
+			int offsetMinutes = number(bytes, i + 4, 2);
+			if (offsetHours < 0 || offsetHours > 23 || offsetMinutes < 0
+					|| offsetMinutes > 59) {
+				throw fail(text, offset, length, "invalid time offset");
+			}
+			offsetSeconds = (offsetHours * 3600) + (offsetMinutes * 60);
+			if (zone == '-') {
+				offsetSeconds = -offsetSeconds;
+			}
+		} else {
+			throw fail(text, offset, length, "invalid time offset");
+		}
+		long nanos = fraction * powersOfTen[9 - digits];
+		return compose(mode, year, month, day, hour, minute, second, nanos,
+				offsetSeconds, out, outOffset, text, offset, length);
+	}
+
+	private static int number(byte[] bytes, int index, int digits) {
+		int value = 0;
+		for (int i = index; i < index + digits; i++) {
+			int digit = bytes[i] - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			value = (value * 10) + digit;
+		}
+		return value;
+	}
+
+}
@@ -1,17 +1,322 @@
 package com.duramec.time;
 
-//
-//  - SLS
-//    - stretch  (negative seconds)
-//    - compress (positive seconds)
-//  - Spread T60 gen with a range to a TAI
-//  - Cosine?
-//  - Spread T60 over the range of TAI
-//  - Spread TAI over the range of T60
-//  - Spread T72 over the range of TAI
-//  - Spread TAI over the range of T72
-//
-//  global flag to indicate if SLS enabled in OS
-//    - this is to eliminate the slew conversion in the 
-//      event that FreeBSD ever fixes this or adds a kernel
-// option for it.
\ No newline at end of file
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Smeared UTC: a time scale which absorbs each leap second by running slightly
+ * slow (or fast, for a negative leap second) over a window around it, so that
+ * it never shows second 60 and never jumps. Outside the windows it agrees with
+ * UTC; inside one it is continuous and never decreases, though at tick
+ * resolution a reading may repeat the one before it.
+ *
+ * Smeared time is given as T60 ticks. A window of 1000 seconds ending at the
+ * leap second with a linear profile is UTC-SLS; a window of 24 hours centred
+ * on it with a linear or cosine profile matches the common "leap smear" of
+ * public NTP services.
+ *
+ * The windows are worked out once from a LeapSnapshot when the engine is
+ * created and kept in primitive arrays, so converting a value is a binary
+ * search over the windows followed by a few multiplies, without allocation.
+ * An engine is immutable and may be shared between threads; create a new one
+ * to pick up a newly loaded leap second table.
+ */
+public final class Smooth {
+
+	/**
+	 * Shape of the correction applied across a window.
+	 */
+	public enum Profile {
+		/**
+		 * Constant rate across the window.
+		 */
+		LINEAR,
+		/**
+		 * Rate changes smoothly from and back to the nominal rate, following
+		 * half a cosine wave, so there is no step in frequency at either end.
+		 */
+		COSINE
+	}
+
+	/**
+	 * Placement of the window relative to the leap second.
+	 */
+	public enum Alignment {
+		/**
+		 * The window ends where the leap second ends, as in UTC-SLS.
+		 */
+		END,
+		/**
+		 * The window is centred on the end of the leap second.
+		 */
+		CENTER
+	}
+
+	private static final long ticksPerSecond = 10000000L;
+
+	/**
+	 * T60 ticks at the TAI epoch with no TAI-UTC offset applied. Subtracting
+	 * the offset in ticks from this plus the TAI ticks gives T60 ticks.
+	 */
+	private static final long taiEpochTicks = (Epoch.TAI.secondsPosixEpoch() * ticksPerSecond)
+			+ T60Instant.lilianToPosixTicks;
+
+	private final LeapSnapshot leaps;
+
+	private final Profile profile;
+
+	private final long windowSeconds;
+
+	private final Alignment alignment;
+
+	/**
+	 * Start of each window, in ticks since the TAI epoch, sorted.
+	 */
+	private final long[] starts;
+
+	/**
+	 * End of each window, in ticks since the TAI epoch, exclusive.
+	 */
+	private final long[] ends;
+
+	/**
+	 * TAI-UTC offset in ticks in effect before each window.
+	 */
+	private final long[] before;
+
+	/**
+	 * TAI-UTC offset in ticks in effect from the end of each window.
+	 */
+	private final long[] after;
+
+	/**
+	 * Create an engine from the currently loaded leap second table.
+	 *
+	 * @param profile
+	 * @param windowSeconds
+	 * @param alignment
+	 */
+	public Smooth(Profile profile, long windowSeconds, Alignment alignment) {
+		this(LeapTable.snapshot(), profile, windowSeconds, alignment);
+	}
+
+	/**
+	 * Create an engine from a leap second table.
+	 *
+	 * The window must be at least 2 seconds long so that smeared time keeps
+	 * moving forward across a positive leap second, and must be shorter than
+	 * the shortest gap between two leap seconds so that windows never overlap.
+	 *
+	 * @param leaps
+	 * @param profile
+	 * @param windowSeconds
+	 * @param alignment
+	 */
+	public Smooth(LeapSnapshot leaps, Profile profile, long windowSeconds,
+			Alignment alignment) {
+		if (windowSeconds < 2) {
+			throw new IllegalArgumentException("Smear window of "
+					+ windowSeconds + " seconds is too short");
+		}
+		this.leaps = leaps;
+		this.profile = profile;
+		this.windowSeconds = windowSeconds;
+		this.alignment = alignment;
+
+		long window = windowSeconds * ticksPerSecond;
+		long lead = (alignment == Alignment.END) ? window : window / 2;
+		long taiEpochPosix = Epoch.TAI.secondsPosixEpoch();
+		ArrayList<LeapSecond> table = leaps.getTableClone();
+		int size = table.size();
+		this.starts = new long[size];
+		this.ends = new long[size];
+		this.before = new long[size];
+		this.after = new long[size];
+		int previous = LeapSnapshot.initialOffset;
+		for (int i = 0; i < size; i++) {
+			LeapSecond leap = table.get(i);
+			int offset = leap.getOffset();
+			/**
+			 * The leap second ends, and the new offset takes effect, at the
+			 * same instant in TAI as its occurrence in the POSIX frame.
+			 */
+			long end = (leap.occursAtPosixSeconds() - taiEpochPosix + offset)
+					* ticksPerSecond;
+			starts[i] = end - lead;
+			ends[i] = starts[i] + window;
+			before[i] = previous * ticksPerSecond;
+			after[i] = offset * ticksPerSecond;
+			if (i > 0 && starts[i] < ends[i - 1]) {
+				throw new IllegalArgumentException("Smear window of "
+						+ windowSeconds
+						+ " seconds overlaps between leap seconds");
+			}
+			previous = offset;
+		}
+	}
+
+	public LeapSnapshot getLeapSnapshot() {
+		return leaps;
+	}
+
+	public Profile getProfile() {
+		return profile;
+	}
+
+	public long getWindowSeconds() {
+		return windowSeconds;
+	}
+
+	public Alignment getAlignment() {
+		return alignment;
+	}
+
+	/**
+	 * Index of the last window starting at or before a number of ticks since
+	 * the TAI epoch, or -1 before the first one.
+	 */
+	private int indexOf(long taiTicks) {
+		int last = starts.length - 1;
+		if (taiTicks >= starts[last]) {
+			return last;
+		}
+		int i = Arrays.binarySearch(starts, 0, last, taiTicks);
+		return (i < 0) ? -i - 2 : i;
+	}
+
+	/**
+	 * TAI-UTC offset in ticks of smeared time at a number of ticks since the
+	 * TAI epoch, where i is the window found by indexOf.
+	 */
+	private long offsetTicks(int i, long taiTicks) {
+		if (i < 0) {
+			return LeapSnapshot.initialOffset * ticksPerSecond;
+		}
+		if (taiTicks >= ends[i]) {
+			return after[i];
+		}
+		long into = taiTicks - starts[i];
+		long step = after[i] - before[i];
+		if (profile == Profile.LINEAR) {
+			/**
+			 * step * into / window, where step is a whole number of seconds
+			 * in ticks and window is windowSeconds in ticks.
+			 */
+			return before[i] + (step / ticksPerSecond) * into / windowSeconds;
+		}
+		double u = (double) into / (windowSeconds * ticksPerSecond);
+		double g = (1.0 - Math.cos(Math.PI * u)) * 0.5;
+		return before[i] + Math.round(step * g);
+	}
+
+	/**
+	 * Convert seconds since the TAI epoch and nanos to smeared T60 ticks.
+	 *
+	 * @param seconds
+	 * @param nanos
+	 * @return
+	 */
+	public long fromTAI(long seconds, long nanos) {
+		long taiTicks = (seconds * ticksPerSecond) + (nanos / 100L);
+		return taiEpochTicks + taiTicks
+				- offsetTicks(indexOf(taiTicks), taiTicks);
+	}
+
+	/**
+	 * Convert a TAI instant to smeared time.
+	 *
+	 * @param instant
+	 * @return
+	 */
+	public T60Instant fromTAI(TAIInstant instant) {
+		return new T60Instant(fromTAI(instant.getSecondsSinceEpoch(),
+				instant.getNanos()));
+	}
+
+	/**
+	 * Convert T60 ticks, which follow UTC, to smeared T60 ticks. T60 cannot
+	 * represent a leap second itself, so values are taken to be on the UTC
+	 * side of it they would print as.
+	 *
+	 * @param ticks
+	 * @return
+	 */
+	public long fromT60(long ticks) {
+		long taiTicks = toTAITicks(ticks);
+		return taiEpochTicks + taiTicks
+				- offsetTicks(indexOf(taiTicks), taiTicks);
+	}
+
+	/**
+	 * Convert a T60 instant to smeared time.
+	 *
+	 * @param instant
+	 * @return
+	 */
+	public T60Instant fromT60(T60Instant instant) {
+		return new T60Instant(fromT60(instant.asLong()));
+	}
+
+	private long toTAITicks(long ticks) {
+		long posixTicks = ticks - T60Instant.lilianToPosixTicks;
+		long posix = posixTicks / ticksPerSecond;
+		if (posixTicks % ticksPerSecond < 0) {
+			posix--;
+		}
+		return ticks - taiEpochTicks + (leaps.offset(posix) * ticksPerSecond);
+	}
+
+	/**
+	 * Convert seconds since the TAI epoch and nanos to smeared T60 ticks in
+	 * bulk, e.g. to backfill historical data. The window found for one value
+	 * is tried first for the next, so sorted input rarely needs a search.
+	 *
+	 * @param seconds
+	 * @param nanos
+	 * @param offset
+	 * @param ticks
+	 * @param outOffset
+	 * @param length
+	 */
+	public void fromTAI(long[] seconds, long[] nanos, int offset,
+			long[] ticks, int outOffset, int length) {
+		int last = starts.length - 1;
+		int i = -1;
+		for (int k = 0; k < length; k++) {
+			long taiTicks = (seconds[offset + k] * ticksPerSecond)
+					+ (nanos[offset + k] / 100L);
+			if ((i >= 0 && taiTicks < starts[i])
+					|| (i < last && taiTicks >= starts[i + 1])) {
+				i = indexOf(taiTicks);
+			}
+			ticks[outOffset + k] = taiEpochTicks + taiTicks
+					- offsetTicks(i, taiTicks);
+		}
+	}
+
+	/**
+	 * Convert T60 ticks to smeared T60 ticks in bulk; see fromT60(long). The
+	 * input and output ranges may be the same.
+	 *
+	 * @param ticks
+	 * @param offset
+	 * @param smeared
+	 * @param outOffset
+	 * @param length
+	 */
+	public void fromT60(long[] ticks, int offset, long[] smeared,
+			int outOffset, int length) {
+		int last = starts.length - 1;
+		int i = -1;
+		for (int k = 0; k < length; k++) {
+			long taiTicks = toTAITicks(ticks[offset + k]);
+			if ((i >= 0 && taiTicks < starts[i])
+					|| (i < last && taiTicks >= starts[i + 1])) {
+				i = indexOf(taiTicks);
+			}
+			smeared[outOffset + k] = taiEpochTicks + taiTicks
+					- offsetTicks(i, taiTicks);
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.duramec.time;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Generation of 100-ns ticks relative to the UUID epoch, like TickGen, but
+ * spread over a number of independent stripes so that threads do not contend
+ * on a single last tick.
+ * 
+ * Stripe k only ever hands out ticks congruent to k modulo the number of
+ * stripes, so ticks are unique across all stripes. Ticks are strictly
+ * increasing within a stripe, but there is no ordering between stripes: two
+ * ticks from different stripes may be handed out in either order during the
+ * same millisecond.
+ * 
+ * As with TickGen, the precision is only to the millisecond, and a stripe
+ * spills past the millisecond boundary once it has handed out its share of
+ * the 10,000 ticks in that millisecond.
+ */
+public final class StripedTickGen {
+
+	/**
+	 * Distance between the last ticks of two stripes in the backing array.
+	 * Sixteen longs keeps each stripe on its own pair of cache lines, so that
+	 * stripes in use by different cores do not invalidate each other.
+	 */
+	private static final int padding = 16;
+
+	private final int stripes;
+
+	private final int mask;
+
+	private final AtomicLongArray lastTicks;
+
+	/**
+	 * Create a generator with two stripes for every available processor,
+	 * rounded up to a power of two.
+	 */
+	public StripedTickGen() {
+		this(Runtime.getRuntime().availableProcessors() * 2);
+	}
+
+	/**
+	 * Create a generator with at least the given number of stripes. The count
+	 * is rounded up to a power of two.
+	 * 
+	 * @param stripes
+	 */
+	public StripedTickGen(int stripes) {
+		assert (stripes > 0 && stripes <= (1 << 16));
+		int n = Integer.highestOneBit(stripes);
+		if (n < stripes) {
+			n <<= 1;
+		}
+		this.stripes = n;
+		this.mask = n - 1;
+		this.lastTicks = new AtomicLongArray(n * padding);
+		for (int i = 0; i < n; i++) {
+			lastTicks.set(i * padding, Long.MIN_VALUE);
+		}
+	}
+
+	/**
+	 * Number of stripes, always a power of two.
+	 * 
+	 * @return
+	 */
+	public int getStripes() {
+		return stripes;
+	}
+
+	/**
+	 * Stripe used by the calling thread.
+	 * 
+	 * @return
+	 */
+	public int stripe() {
+		long id = Thread.currentThread().getId();
+		/**
+		 * Thread ids are handed out sequentially, so mix the bits before
+		 * masking to keep threads created in bursts from sharing a stripe
+		 * with a thread created a fixed distance apart.
+		 */
+		int h = (int) (id ^ (id >>> 32));
+		h *= 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Next tick from the stripe of the calling thread.
+	 * 
+	 * @return
+	 */
+	public long next() {
+		return next(stripe());
+	}
+
+	/**
+	 * Next tick from a given stripe. Callers which assign their own workers
+	 * to stripes, e.g. one per partition, get strictly increasing ticks for
+	 * each worker as long as no other caller shares the stripe.
+	 * 
+	 * @param stripe
+	 * @return
+	 */
+	public long next(int stripe) {
+		int k = stripe & mask;
+		int slot = k * padding;
+		long ms = System.currentTimeMillis();
+		long tick = (ms * 10000L) + 0x01B21DD213814000L;
+		/**
+		 * Round the tick up to the first one belonging to this stripe.
+		 */
+		tick += (k - tick) & mask;
+
+		while (true) {
+			long last = lastTicks.get(slot);
+			long next = (tick > last) ? tick : last + stripes;
+			if (lastTicks.compareAndSet(slot, last, next)) {
+				return next;
+			}
+		}
+	}
+
+}
@@ -2,7 +2,14 @@ package com.duramec.time;
 
 import java.lang.Thread;
 
-public final class T60Clock {
+/**
+ * A clock of T60 ticks. By default the wall clock is read once, when the class
+ * is loaded, and then only System.nanoTime() is added to it; a clock given a
+ * T60Discipline instead follows the wall clock, slewing its rate rather than
+ * stepping back; see T60Discipline for the one case in which it may still go
+ * back slightly.
+ */
+public final class T60Clock implements TickSource {
 
 	private static final long startTick;
 
@@ -21,8 +28,38 @@ public final class T60Clock {
 		}
 	}
 
-	public synchronized final long tick() {
+	private final T60Discipline discipline;
+
+	public T60Clock() {
+		this.discipline = null;
+	}
+
+	/**
+	 * Create a clock disciplined to the wall clock.
+	 *
+	 * @param discipline
+	 */
+	public T60Clock(T60Discipline discipline) {
+		if (discipline == null) {
+			throw new IllegalArgumentException("discipline is null");
+		}
+		this.discipline = discipline;
+	}
+
+	/**
+	 * Discipline of the clock, or null if it is not disciplined.
+	 *
+	 * @return
+	 */
+	public T60Discipline getDiscipline() {
+		return discipline;
+	}
+
+	public final long tick() {
+		if (discipline != null) {
+			return discipline.tick();
+		}
 		return startTick + ((System.nanoTime() - startNanos) / 100L);
 	}
 
-}
\ No newline at end of file
+}
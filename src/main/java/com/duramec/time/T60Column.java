@@ -0,0 +1,293 @@
+package com.duramec.time;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * A column of T60 ticks backed by a primitive long array, for handling large
+ * numbers of timestamps without an object per value.
+ *
+ * The static kernels below convert whole ranges of values at a time between
+ * T60 ticks and the other time scales. They take their arguments in the same
+ * order as System.arraycopy: source arrays and offset, destination arrays and
+ * offset, then length. Each kernel is a plain counted loop over the arrays
+ * without calls or object access in its body so that the JIT is free to
+ * unroll and vectorize it; only the TAI kernels consult the leap second
+ * table.
+ *
+ * They use the same constants as the single-value conversions, so a kernel
+ * gives exactly the result of the matching constructor or method:
+ *
+ * ⇒ POSIX: T60Instant(Posix) and T60Instant.lilianToPosixTicks
+ *
+ * ⇒ GPS: GPSInstant(T60Instant), GPSInstant.toT60Instant and
+ * GPSInstant.GPS_TO_LILIAN
+ *
+ * ⇒ TAI: TAIInstant(Posix) and LeapSnapshot.toTAI, and RFC3339 for
+ * instants within a leap second
+ *
+ * Off-heap storage is supported through bulk transfers to and from a
+ * LongBuffer, which may be a view of a direct ByteBuffer.
+ */
+public final class T60Column {
+
+	private static final long ticksPerSecond = 10000000L;
+
+	private static final long secondsInGpsWeek = 7 * 86400L;
+
+	private static final long taiEpochPosix = Epoch.TAI.secondsPosixEpoch();
+
+	private long[] ticks;
+
+	private int size;
+
+	/**
+	 * Create an empty column with room for the given number of values.
+	 *
+	 * @param capacity
+	 */
+	public T60Column(int capacity) {
+		this.ticks = new long[capacity];
+		this.size = 0;
+	}
+
+	/**
+	 * Create a column over an existing array of ticks, of which the first size
+	 * values are in use. The array is not copied.
+	 *
+	 * @param ticks
+	 * @param size
+	 */
+	public T60Column(long[] ticks, int size) {
+		assert (size >= 0 && size <= ticks.length);
+		this.ticks = ticks;
+		this.size = size;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long get(int index) {
+		assert (index < size);
+		return ticks[index];
+	}
+
+	public void set(int index, long tick) {
+		assert (index < size);
+		ticks[index] = tick;
+	}
+
+	/**
+	 * Append a value, growing the backing array if needed.
+	 *
+	 * @param tick
+	 */
+	public void add(long tick) {
+		if (size == ticks.length) {
+			ticks = Arrays.copyOf(ticks, Math.max(16, size * 2));
+		}
+		ticks[size++] = tick;
+	}
+
+	/**
+	 * Return the backing array. Only the first size() values are in use.
+	 *
+	 * @return
+	 */
+	public long[] array() {
+		return ticks;
+	}
+
+	/**
+	 * Replace the contents of the column with count values read from a
+	 * buffer at its position.
+	 *
+	 * @param buffer
+	 * @param count
+	 */
+	public void readFrom(LongBuffer buffer, int count) {
+		if (count > ticks.length) {
+			ticks = new long[count];
+		}
+		buffer.get(ticks, 0, count);
+		size = count;
+	}
+
+	/**
+	 * Write the contents of the column into a buffer at its position.
+	 *
+	 * @param buffer
+	 */
+	public void writeTo(LongBuffer buffer) {
+		buffer.put(ticks, 0, size);
+	}
+
+	public void toPosix(long[] seconds, long[] nanos) {
+		toPosix(ticks, 0, seconds, nanos, 0, size);
+	}
+
+	public void toGPS(long[] seconds, long[] nanos) {
+		toGPS(ticks, 0, seconds, nanos, 0, size);
+	}
+
+	public void toTAI(long[] seconds, long[] nanos) {
+		toTAI(ticks, 0, seconds, nanos, 0, size);
+	}
+
+	public void toGPSWeeks(int[] weeks, int[] secondsOfWeek) {
+		toGPSWeeks(ticks, 0, weeks, secondsOfWeek, 0, size);
+	}
+
+	/**
+	 * Convert T60 ticks to seconds and nanos in the POSIX frame.
+	 *
+	 * @param ticks
+	 * @param offset
+	 * @param seconds
+	 * @param nanos
+	 * @param outOffset
+	 * @param length
+	 */
+	public static void toPosix(long[] ticks, int offset, long[] seconds,
+			long[] nanos, int outOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			long t = ticks[offset + i] - T60Instant.lilianToPosixTicks;
+			long remainder = t % ticksPerSecond;
+			long borrow = remainder >> 63; // -1 before the POSIX epoch
+			remainder += borrow & ticksPerSecond;
+			seconds[outOffset + i] = (t / ticksPerSecond) + borrow;
+			nanos[outOffset + i] = remainder * 100L;
+		}
+	}
+
+	/**
+	 * Convert seconds and nanos in the POSIX frame to T60 ticks.
+	 *
+	 * @param seconds
+	 * @param nanos
+	 * @param offset
+	 * @param ticks
+	 * @param outOffset
+	 * @param length
+	 */
+	public static void fromPosix(long[] seconds, long[] nanos, int offset,
+			long[] ticks, int outOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			ticks[outOffset + i] = (seconds[offset + i] * ticksPerSecond)
+					+ T60Instant.lilianToPosixTicks
+					+ (nanos[offset + i] / 100L);
+		}
+	}
+
+	/**
+	 * Convert T60 ticks to seconds since the GPS epoch and nanos.
+	 *
+	 * @param ticks
+	 * @param offset
+	 * @param seconds
+	 * @param nanos
+	 * @param outOffset
+	 * @param length
+	 */
+	public static void toGPS(long[] ticks, int offset, long[] seconds,
+			long[] nanos, int outOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			long t = ticks[offset + i];
+			seconds[outOffset + i] = (t / ticksPerSecond)
+					- GPSInstant.GPS_TO_LILIAN;
+			nanos[outOffset + i] = (t % ticksPerSecond) * 100L;
+		}
+	}
+
+	/**
+	 * Convert seconds since the GPS epoch and nanos to T60 ticks.
+	 *
+	 * @param seconds
+	 * @param nanos
+	 * @param offset
+	 * @param ticks
+	 * @param outOffset
+	 * @param length
+	 */
+	public static void fromGPS(long[] seconds, long[] nanos, int offset,
+			long[] ticks, int outOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			long lilian = seconds[offset + i] + GPSInstant.GPS_TO_LILIAN;
+			ticks[outOffset + i] = (lilian * ticksPerSecond)
+					+ (nanos[offset + i] / 100L);
+		}
+	}
+
+	/**
+	 * Convert T60 ticks to GPS week numbers since the GPS epoch and seconds
+	 * elapsed in the week.
+	 *
+	 * @param ticks
+	 * @param offset
+	 * @param weeks
+	 * @param secondsOfWeek
+	 * @param outOffset
+	 * @param length
+	 */
+	public static void toGPSWeeks(long[] ticks, int offset, int[] weeks,
+			int[] secondsOfWeek, int outOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			long seconds = (ticks[offset + i] / ticksPerSecond)
+					- GPSInstant.GPS_TO_LILIAN;
+			long remainder = seconds % secondsInGpsWeek;
+			long borrow = remainder >> 63; // -1 before the GPS epoch
+			remainder += borrow & secondsInGpsWeek;
+			weeks[outOffset + i] = (int) ((seconds / secondsInGpsWeek) + borrow);
+			secondsOfWeek[outOffset + i] = (int) remainder;
+		}
+	}
+
+	/**
+	 * Convert T60 ticks to seconds since the TAI epoch and nanos, applying the
+	 * TAI-UTC offset in effect at each value. Sorted ticks are converted with
+	 * a single walk over the leap second table; see LeapSnapshot.toTAI.
+	 *
+	 * @param ticks
+	 * @param offset
+	 * @param seconds
+	 * @param nanos
+	 * @param outOffset
+	 * @param length
+	 */
+	public static void toTAI(long[] ticks, int offset, long[] seconds,
+			long[] nanos, int outOffset, int length) {
+		toPosix(ticks, offset, seconds, nanos, outOffset, length);
+		LeapTable.snapshot().toTAI(seconds, outOffset, seconds, outOffset,
+				length);
+	}
+
+	/**
+	 * Convert seconds since the TAI epoch and nanos to T60 ticks, removing the
+	 * TAI-UTC offset in effect at each value. T60 has no room for a leap
+	 * second, so values within one are pinned to the last tick before it.
+	 *
+	 * @param seconds
+	 * @param nanos
+	 * @param offset
+	 * @param ticks
+	 * @param outOffset
+	 * @param length
+	 */
+	public static void fromTAI(long[] seconds, long[] nanos, int offset,
+			long[] ticks, int outOffset, int length) {
+		LeapSnapshot leaps = LeapTable.snapshot();
+		for (int i = 0; i < length; i++) {
+			long tai = seconds[offset + i];
+			long posix = tai + taiEpochPosix - leaps.offsetAtTAI(tai);
+			long base = (posix * ticksPerSecond)
+					+ T60Instant.lilianToPosixTicks;
+			if (leaps.isInsertedSecondAtTAI(tai)) {
+				ticks[outOffset + i] = base - 1;
+			} else {
+				ticks[outOffset + i] = base + (nanos[offset + i] / 100L);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,213 @@
+package com.duramec.time;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Streaming decompression of T60 ticks written by T60DeltaEncoder, from the
+ * position of a buffer up to its limit. The buffer itself is only read with
+ * absolute gets, so its position and limit are left alone.
+ *
+ * Decoding goes one block at a time straight into a long array. Seeking to a
+ * time reads only the block headers until it reaches the block holding that
+ * time, so that whole blocks are skipped without decoding them; this requires
+ * ticks to be non-decreasing, as they are for timestamps.
+ */
+public final class T60DeltaDecoder {
+
+	private final ByteBuffer buffer;
+
+	private final int start;
+
+	private final int limit;
+
+	/**
+	 * Index of the header of the next block.
+	 */
+	private int next;
+
+	/**
+	 * Ticks left to decode in the current block.
+	 */
+	private int remaining;
+
+	private boolean first;
+
+	private long firstTick;
+
+	/**
+	 * A tick already decoded by seek, to be returned by the next read.
+	 */
+	private boolean pending;
+
+	private long previousTick;
+
+	private long previousDelta;
+
+	/**
+	 * Index of the next byte of packed bits, and the end of the packed bits
+	 * of the current block.
+	 */
+	private int position;
+
+	private int end;
+
+	/**
+	 * Bits read but not yet used, left aligned.
+	 */
+	private long bits;
+
+	private int bitCount;
+
+	/**
+	 * Create a decoder reading blocks from the position of a buffer up to its
+	 * limit.
+	 *
+	 * @param buffer
+	 */
+	public T60DeltaDecoder(ByteBuffer buffer) {
+		this.buffer = buffer;
+		this.start = buffer.position();
+		this.limit = buffer.limit();
+		rewind();
+	}
+
+	/**
+	 * Go back to the first tick.
+	 */
+	public void rewind() {
+		next = start;
+		remaining = 0;
+		pending = false;
+	}
+
+	private boolean openBlock(int header) {
+		if (header + T60DeltaEncoder.headerLength > limit) {
+			return false;
+		}
+		firstTick = Codec.getLong(buffer, header);
+		remaining = Codec.getInt(buffer, header + 8);
+		position = header + T60DeltaEncoder.headerLength;
+		end = position + Codec.getInt(buffer, header + 12);
+		next = end;
+		first = true;
+		bits = 0;
+		bitCount = 0;
+		return true;
+	}
+
+	/**
+	 * Read n bits, n at most 32.
+	 */
+	private long read(int n) {
+		while (bitCount < n) {
+			long b = (position < end) ? (buffer.get(position++) & 0xFFL) : 0;
+			bits |= b << (56 - bitCount);
+			bitCount += 8;
+		}
+		long value = bits >>> (64 - n);
+		bits <<= n;
+		bitCount -= n;
+		return value;
+	}
+
+	private long decode() {
+		if (first) {
+			first = false;
+			previousTick = firstTick;
+			previousDelta = 0;
+			return firstTick;
+		}
+		long zigzag;
+		if (read(1) == 0) {
+			zigzag = 0;
+		} else if (read(1) == 0) {
+			zigzag = read(7);
+		} else if (read(1) == 0) {
+			zigzag = read(12);
+		} else if (read(1) == 0) {
+			zigzag = read(20);
+		} else {
+			zigzag = (read(32) << 32) | read(32);
+		}
+		long dod = (zigzag >>> 1) ^ -(zigzag & 1);
+		previousDelta += dod;
+		previousTick += previousDelta;
+		return previousTick;
+	}
+
+	/**
+	 * Decode up to length ticks into an array, returning how many were
+	 * decoded: fewer than length only at the end of the data.
+	 *
+	 * @param ticks
+	 * @param offset
+	 * @param length
+	 * @return
+	 */
+	public int read(long[] ticks, int offset, int length) {
+		int read = 0;
+		if (pending && length > 0) {
+			ticks[offset + read++] = previousTick;
+			pending = false;
+		}
+		while (read < length) {
+			if (remaining == 0 && !openBlock(next)) {
+				break;
+			}
+			int n = Math.min(remaining, length - read);
+			for (int i = 0; i < n; i++) {
+				ticks[offset + read++] = decode();
+			}
+			remaining -= n;
+		}
+		return read;
+	}
+
+	/**
+	 * Position the decoder so that the next read starts at the first tick at
+	 * or after the given one. Returns false, leaving nothing more to read, if
+	 * there is no such tick.
+	 *
+	 * @param tick
+	 * @return
+	 */
+	public boolean seek(long tick) {
+		rewind();
+		int header = start;
+		if (header + T60DeltaEncoder.headerLength > limit) {
+			return false;
+		}
+		/**
+		 * Move on to the next block while it starts before the tick, so that
+		 * every tick in the blocks passed over is before it too.
+		 */
+		while (true) {
+			int following = header + T60DeltaEncoder.headerLength
+					+ Codec.getInt(buffer, header + 12);
+			if (following + T60DeltaEncoder.headerLength > limit
+					|| Codec.getLong(buffer, following) >= tick) {
+				break;
+			}
+			header = following;
+		}
+		openBlock(header);
+		while (remaining > 0) {
+			remaining--;
+			if (decode() >= tick) {
+				pending = true;
+				return true;
+			}
+		}
+		/**
+		 * Only the next block, which starts at or after the tick, is left.
+		 */
+		if (openBlock(next)) {
+			remaining--;
+			decode();
+			pending = true;
+			return true;
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,199 @@
+package com.duramec.time;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Streaming compression of sequences of T60 ticks into a ByteBuffer, for
+ * series which are mostly regular such as sampling at a fixed interval.
+ *
+ * Ticks are written in blocks. Each block starts with a 16-byte header, all
+ * big-endian:
+ *
+ * ⇒ 0: first tick of the block
+ *
+ * ⇒ 8: number of ticks in the block
+ *
+ * ⇒ 12: number of bytes of packed bits after the header
+ *
+ * The ticks after the first are stored as the change in the difference
+ * between consecutive ticks (the delta of the delta), zig-zag encoded so that
+ * small negative values stay small, and bit packed after a prefix code in the
+ * manner of Gorilla:
+ *
+ * ⇒ '0': unchanged interval
+ *
+ * ⇒ '10' and 7 bits, '110' and 12 bits, '1110' and 20 bits: small changes
+ *
+ * ⇒ '1111' and 64 bits: anything else
+ *
+ * A series at a fixed interval thus costs one bit per tick after the first
+ * two of each block, and one with jitter of up to ±6.4 µs nine bits.
+ *
+ * Bits of the current block are written past the position of the buffer,
+ * which is only advanced over a block once it is finished, by filling it up
+ * or by flush(). Each block has to fit in the remaining space of the buffer;
+ * maximumBlockLength gives an upper bound.
+ */
+public final class T60DeltaEncoder {
+
+	static final int headerLength = 16;
+
+	private final ByteBuffer buffer;
+
+	private final int blockSize;
+
+	/**
+	 * Index of the header of the current block.
+	 */
+	private int blockStart;
+
+	/**
+	 * Index of the next byte of packed bits.
+	 */
+	private int position;
+
+	private int count;
+
+	private long previousTick;
+
+	private long previousDelta;
+
+	/**
+	 * Bits not yet written, right aligned.
+	 */
+	private long bits;
+
+	private int bitCount;
+
+	/**
+	 * Create an encoder writing from the position of a buffer, with up to
+	 * blockSize ticks in each block.
+	 *
+	 * @param buffer
+	 * @param blockSize
+	 */
+	public T60DeltaEncoder(ByteBuffer buffer, int blockSize) {
+		assert (blockSize > 0);
+		this.buffer = buffer;
+		this.blockSize = blockSize;
+		this.position = buffer.position();
+	}
+
+	/**
+	 * Largest number of bytes a block of a given number of ticks may take.
+	 *
+	 * @param blockSize
+	 * @return
+	 */
+	public static int maximumBlockLength(int blockSize) {
+		return headerLength + (int) (((blockSize * 68L) + 7) / 8) + 8;
+	}
+
+	/**
+	 * Append a tick to the current block, starting a new one if needed.
+	 *
+	 * @param tick
+	 */
+	public void append(long tick) {
+		if (count == 0) {
+			blockStart = position;
+			position += headerLength;
+			if (position > buffer.limit()) {
+				throw new BufferOverflowException();
+			}
+			Codec.putLong(buffer, blockStart, tick);
+			previousTick = tick;
+			previousDelta = 0;
+			count = 1;
+		} else {
+			long delta = tick - previousTick;
+			long dod = delta - previousDelta;
+			long zigzag = (dod << 1) ^ (dod >> 63);
+			if (zigzag == 0) {
+				write(0, 1);
+			} else if (zigzag < (1L << 7)) {
+				write((0x2L << 7) | zigzag, 9);
+			} else if (zigzag < (1L << 12)) {
+				write((0x6L << 12) | zigzag, 15);
+			} else if (zigzag < (1L << 20)) {
+				write((0xEL << 20) | zigzag, 24);
+			} else {
+				write(0xF, 4);
+				write(zigzag >>> 32, 32);
+				write(zigzag & 0xFFFFFFFFL, 32);
+			}
+			previousTick = tick;
+			previousDelta = delta;
+			count++;
+		}
+		if (count == blockSize) {
+			finish();
+		}
+	}
+
+	/**
+	 * Append consecutive ticks from an array.
+	 *
+	 * @param ticks
+	 * @param offset
+	 * @param length
+	 */
+	public void append(long[] ticks, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			append(ticks[offset + i]);
+		}
+	}
+
+	/**
+	 * Finish the current block, if any, and advance the position of the
+	 * buffer past it.
+	 */
+	public void flush() {
+		if (count > 0) {
+			finish();
+		}
+	}
+
+	/**
+	 * Write the low n bits of a value, n at most 32.
+	 */
+	private void write(long value, int n) {
+		bits = (bits << n) | value;
+		bitCount += n;
+		if (bitCount >= 32) {
+			bitCount -= 32;
+			if (position + 4 > buffer.limit()) {
+				throw new BufferOverflowException();
+			}
+			int word = (int) (bits >>> bitCount);
+			buffer.put(position, (byte) (word >>> 24));
+			buffer.put(position + 1, (byte) (word >>> 16));
+			buffer.put(position + 2, (byte) (word >>> 8));
+			buffer.put(position + 3, (byte) word);
+			position += 4;
+		}
+	}
+
+	private void finish() {
+		while (bitCount > 0) {
+			if (position >= buffer.limit()) {
+				throw new BufferOverflowException();
+			}
+			/**
+			 * Left align the last bits of a byte, padding with zeroes.
+			 */
+			int shift = bitCount - 8;
+			int b = (int) ((shift >= 0) ? (bits >>> shift) : (bits << -shift));
+			buffer.put(position++, (byte) b);
+			bitCount = Math.max(shift, 0);
+		}
+		bits = 0;
+		Codec.putInt(buffer, blockStart + 8, count);
+		Codec.putInt(buffer, blockStart + 12, position - blockStart
+				- headerLength);
+		buffer.position(position);
+		count = 0;
+	}
+
+}
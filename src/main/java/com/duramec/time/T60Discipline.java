@@ -0,0 +1,356 @@
+package com.duramec.time;
+
+import java.io.Closeable;
+
+/**
+ * Keeps the ticks of a disciplined T60Clock close to the system wall clock.
+ *
+ * A T60Clock on its own takes the wall clock once and then only adds
+ * System.nanoTime(), so it drifts away from a wall clock corrected by NTP. A
+ * discipline samples the wall clock on a daemon thread every period and
+ * adjusts the rate at which ticks advance against nanoTime, by at most the
+ * maximum slew in parts per million, so that the offset to the wall clock is
+ * taken out gradually rather than stepped. The controller is
+ * proportional-integral: the integral term learns the frequency error of
+ * nanoTime, so a steady drift is followed without a standing offset. A wall
+ * clock ahead by more than stepThreshold, such as after a suspend, is caught
+ * up with a step forward; one behind is only ever slewed.
+ *
+ * Ticks are computed from an immutable state published through a volatile
+ * reference: a tick, the nanoTime it was taken at and a rate. Each sample
+ * publishes a new state taking effect shortly in the future, which keeps
+ * the previous one for times before that, so a reader holding on to either
+ * sees continuous ticks, and ticks never go back, as long as the state is
+ * published before it takes effect. The sampler checks that just before it
+ * publishes, but nothing stops its thread being paused between the check
+ * and the volatile write. A pause of more than a millisecond there lets a
+ * reader of the old state run on at the old rate past the switch, and ticks
+ * may then go back by at most the difference of the two rates over the
+ * pause, one microsecond per millisecond at the default maximum slew.
+ * Reading the time is nanoTime, one volatile read and some arithmetic.
+ */
+public final class T60Discipline implements Closeable, Runnable {
+
+	/**
+	 * Default largest adjustment of the rate, in parts per million, the same
+	 * as that of the NTP kernel discipline.
+	 */
+	public static final int defaultMaximumSlew = 500;
+
+	public static final long defaultPeriodMillis = 4000L;
+
+	/**
+	 * Offset to the wall clock, in ticks, beyond which ticks are stepped
+	 * forward rather than slewed: 128 ms, as with ntpd.
+	 */
+	public static final long stepThreshold = 1280000L;
+
+	/**
+	 * Nanoseconds after a sample, or after the state is published if that is
+	 * later, at which its state takes effect, so that readers of the previous
+	 * state have finished with times before it.
+	 */
+	private static final long lead = 1000000L;
+
+	private static final class State {
+
+		/**
+		 * Segment in effect before switchNanos: ticks advance from
+		 * previousTick at previousNanos at the previous rate.
+		 */
+		final long previousNanos;
+
+		final long previousTick;
+
+		final long previousRate;
+
+		/**
+		 * From switchNanos ticks advance from tick at the rate, in parts per
+		 * billion faster than nanoTime.
+		 */
+		final long switchNanos;
+
+		final long tick;
+
+		final long rate;
+
+		/**
+		 * Measurements of the sample which gave this state.
+		 */
+		final long sampleNanos;
+
+		final long offset;
+
+		final long frequency;
+
+		State(long previousNanos, long previousTick, long previousRate,
+				long switchNanos, long tick, long rate, long sampleNanos,
+				long offset, long frequency) {
+			this.previousNanos = previousNanos;
+			this.previousTick = previousTick;
+			this.previousRate = previousRate;
+			this.switchNanos = switchNanos;
+			this.tick = tick;
+			this.rate = rate;
+			this.sampleNanos = sampleNanos;
+			this.offset = offset;
+			this.frequency = frequency;
+		}
+
+		long tick(long nanos) {
+			if (nanos < switchNanos) {
+				return previousTick
+						+ (scale(nanos - previousNanos, previousRate) / 100L);
+			}
+			return tick + (scale(nanos - switchNanos, rate) / 100L);
+		}
+	}
+
+	private final int maximumSlew;
+
+	private final long periodMillis;
+
+	private final Thread thread;
+
+	private volatile State state;
+
+	/**
+	 * Last value of the wall clock read by sampleWall, in ticks.
+	 */
+	private long wallTicks;
+
+	/**
+	 * Start a discipline with the default period and maximum slew.
+	 */
+	public T60Discipline() {
+		this(defaultPeriodMillis, defaultMaximumSlew);
+	}
+
+	/**
+	 * Start a discipline sampling the wall clock every period, adjusting the
+	 * rate of ticks by at most the maximum slew in parts per million.
+	 *
+	 * @param periodMillis
+	 * @param maximumSlew
+	 */
+	public T60Discipline(long periodMillis, int maximumSlew) {
+		if (periodMillis < 10) {
+			throw new IllegalArgumentException("period of " + periodMillis
+					+ " ms is below 10 ms");
+		}
+		this.periodMillis = periodMillis;
+		this.maximumSlew = slew(maximumSlew);
+		long nanos = sampleWall();
+		this.state = initial(nanos, wallTicks);
+		this.thread = new Thread(this, "T60Discipline");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Create a discipline anchored at a wall clock time, in ticks, taken at a
+	 * nanoTime, without a thread; samples are given to sample().
+	 */
+	T60Discipline(int maximumSlew, long nanos, long wallTicks) {
+		this.periodMillis = 0;
+		this.maximumSlew = slew(maximumSlew);
+		this.state = initial(nanos, wallTicks);
+		this.thread = null;
+	}
+
+	private static int slew(int maximumSlew) {
+		if (maximumSlew < 0 || maximumSlew > 100000) {
+			throw new IllegalArgumentException("maximum slew of "
+					+ maximumSlew + " ppm is out of range");
+		}
+		return maximumSlew;
+	}
+
+	private static State initial(long nanos, long wallTicks) {
+		return new State(nanos, wallTicks, 0, nanos, wallTicks, 0, nanos, 0,
+				0);
+	}
+
+	/**
+	 * Nanoseconds scaled by a rate in parts per billion. Microseconds are
+	 * multiplied, so that a rate of 500 ppm only overflows after 200 days
+	 * without a sample.
+	 */
+	private static long scale(long nanos, long rate) {
+		return nanos + (((nanos / 1000L) * rate) / 1000000L);
+	}
+
+	/**
+	 * The current tick.
+	 *
+	 * @return
+	 */
+	public long tick() {
+		/**
+		 * nanoTime is read before the state: a reader still seeing the state
+		 * before a sample then has a time before that sample took effect.
+		 */
+		long nanos = System.nanoTime();
+		return state.tick(nanos);
+	}
+
+	/**
+	 * The tick at a nanoTime not far from the last sample.
+	 */
+	long tickAt(long nanos) {
+		return state.tick(nanos);
+	}
+
+	/**
+	 * Wall clock minus ticks at the last sample, in ticks.
+	 *
+	 * @return
+	 */
+	public long getOffset() {
+		return state.offset;
+	}
+
+	/**
+	 * Rate of ticks against nanoTime since the last sample, in parts per
+	 * billion faster.
+	 *
+	 * @return
+	 */
+	public long getRate() {
+		return state.rate;
+	}
+
+	/**
+	 * Estimate of how much slower nanoTime runs than the wall clock, in parts
+	 * per billion; the rate once the offset has been taken out.
+	 *
+	 * @return
+	 */
+	public long getFrequency() {
+		return state.frequency;
+	}
+
+	public int getMaximumSlew() {
+		return maximumSlew;
+	}
+
+	private long clamp(long rate) {
+		long bound = maximumSlew * 1000L;
+		return (rate > bound) ? bound : ((rate < -bound) ? -bound : rate);
+	}
+
+	/**
+	 * Take a sample of the wall clock, in ticks, at a nanoTime, and publish
+	 * the rate and any step following from it. Only called from one thread
+	 * at a time.
+	 */
+	void sample(long nanos, long wallTicks) {
+		sample(nanos, wallTicks, nanos);
+	}
+
+	/**
+	 * Take a sample as above, with the state published at a later nanoTime.
+	 */
+	void sample(long nanos, long wallTicks, long published) {
+		state = next(state, nanos, wallTicks, published);
+	}
+
+	/**
+	 * Take a sample and publish its state. Readers of the previous state
+	 * carry on with its rate up to the switch, so the switch must not have
+	 * passed by the time the new state is published: if the thread was held
+	 * up for longer than the lead since the sample, such as by preemption or
+	 * at a safepoint, the state is worked out again to switch a lead after
+	 * the clock as read now. A pause after the last check is not caught; see
+	 * the class comment.
+	 */
+	private void publish(long nanos, long wallTicks) {
+		State s = state;
+		State next = next(s, nanos, wallTicks, nanos);
+		long now = System.nanoTime();
+		while (now >= next.switchNanos) {
+			next = next(s, nanos, wallTicks, now);
+			now = System.nanoTime();
+		}
+		state = next;
+	}
+
+	/**
+	 * State following from a sample of the wall clock, in ticks, at a
+	 * nanoTime, to be published at a nanoTime no earlier.
+	 */
+	private State next(State s, long nanos, long wallTicks, long published) {
+		long offset = wallTicks - s.tick(nanos);
+		long elapsed = nanos - s.sampleNanos;
+		long switchNanos = Math.max(published, s.switchNanos) + lead;
+		long tick = s.tick(switchNanos);
+		long frequency = s.frequency;
+		long rate;
+		if (offset > stepThreshold) {
+			tick = Math.max(tick, wallTicks + ((switchNanos - nanos) / 100L));
+			rate = frequency;
+		} else if (elapsed <= 0) {
+			rate = s.rate;
+		} else {
+			/**
+			 * The offset as a rate over the time since the last sample. Half
+			 * of it is taken out over the coming period, and a quarter added
+			 * to the estimate of the frequency, which keeps the loop stable.
+			 * While the rate is held at the maximum slew the estimate is left
+			 * alone, so that taking out a large offset does not wind it up.
+			 */
+			long bounded = Math.max(-stepThreshold, offset) * 100L;
+			long error = (bounded * 1000000000L) / elapsed;
+			long estimate = frequency + (error / 4);
+			rate = estimate + (error / 2);
+			if (rate == clamp(rate)) {
+				frequency = estimate;
+			} else {
+				rate = clamp(rate);
+			}
+		}
+		return new State(s.switchNanos, s.tick, s.rate, switchNanos, tick,
+				rate, nanos, offset, frequency);
+	}
+
+	/**
+	 * Read the wall clock as it turns over to the next millisecond, so that
+	 * the reading is good to far better than a millisecond, and return the
+	 * nanoTime at which it turned over. Spins for up to a millisecond.
+	 */
+	private long sampleWall() {
+		long start = System.currentTimeMillis();
+		long nanos;
+		long millis;
+		do {
+			nanos = System.nanoTime();
+			millis = System.currentTimeMillis();
+		} while (millis == start);
+		wallTicks = (millis * 10000L) + T60Instant.lilianToPosixTicks;
+		return nanos;
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (true) {
+				Thread.sleep(periodMillis);
+				long nanos = sampleWall();
+				publish(nanos, wallTicks);
+			}
+		} catch (InterruptedException e) {
+			// closed
+		}
+	}
+
+	/**
+	 * Stop sampling. Ticks carry on at the last rate.
+	 */
+	@Override
+	public void close() {
+		if (thread != null) {
+			thread.interrupt();
+		}
+	}
+
+}
@@ -5,40 +5,33 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.text.ParseException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
-import org.joda.time.format.DateTimeFormat;
-import org.joda.time.format.DateTimeFormatter;
 
 public final class T60Instant implements Comparable<T60Instant>, Serializable,
 		Cloneable {
 
-	private static final DateTimeFormatter datetimeFormat = DateTimeFormat
-			.forPattern("yyyy-MM-dd'T'HH':'mm':'ss").withZoneUTC();
-
 	public static final T60Instant MIN = new T60Instant(0L);
 
 	public static final T60Instant MAX = new T60Instant(0x0FFFFFFFFFFFFFFFL);
 
 	public static final long lilianToPosixTicks = Epoch.LILIAN_TO_POSIX * 10000000L;
 
-	private static final Pattern pattern = Pattern
-			.compile("(\\d\\d\\d\\d-\\d\\d-\\d\\d"
-					+ "[T ]\\d\\d:\\d\\d:\\d\\d)(?:[.](\\d{3,9}))[Z]");
+	/**
+	 * Length of the binary form: the ticks as a big-endian long.
+	 */
+	public static final int encodedLength = 8;
 
 	private long ticks;
 
 	public T60Instant(byte[] bytes) {
-		this(ByteBuffer.wrap(bytes).getLong());
+		this(decode(bytes));
 	}
 
 	public T60Instant(Posix posix) {
-		this((posix.secondsPosixEpoch() * 10000000L)
+		this((posix.secondsPosixEpoch() * 10000000L) + lilianToPosixTicks
 				+ (posix.getNanos() / 100L));
 	}
 
@@ -50,14 +43,6 @@ public final class T60Instant implements Comparable<T60Instant>, Serializable,
 		return ticks;
 	}
 
-	private final long asSeconds() {
-		return (ticks / 10000000L) - Epoch.LILIAN_TO_POSIX;
-	}
-
-	private static final long unixToT60(long ms) {
-		return (ms * 10000L) + lilianToPosixTicks;
-	}
-
 	private static final long t60ToUnix(long ticks) {
 		return (ticks - lilianToPosixTicks) / 10000L;
 	}
@@ -67,49 +52,37 @@ public final class T60Instant implements Comparable<T60Instant>, Serializable,
 		return new DateTime(unix, zone);
 	}
 
+	/**
+	 * Parses a strict RFC 3339 instant; see RFC3339.parseT60.
+	 * 
+	 * @param text
+	 * @return
+	 * @throws ParseException
+	 */
 	public static final T60Instant parse(CharSequence text)
 			throws ParseException {
-		Matcher m = pattern.matcher(text);
-		if (!m.matches()) {
-			throw new ParseException("\"" + text
-					+ "\" cannot be parsed as a strict RFC-3339 instant.", 0);
-		}
-		String dateTime = m.group(1);
-		String nanoString = m.group(2);
-
-		DateTime dt = DateTime.parse(dateTime, datetimeFormat);
-		long ms = dt.getMillis();
-		long millisTicks = unixToT60(ms);
-		long nanosTicks = (parseNanos(nanoString) / 100L);
-		long ticks = millisTicks + nanosTicks;
-
-		if (ticks > MAX.ticks) { // check within range
-			throw new ParseException("\"" + text
-					+ "\" parses to a timestamp larger than supported "
-					+ "by the T60 maximum range.", 0);
-		}
-		return new T60Instant(ticks);
-	}
-
-	private static long parseNanos(String s) {
-		if (s == null) {
-			return 0L;
-		} else if (s.length() < 9) {
-			return Long.parseLong(s + "000000000".substring(s.length()));
-		} else {
-			return Long.parseLong(s);
-		}
+		return new T60Instant(RFC3339.parseT60(text));
 	}
 
+	/**
+	 * Output string as RFC 3339 in UTC with nanosecond precision. The last two
+	 * digits are always zero, as ticks are 100 ns.
+	 */
 	@Override
 	public final String toString() {
-		long msRoundedToSecond = asSeconds() * 1000L;
-		DateTime whole = new DateTime(msRoundedToSecond, DateTimeZone.UTC);
-		String datetime = whole.toString(datetimeFormat);
-		long wholeTicks = unixToT60(whole.getMillis());
-		long fractionalTicks = (asLong() - wholeTicks);
-		String fractional = String.format(".%07d00Z", fractionalTicks);
-		return datetime + fractional;
+		return toString(9);
+	}
+
+	/**
+	 * Output string as RFC 3339 in UTC with the given number of fractional
+	 * digits, from 0 to 9.
+	 * 
+	 * @param precision
+	 * @return
+	 */
+	public final String toString(int precision) {
+		StringBuilder out = new StringBuilder(RFC3339.maximumLength);
+		return RFC3339.formatT60(ticks, precision, out).toString();
 	}
 
 	private void readObject(ObjectInputStream in) throws IOException {
@@ -120,11 +93,153 @@ public final class T60Instant implements Comparable<T60Instant>, Serializable,
 		out.writeLong(ticks);
 	}
 
+	private static long decode(byte[] bytes) {
+		long ticks = 0;
+		for (int i = 0; i < encodedLength; i++) {
+			ticks = (ticks << 8) | (bytes[i] & 0xFF);
+		}
+		return ticks;
+	}
+
 	public byte[] getBytes() {
-		ByteBuffer buf = ByteBuffer.allocate(8);
-		buf.order(ByteOrder.BIG_ENDIAN);
-		buf.putLong(asLong());
-		return buf.array();
+		byte[] bytes = new byte[encodedLength];
+		long t = ticks;
+		for (int i = encodedLength - 1; i >= 0; i--) {
+			bytes[i] = (byte) t;
+			t >>>= 8;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Write the binary form at the position of a buffer and advance it. The
+	 * form is big-endian whatever the order of the buffer.
+	 * 
+	 * @param buffer
+	 */
+	public void put(ByteBuffer buffer) {
+		int position = buffer.position();
+		Codec.putLong(buffer, position, ticks);
+		buffer.position(position + encodedLength);
+	}
+
+	/**
+	 * Write the binary form at an absolute index of a buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 */
+	public void put(ByteBuffer buffer, int index) {
+		Codec.putLong(buffer, index, ticks);
+	}
+
+	/**
+	 * Read the binary form at the position of a buffer and advance it.
+	 * 
+	 * @param buffer
+	 * @return
+	 */
+	public static T60Instant get(ByteBuffer buffer) {
+		int position = buffer.position();
+		long ticks = Codec.getLong(buffer, position);
+		buffer.position(position + encodedLength);
+		return new T60Instant(ticks);
+	}
+
+	/**
+	 * Read the binary form at an absolute index of a buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @return
+	 */
+	public static T60Instant get(ByteBuffer buffer, int index) {
+		return new T60Instant(Codec.getLong(buffer, index));
+	}
+
+	/**
+	 * Write ticks in the binary form at an absolute index of a buffer,
+	 * without an instance.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @param ticks
+	 */
+	public static void putTicks(ByteBuffer buffer, int index, long ticks) {
+		Codec.putLong(buffer, index, ticks);
+	}
+
+	/**
+	 * Read ticks in the binary form at an absolute index of a buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @return
+	 */
+	public static long getTicks(ByteBuffer buffer, int index) {
+		return Codec.getLong(buffer, index);
+	}
+
+	/**
+	 * Write consecutive ticks in the binary form from an absolute index of a
+	 * buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @param ticks
+	 * @param offset
+	 * @param length
+	 */
+	public static void putTicks(ByteBuffer buffer, int index, long[] ticks,
+			int offset, int length) {
+		Codec.putLongs(buffer, index, ticks, offset, length);
+	}
+
+	/**
+	 * Write consecutive ticks in the binary form at the position of a buffer
+	 * and advance it.
+	 * 
+	 * @param buffer
+	 * @param ticks
+	 * @param offset
+	 * @param length
+	 */
+	public static void putTicks(ByteBuffer buffer, long[] ticks, int offset,
+			int length) {
+		int position = buffer.position();
+		Codec.putLongs(buffer, position, ticks, offset, length);
+		buffer.position(position + (length * encodedLength));
+	}
+
+	/**
+	 * Read consecutive ticks in the binary form from an absolute index of a
+	 * buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @param ticks
+	 * @param offset
+	 * @param length
+	 */
+	public static void getTicks(ByteBuffer buffer, int index, long[] ticks,
+			int offset, int length) {
+		Codec.getLongs(buffer, index, ticks, offset, length);
+	}
+
+	/**
+	 * Read consecutive ticks in the binary form at the position of a buffer
+	 * and advance it.
+	 * 
+	 * @param buffer
+	 * @param ticks
+	 * @param offset
+	 * @param length
+	 */
+	public static void getTicks(ByteBuffer buffer, long[] ticks, int offset,
+			int length) {
+		int position = buffer.position();
+		Codec.getLongs(buffer, position, ticks, offset, length);
+		buffer.position(position + (length * encodedLength));
 	}
 
 	public static T60Instant convert(byte[] bytes) {
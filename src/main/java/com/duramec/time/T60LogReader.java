@@ -0,0 +1,222 @@
+package com.duramec.time;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A reader of a T60 log written by T60LogWriter. Records are addressed by
+ * their index across the whole log and read in place from the mapped
+ * segments, without objects.
+ *
+ * The reader sees the segments present when it was opened or last refreshed,
+ * and every record committed to them, including those committed to the last
+ * segment since then. A reader must only be used from one thread at a time;
+ * open one per thread to read in parallel.
+ */
+public final class T60LogReader implements Closeable {
+
+	private final Path directory;
+
+	private final ArrayList<T60LogSegment> segments = new ArrayList<T60LogSegment>();
+
+	/**
+	 * Index of the first record of each segment. Every segment but the last
+	 * is finished by the time the one after it is created, either because it
+	 * is full or because a record fell in a later GPS week, so these never
+	 * change.
+	 */
+	private long[] starts = new long[0];
+
+	/**
+	 * Open a log for reading.
+	 *
+	 * @param directory
+	 * @throws IOException
+	 */
+	public T60LogReader(Path directory) throws IOException {
+		this.directory = directory;
+		refresh();
+	}
+
+	/**
+	 * Segment files in a log directory, sorted by time.
+	 */
+	static List<Path> list(Path directory) throws IOException {
+		ArrayList<Path> files = new ArrayList<Path>();
+		DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*"
+				+ T60LogWriter.suffix);
+		try {
+			for (Path file : stream) {
+				files.add(file);
+			}
+		} finally {
+			stream.close();
+		}
+		Collections.sort(files);
+		return files;
+	}
+
+	/**
+	 * Pick up segments added by the writer since the reader was opened or
+	 * last refreshed.
+	 *
+	 * @throws IOException
+	 */
+	public void refresh() throws IOException {
+		List<Path> files = list(directory);
+		for (int i = segments.size(); i < files.size(); i++) {
+			segments.add(T60LogSegment.open(files.get(i), false));
+		}
+		long[] s = new long[segments.size()];
+		long start = 0;
+		for (int i = 0; i < s.length; i++) {
+			s[i] = start;
+			start += segments.get(i).size();
+		}
+		starts = s;
+	}
+
+	public int getSegmentCount() {
+		return segments.size();
+	}
+
+	public T60LogSegment getSegment(int index) {
+		return segments.get(index);
+	}
+
+	/**
+	 * Number of committed records in the log.
+	 *
+	 * @return
+	 */
+	public long size() {
+		int last = segments.size() - 1;
+		if (last < 0) {
+			return 0;
+		}
+		return starts[last] + segments.get(last).size();
+	}
+
+	/**
+	 * Segment holding the record at an index.
+	 */
+	private int segmentOf(long index) {
+		int i = Arrays.binarySearch(starts, index);
+		if (i < 0) {
+			return -i - 2;
+		}
+		/**
+		 * Empty segments share their start with the segment after them, so
+		 * take the last segment starting at the index.
+		 */
+		while (i + 1 < starts.length && starts[i + 1] == index) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Tick of the record at an index.
+	 *
+	 * @param index
+	 * @return
+	 */
+	public long getTick(long index) {
+		int s = segmentOf(index);
+		return segments.get(s).getTick((int) (index - starts[s]));
+	}
+
+	/**
+	 * Copy the payload of the record at an index into an array.
+	 *
+	 * @param index
+	 * @param payload
+	 * @param offset
+	 */
+	public void getPayload(long index, byte[] payload, int offset) {
+		int s = segmentOf(index);
+		segments.get(s).getPayload((int) (index - starts[s]), payload, offset);
+	}
+
+	/**
+	 * Read the ticks of consecutive records into an array, stopping at the end
+	 * of the log. Returns the number of ticks read.
+	 *
+	 * @param index
+	 * @param ticks
+	 * @param offset
+	 * @param length
+	 * @return
+	 */
+	public int getTicks(long index, long[] ticks, int offset, int length) {
+		int read = 0;
+		long end = Math.min(index + length, size());
+		while (index < end) {
+			int s = segmentOf(index);
+			T60LogSegment segment = segments.get(s);
+			int from = (int) (index - starts[s]);
+			int to = (int) Math.min(segment.size(), from + (end - index));
+			for (int i = from; i < to; i++) {
+				ticks[offset + read++] = segment.getTick(i);
+			}
+			index += to - from;
+		}
+		return read;
+	}
+
+	/**
+	 * Index of the first record with a tick at or after the given one, or
+	 * size() if there is none. The records of a time range [from, to) are
+	 * those from search(from) up to, but not including, search(to).
+	 *
+	 * Segments are narrowed down by the GPS week in their header before the
+	 * records of a segment are searched, so only one segment is searched in
+	 * all but the rare case of a week spread over several segments.
+	 *
+	 * @param tick
+	 * @return
+	 */
+	public long search(long tick) {
+		int n = segments.size();
+		int week = GPSCalendar.weekOf(tick);
+		/**
+		 * First segment of the week of the tick, or of the first week after
+		 * it.
+		 */
+		int low = 0;
+		int high = n;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (segments.get(mid).getWeek() < week) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		for (int s = low; s < n; s++) {
+			T60LogSegment segment = segments.get(s);
+			int count = segment.size();
+			if (count > 0 && segment.getTick(count - 1) >= tick) {
+				return starts[s] + segment.search(tick, count);
+			}
+		}
+		return size();
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (T60LogSegment segment : segments) {
+			segment.close();
+		}
+		segments.clear();
+		starts = new long[0];
+	}
+
+}
@@ -0,0 +1,333 @@
+package com.duramec.time;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped file of a T60 log: a fixed header followed by a fixed
+ * number of fixed-width records, each holding the 8-byte big-endian form of a
+ * T60 tick (as T60Instant.getBytes()), a payload of a length chosen when the
+ * log was created and a 4-byte checksum of the two.
+ *
+ * Header layout, big-endian:
+ *
+ * ⇒ 0: magic number "T60L"
+ *
+ * ⇒ 4: format version
+ *
+ * ⇒ 8: payload length in bytes
+ *
+ * ⇒ 12: capacity in records
+ *
+ * ⇒ 16: GPS week of the records
+ *
+ * ⇒ 20: sequence number of the segment within the week
+ *
+ * A record is committed by its checksum, which the single writer stores after
+ * the tick and payload. The committed records are those before the first
+ * record whose checksum does not match: a reader checks each record once, the
+ * first time it reaches it, and never looks past that point, so it needs no
+ * count from the writer and no locking. A record still being written, or left
+ * half written by a crash, fails the check, as does an unwritten record, since
+ * a new segment is created zero-filled and a checksum is never zero. A torn
+ * record passes only by the chance of its 31-bit checksum matching.
+ *
+ * When a writer opens a segment again after a crash, it clears the checksum of
+ * every record after the committed ones, so that a record which happened to
+ * reach the file beyond a torn one cannot reappear once the torn one is
+ * written over.
+ *
+ * Records are read in place from the mapping, and ticks are non-decreasing,
+ * so a segment can be searched by time without decoding it.
+ */
+public final class T60LogSegment implements Closeable {
+
+	static final int magic = 0x5436304C;
+
+	static final int version = 2;
+
+	static final int headerLength = 64;
+
+	private static final int checksumLength = 4;
+
+	private final Path file;
+
+	private final FileChannel channel;
+
+	private final MappedByteBuffer buffer;
+
+	private final int payloadLength;
+
+	private final int recordLength;
+
+	private final int capacity;
+
+	private final int week;
+
+	private final int sequence;
+
+	/**
+	 * Number of records already found to be committed, from which size()
+	 * carries on checking.
+	 */
+	private int committed;
+
+	private T60LogSegment(Path file, FileChannel channel,
+			MappedByteBuffer buffer) throws IOException {
+		this.file = file;
+		this.channel = channel;
+		this.buffer = buffer;
+		buffer.order(ByteOrder.BIG_ENDIAN);
+		if (buffer.capacity() < headerLength || buffer.getInt(0) != magic) {
+			throw new IOException(file + " is not a T60 log segment");
+		}
+		if (buffer.getInt(4) != version) {
+			throw new IOException(file + " has unsupported version "
+					+ buffer.getInt(4));
+		}
+		this.payloadLength = buffer.getInt(8);
+		this.recordLength = 8 + payloadLength + checksumLength;
+		this.capacity = buffer.getInt(12);
+		this.week = buffer.getInt(16);
+		this.sequence = buffer.getInt(20);
+		if ((long) headerLength + ((long) capacity * recordLength) > buffer
+				.capacity()) {
+			throw new IOException(file + " is truncated");
+		}
+	}
+
+	/**
+	 * Create a new, empty segment file, sized for its full capacity.
+	 *
+	 * @param file
+	 * @param payloadLength
+	 * @param capacity
+	 * @param week
+	 * @param sequence
+	 * @return
+	 * @throws IOException
+	 */
+	static T60LogSegment create(Path file, int payloadLength, int capacity,
+			int week, int sequence) throws IOException {
+		long length = headerLength
+				+ ((long) capacity * (8 + payloadLength + checksumLength));
+		if (payloadLength < 0 || capacity <= 0
+				|| length > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Segment of " + capacity
+					+ " records with " + payloadLength
+					+ " byte payloads cannot be mapped");
+		}
+		FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE,
+				0, length);
+		buffer.putInt(4, version);
+		buffer.putInt(8, payloadLength);
+		buffer.putInt(12, capacity);
+		buffer.putInt(16, week);
+		buffer.putInt(20, sequence);
+		buffer.putInt(0, magic);
+		return new T60LogSegment(file, channel, buffer);
+	}
+
+	/**
+	 * Open an existing segment file, for reading only or for appending. A
+	 * segment opened for appending has every record after the committed ones
+	 * cleared.
+	 *
+	 * @param file
+	 * @param writable
+	 * @return
+	 * @throws IOException
+	 */
+	static T60LogSegment open(Path file, boolean writable) throws IOException {
+		FileChannel channel = writable ? FileChannel.open(file,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)
+				: FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			MappedByteBuffer buffer = channel.map(
+					writable ? FileChannel.MapMode.READ_WRITE
+							: FileChannel.MapMode.READ_ONLY, 0, channel
+							.size());
+			T60LogSegment segment = new T60LogSegment(file, channel, buffer);
+			if (writable) {
+				segment.recover();
+			}
+			return segment;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public int getPayloadLength() {
+		return payloadLength;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getWeek() {
+		return week;
+	}
+
+	public int getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Number of committed records.
+	 *
+	 * @return
+	 */
+	public int size() {
+		int count = committed;
+		while (count < capacity && isCommitted(count)) {
+			count++;
+		}
+		committed = count;
+		return count;
+	}
+
+	/**
+	 * Checksum of the tick and payload of a record: FNV-1a over their bytes,
+	 * with the low bit set so that it is never zero.
+	 */
+	private int checksum(int position) {
+		int hash = 0x811C9DC5;
+		for (int i = position; i < position + 8 + payloadLength; i++) {
+			hash = (hash ^ (buffer.get(i) & 0xFF)) * 0x01000193;
+		}
+		return hash | 1;
+	}
+
+	private boolean isCommitted(int index) {
+		int p = position(index);
+		int stored = buffer.getInt(p + 8 + payloadLength);
+		return stored != 0 && stored == checksum(p);
+	}
+
+	/**
+	 * Clear the checksums of all records after the committed ones.
+	 */
+	private void recover() {
+		for (int i = size(); i < capacity; i++) {
+			int p = position(i) + 8 + payloadLength;
+			if (buffer.getInt(p) != 0) {
+				buffer.putInt(p, 0);
+			}
+		}
+	}
+
+	/**
+	 * Position of a record within the mapping returned by getBuffer().
+	 *
+	 * @param index
+	 * @return
+	 */
+	public int position(int index) {
+		return headerLength + (index * recordLength);
+	}
+
+	/**
+	 * The mapping itself, for reading payloads in place. It must not be
+	 * written to, and its position and limit must be left alone when a reader
+	 * shares the segment with others.
+	 *
+	 * @return
+	 */
+	public MappedByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Tick of a committed record.
+	 *
+	 * @param index
+	 * @return
+	 */
+	public long getTick(int index) {
+		return buffer.getLong(position(index));
+	}
+
+	/**
+	 * Copy the payload of a committed record into an array.
+	 *
+	 * @param index
+	 * @param payload
+	 * @param offset
+	 */
+	public void getPayload(int index, byte[] payload, int offset) {
+		int p = position(index) + 8;
+		for (int i = 0; i < payloadLength; i++) {
+			payload[offset + i] = buffer.get(p + i);
+		}
+	}
+
+	/**
+	 * Index of the first of the first count records with a tick at or after
+	 * the given one, or count if there is none.
+	 *
+	 * @param tick
+	 * @param count
+	 * @return
+	 */
+	public int search(long tick, int count) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (getTick(mid) < tick) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Write a record after the committed ones and commit it by storing its
+	 * checksum last. Only the writer may call this, and only while size() is
+	 * below the capacity.
+	 */
+	void append(long tick, byte[] payload, int offset) {
+		int count = size();
+		assert (count < capacity);
+		int p = position(count);
+		buffer.putLong(p, tick);
+		for (int i = 0; i < payloadLength; i++) {
+			buffer.put(p + 8 + i, (payload == null) ? 0 : payload[offset + i]);
+		}
+		buffer.putInt(p + 8 + payloadLength, checksum(p));
+		committed = count + 1;
+	}
+
+	/**
+	 * Force the records out to the storage device.
+	 */
+	public void force() {
+		buffer.force();
+	}
+
+	/**
+	 * Close the file. The mapping stays valid until it is garbage collected,
+	 * as Java provides no way to unmap it earlier.
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.duramec.time;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The single writer of a T60 log: a directory of T60LogSegment files, one or
+ * more for each GPS week, in which records are appended in order of time.
+ *
+ * A new segment is started whenever a record falls in a later GPS week than
+ * the one before it, or the current segment is full. Segment files are named
+ * after their week and sequence number within the week, zero padded, so that
+ * sorting the names sorts the segments by time.
+ *
+ * Only one writer may be open on a directory at a time, and it must only be
+ * used from one thread at a time; any number of T60LogReader instances may
+ * read the log while it is being written. Opening a log left by a crashed
+ * writer resumes after its last complete record.
+ */
+public final class T60LogWriter implements Closeable {
+
+	static final String suffix = ".t60";
+
+	private final Path directory;
+
+	private final int payloadLength;
+
+	private final int recordsPerSegment;
+
+	private T60LogSegment current;
+
+	private long lastTick = Long.MIN_VALUE;
+
+	/**
+	 * Open a log for appending, creating the directory if needed. An existing
+	 * log must have been created with the same payload length, and appending
+	 * resumes after its last record.
+	 *
+	 * @param directory
+	 * @param payloadLength
+	 * @param recordsPerSegment
+	 * @throws IOException
+	 */
+	public T60LogWriter(Path directory, int payloadLength,
+			int recordsPerSegment) throws IOException {
+		this.directory = directory;
+		this.payloadLength = payloadLength;
+		this.recordsPerSegment = recordsPerSegment;
+		Files.createDirectories(directory);
+		List<Path> files = T60LogReader.list(directory);
+		if (!files.isEmpty()) {
+			current = T60LogSegment.open(files.get(files.size() - 1), true);
+			if (current.getPayloadLength() != payloadLength) {
+				current.close();
+				throw new IOException(directory + " holds payloads of "
+						+ current.getPayloadLength() + " bytes, not "
+						+ payloadLength);
+			}
+			int size = current.size();
+			if (size > 0) {
+				lastTick = current.getTick(size - 1);
+			}
+		}
+	}
+
+	static String name(int week, int sequence) {
+		return String.format("%06d-%04d%s", week, sequence, suffix);
+	}
+
+	public int getPayloadLength() {
+		return payloadLength;
+	}
+
+	/**
+	 * Append a record without a payload, or with a zero-filled one if the log
+	 * has a payload length.
+	 *
+	 * @param tick
+	 * @throws IOException
+	 */
+	public void append(long tick) throws IOException {
+		append(tick, null, 0);
+	}
+
+	/**
+	 * Append a record, taking its payload from an array.
+	 *
+	 * @param instant
+	 * @param payload
+	 * @param offset
+	 * @throws IOException
+	 */
+	public void append(T60Instant instant, byte[] payload, int offset)
+			throws IOException {
+		append(instant.asLong(), payload, offset);
+	}
+
+	/**
+	 * Append a record, taking its payload from an array. Ticks must not
+	 * decrease from one record to the next.
+	 *
+	 * @param tick
+	 * @param payload
+	 * @param offset
+	 * @throws IOException
+	 */
+	public void append(long tick, byte[] payload, int offset)
+			throws IOException {
+		if (tick < lastTick) {
+			throw new IllegalArgumentException("Tick " + tick
+					+ " is before the last record at " + lastTick);
+		}
+		int week = GPSCalendar.weekOf(tick);
+		if (current == null || week != current.getWeek()) {
+			roll(week, 0);
+		} else if (current.size() == current.getCapacity()) {
+			roll(week, current.getSequence() + 1);
+		}
+		current.append(tick, payload, offset);
+		lastTick = tick;
+	}
+
+	/**
+	 * Start a new segment, forcing the current one first so that no segment
+	 * exists after one whose records might still be lost.
+	 */
+	private void roll(int week, int sequence) throws IOException {
+		if (current != null) {
+			current.force();
+			current.close();
+			current = null;
+		}
+		current = T60LogSegment.create(
+				directory.resolve(name(week, sequence)), payloadLength,
+				recordsPerSegment, week, sequence);
+	}
+
+	/**
+	 * Force the records of the current segment out to the storage device.
+	 * Earlier segments are forced when they are rolled over.
+	 */
+	public void force() {
+		if (current != null) {
+			current.force();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (current != null) {
+			current.force();
+			current.close();
+			current = null;
+		}
+	}
+
+}
@@ -1 +1,159 @@
-// don't worry about implementing this yet.
\ No newline at end of file
+package com.duramec.time;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A clock of T72 stamps: 60-bit T60 ticks taken from a T60Clock, paired with a
+ * 12-bit clock sequence which tells apart stamps handed out in the same tick.
+ *
+ * The clock sequence is the stripe of the caller in the high 8 bits and a
+ * counter in the low 4 bits. Each stripe keeps its own last tick and counter,
+ * advanced with a compare-and-set, so threads on different stripes never
+ * touch the same state and stamps are unique across stripes by construction.
+ * Within a stripe stamps are strictly increasing: up to 16 stamps share a
+ * tick, after which the stripe moves on to the next tick ahead of the clock.
+ *
+ * Stamps are returned as primitives, a tick and a clock sequence, or written
+ * in the 9-byte encoding of T72Instant.
+ */
+public final class T72Clock {
+
+	/**
+	 * Distance between the states of two stripes in the backing array; see
+	 * StripedTickGen.
+	 */
+	private static final int padding = 16;
+
+	private static final int counterBits = 4;
+
+	private static final long counterMask = (1 << counterBits) - 1;
+
+	/**
+	 * Largest number of stripes, given by the 8 bits of the clock sequence
+	 * left for the stripe.
+	 */
+	public static final int maximumStripes = 1 << (12 - counterBits);
+
+	private final T60Clock clock = new T60Clock();
+
+	private final int mask;
+
+	/**
+	 * Per stripe, the tick of the last stamp shifted left by 4, with its
+	 * counter in the low 4 bits. Ticks are 60 bits, so the shifted tick still
+	 * fits and is read back with an unsigned shift.
+	 */
+	private final AtomicLongArray states;
+
+	/**
+	 * Create a clock with the largest number of stripes.
+	 */
+	public T72Clock() {
+		this(maximumStripes);
+	}
+
+	/**
+	 * Create a clock with at least the given number of stripes, rounded up to
+	 * a power of two of at most maximumStripes.
+	 *
+	 * @param stripes
+	 */
+	public T72Clock(int stripes) {
+		assert (stripes > 0 && stripes <= maximumStripes);
+		int n = Integer.highestOneBit(stripes);
+		if (n < stripes) {
+			n <<= 1;
+		}
+		this.mask = n - 1;
+		this.states = new AtomicLongArray(n * padding);
+	}
+
+	public int getStripes() {
+		return mask + 1;
+	}
+
+	/**
+	 * Stripe used by the calling thread; see StripedTickGen.stripe().
+	 *
+	 * @return
+	 */
+	public int stripe() {
+		long id = Thread.currentThread().getId();
+		int h = (int) (id ^ (id >>> 32));
+		h *= 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Advance a stripe given the current clock reading in ticks, and return
+	 * its new state.
+	 */
+	long advance(int stripe, long clockTick) {
+		int slot = (stripe & mask) * padding;
+		while (true) {
+			long state = states.get(slot);
+			long next;
+			if (clockTick > (state >>> counterBits)) {
+				next = clockTick << counterBits;
+			} else {
+				/**
+				 * Same tick or behind it: the next counter value, carrying
+				 * into the tick once the counter is used up.
+				 */
+				next = state + 1;
+			}
+			if (states.compareAndSet(slot, state, next)) {
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * Clock sequence of a stripe in a given state.
+	 */
+	static int clockSeq(int stripe, long state) {
+		return (stripe << counterBits) | (int) (state & counterMask);
+	}
+
+	/**
+	 * Take the next stamp on the stripe of the calling thread and write its
+	 * tick to out[outOffset] and its clock sequence to out[outOffset + 1].
+	 *
+	 * @param out
+	 * @param outOffset
+	 */
+	public void next(long[] out, int outOffset) {
+		int stripe = stripe();
+		long state = advance(stripe, clock.tick());
+		out[outOffset] = state >>> counterBits;
+		out[outOffset + 1] = clockSeq(stripe, state);
+	}
+
+	/**
+	 * Take the next stamp on the stripe of the calling thread and write it in
+	 * the 9-byte encoding at an absolute index of a buffer.
+	 *
+	 * @param buffer
+	 * @param index
+	 */
+	public void next(ByteBuffer buffer, int index) {
+		int stripe = stripe();
+		long state = advance(stripe, clock.tick());
+		T72Instant.put(buffer, index, state >>> counterBits,
+				clockSeq(stripe, state));
+	}
+
+	/**
+	 * Take the next stamp on the stripe of the calling thread.
+	 *
+	 * @return
+	 */
+	public T72Instant next() {
+		int stripe = stripe();
+		long state = advance(stripe, clock.tick());
+		return new T72Instant(new T60Instant(state >>> counterBits),
+				clockSeq(stripe, state));
+	}
+
+}
@@ -1,7 +1,17 @@
 package com.duramec.time;
 
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
 public class T72Instant {
 
+	/**
+	 * Length of the binary encoding: the 60-bit tick followed by the 12-bit
+	 * clock sequence, big-endian, so that encodings sort bytewise in time
+	 * order.
+	 */
+	public static final int encodedLength = 9;
+
 	final private T60Instant t60;
 
 	final private long clockSeq;
@@ -11,15 +21,128 @@ public class T72Instant {
 		this.clockSeq = clockSeq;
 	}
 
+	/**
+	 * Decode an instant from its 9-byte encoding.
+	 *
+	 * @param bytes
+	 */
+	public T72Instant(byte[] bytes) {
+		this(ByteBuffer.wrap(bytes), 0);
+	}
+
+	/**
+	 * Decode an instant from its 9-byte encoding at an absolute index of a
+	 * buffer.
+	 *
+	 * @param buffer
+	 * @param index
+	 */
+	public T72Instant(ByteBuffer buffer, int index) {
+		this(new T60Instant(getTick(buffer, index)), getClockSeq(buffer,
+				index));
+	}
+
+	/**
+	 * Write a tick and the low 12 bits of a clock sequence in the 9-byte
+	 * encoding at an absolute index of a buffer, whatever its byte order.
+	 *
+	 * @param buffer
+	 * @param index
+	 * @param tick
+	 * @param clockSeq
+	 */
+	public static void put(ByteBuffer buffer, int index, long tick,
+			long clockSeq) {
+		Codec.putLong(buffer, index, (tick << 4) | ((clockSeq >>> 8) & 0xF));
+		buffer.put(index + 8, (byte) clockSeq);
+	}
+
+	/**
+	 * Read the tick from a 9-byte encoding at an absolute index of a buffer.
+	 *
+	 * @param buffer
+	 * @param index
+	 * @return
+	 */
+	public static long getTick(ByteBuffer buffer, int index) {
+		return Codec.getLong(buffer, index) >>> 4;
+	}
+
+	/**
+	 * Read the clock sequence from a 9-byte encoding at an absolute index of
+	 * a buffer.
+	 *
+	 * @param buffer
+	 * @param index
+	 * @return
+	 */
+	public static int getClockSeq(ByteBuffer buffer, int index) {
+		int high = buffer.get(index + 7) & 0xF;
+		return (high << 8) | (buffer.get(index + 8) & 0xFF);
+	}
+
+	/**
+	 * Write this instant in the 9-byte encoding at an absolute index of a
+	 * buffer.
+	 *
+	 * @param buffer
+	 * @param index
+	 */
+	public void put(ByteBuffer buffer, int index) {
+		put(buffer, index, t60.asLong(), clockSeq);
+	}
+
+	/**
+	 * The 9-byte encoding of this instant.
+	 *
+	 * @return
+	 */
+	public byte[] getBytes() {
+		byte[] bytes = new byte[encodedLength];
+		put(ByteBuffer.wrap(bytes), 0);
+		return bytes;
+	}
+
 	/*
 	 * public static T72Instant parse(String string) {
 	 * 
 	 * }
 	 */
 
+	/**
+	 * Build a version 1 UUID from the ticks and the low 14 bits of the clock
+	 * sequence, with the given 48-bit node id.
+	 *
+	 * @param node
+	 * @return
+	 */
+	public UUID toUUID(long node) {
+		return new UUID(UUIDGen.mostSignificantBits(t60.asLong()),
+				UUIDGen.leastSignificantBits(clockSeq, node));
+	}
+
+	/**
+	 * Take the ticks and clock sequence from a version 1 UUID.
+	 *
+	 * @param uuid
+	 * @return
+	 */
+	public static T72Instant fromUUID(UUID uuid) {
+		if (uuid.version() != 1) {
+			throw new IllegalArgumentException("UUID " + uuid
+					+ " is not time-based");
+		}
+		long tick = UUIDGen.tick(uuid.getMostSignificantBits());
+		return new T72Instant(new T60Instant(tick), uuid.clockSequence());
+	}
+
+	/**
+	 * The T60 instant in RFC 3339 followed by a slash and the clock sequence
+	 * in decimal.
+	 */
 	@Override
 	public String toString() {
-		return "";
+		return t60.toString() + "/" + clockSeq;
 	}
 
 	public T60Instant getT60() {
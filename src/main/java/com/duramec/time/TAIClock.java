@@ -0,0 +1,215 @@
+package com.duramec.time;
+
+/**
+ * A clock reading TAI and GPS time as primitives.
+ *
+ * Like T60Clock, the POSIX time is taken from the system clock once and then
+ * advanced by System.nanoTime(). Along with that anchor the clock keeps the
+ * interval between leap seconds it falls in and the TAI-UTC offset of that
+ * interval, all in one immutable object published through a volatile
+ * reference. Reading the time is thus a range check and an add. The system
+ * clock is never read again, so neither its millisecond resolution nor a step
+ * of it can make TAI go backwards; when a new leap second table is loaded,
+ * only the interval and offset are looked up again, on the same anchor.
+ *
+ * When the time leaves the interval at a leap second, the clock is not
+ * anchored again: during an inserted second the system clock repeats the
+ * second before it, and cannot be told apart from it. Instead the interval
+ * after the leap second is counted on from the same anchor, with the POSIX
+ * time held back by the inserted second and the offset raised by it, so that
+ * TAI carries on without a jump through second 60. A system clock which
+ * repeats or smears the leap second is therefore not followed at all.
+ */
+public final class TAIClock {
+
+	private static final long nanosInSecond = 1000000000L;
+
+	private static final long secondsInGpsWeek = 7 * 86400L;
+
+	private static final long taiEpochPosix = Epoch.TAI.secondsPosixEpoch();
+
+	/**
+	 * Seconds from the TAI epoch to the GPS epoch, counted in TAI.
+	 */
+	private static final long taiToGPS = Epoch.GPS.secondsPosixEpoch()
+			- taiEpochPosix + 19;
+
+	private static final class State {
+
+		final long startNanos;
+
+		/**
+		 * Nanoseconds since the POSIX epoch at startNanos.
+		 */
+		final long startPosixNanos;
+
+		final LeapSnapshot leaps;
+
+		/**
+		 * POSIX second up to which, but not including, the offset holds.
+		 */
+		final long validUntil;
+
+		/**
+		 * POSIX second at which the next leap second takes effect, or
+		 * MAX_VALUE after the last one.
+		 */
+		final long nextLeap;
+
+		final int offset;
+
+		/**
+		 * Added to POSIX seconds to give seconds since the TAI epoch.
+		 */
+		final long toTAI;
+
+		/**
+		 * Anchor to a reading of the system clock, in milliseconds, taken at a
+		 * nanoTime.
+		 */
+		State(LeapSnapshot leaps, long nanos, long millis) {
+			this(leaps, nanos, millis * 1000000L, millis / 1000L);
+		}
+
+		/**
+		 * The interval holding a number of POSIX seconds. A removed second
+		 * does not exist in POSIX time, so the interval before one ends a
+		 * second early.
+		 */
+		private State(LeapSnapshot leaps, long startNanos,
+				long startPosixNanos, long seconds) {
+			this.startNanos = startNanos;
+			this.startPosixNanos = startPosixNanos;
+			this.leaps = leaps;
+			this.offset = leaps.offset(seconds);
+			this.nextLeap = leaps.intervalEnd(seconds);
+			this.validUntil = (nextLeap == Long.MAX_VALUE) ? nextLeap
+					: nextLeap + Math.min(leaps.offset(nextLeap) - offset, 0);
+			this.toTAI = offset - taiEpochPosix;
+		}
+
+		/**
+		 * The interval after the next leap second, counted on from the same
+		 * anchor. POSIX time is held back by an inserted second, so the
+		 * interval starts with second 60 shown as the second before it.
+		 */
+		State next() {
+			int leap = leaps.offset(nextLeap) - offset;
+			return new State(leaps, startNanos, startPosixNanos
+					- (leap * nanosInSecond), nextLeap);
+		}
+	}
+
+	private volatile State state;
+
+	/**
+	 * Create a clock anchored to the system clock now.
+	 */
+	public TAIClock() {
+		this.state = anchor();
+	}
+
+	/**
+	 * Create a clock anchored to a reading of the system clock, in
+	 * milliseconds, taken at a nanoTime.
+	 */
+	TAIClock(long nanos, long millis) {
+		this.state = new State(LeapTable.snapshot(), nanos, millis);
+	}
+
+	private static State anchor() {
+		LeapSnapshot leaps = LeapTable.snapshot();
+		long nanos = System.nanoTime();
+		return new State(leaps, nanos, System.currentTimeMillis());
+	}
+
+	/**
+	 * The state for a nanoTime past the end of the interval of the current
+	 * one, or for a newly loaded table, counted on from the same anchor. A new
+	 * table is not taken up during an inserted second, whose offset it would
+	 * not know, but just after it.
+	 */
+	private State update(State s, long nanos) {
+		while (true) {
+			long seconds = (s.startPosixNanos + (nanos - s.startNanos))
+					/ nanosInSecond;
+			LeapSnapshot leaps = LeapTable.snapshot();
+			if (seconds >= s.validUntil) {
+				s = s.next();
+			} else if (leaps != s.leaps
+					&& s.offset == s.leaps.offset(seconds)) {
+				s = new State(leaps, s.startNanos, s.startPosixNanos, seconds);
+			} else {
+				state = s;
+				return s;
+			}
+		}
+	}
+
+	/**
+	 * Write the current number of seconds since the TAI epoch and the nanos of
+	 * the second into two consecutive elements of an array.
+	 *
+	 * @param out
+	 * @param outOffset
+	 */
+	public void now(long[] out, int outOffset) {
+		at(System.nanoTime(), out, outOffset);
+	}
+
+	/**
+	 * Write the seconds since the TAI epoch and the nanos of the second at a
+	 * nanoTime into two consecutive elements of an array.
+	 */
+	void at(long nanos, long[] out, int outOffset) {
+		State s = state;
+		long posix = s.startPosixNanos + (nanos - s.startNanos);
+		long seconds = posix / nanosInSecond;
+		if (seconds >= s.validUntil || s.leaps != LeapTable.snapshot()) {
+			s = update(s, nanos);
+			posix = s.startPosixNanos + (nanos - s.startNanos);
+			seconds = posix / nanosInSecond;
+		}
+		out[outOffset] = seconds + s.toTAI;
+		out[outOffset + 1] = posix - (seconds * nanosInSecond);
+	}
+
+	/**
+	 * Write the current number of seconds since the GPS epoch and the nanos of
+	 * the second into two consecutive elements of an array.
+	 *
+	 * @param out
+	 * @param outOffset
+	 */
+	public void nowGPS(long[] out, int outOffset) {
+		now(out, outOffset);
+		out[outOffset] -= taiToGPS;
+	}
+
+	/**
+	 * Write the current absolute GPS week, the seconds of the week and the
+	 * nanos of the second into three consecutive elements of an array.
+	 *
+	 * @param out
+	 * @param outOffset
+	 */
+	public void nowGPSWeek(long[] out, int outOffset) {
+		now(out, outOffset + 1);
+		long seconds = out[outOffset + 1] - taiToGPS;
+		long week = GPSCalendar.weekOfGPS(seconds);
+		out[outOffset] = week;
+		out[outOffset + 1] = seconds - (week * secondsInGpsWeek);
+	}
+
+	/**
+	 * The current time as a TAIInstant.
+	 *
+	 * @return
+	 */
+	public TAIInstant instant() {
+		long[] out = new long[2];
+		now(out, 0);
+		return new TAIInstant(out[0], out[1]);
+	}
+
+}
@@ -1,24 +1,18 @@
 package com.duramec.time;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public final class TAIInstant implements Comparable<TAIInstant>, Serializable {
 
 	private static final long serialVersionUID = 8092683329218735777L;
 
 	/**
-	 * Regular expression pattern describing .toString and parsing format of
-	 * this class. Format is:
-	 * 
-	 * (seconds-from-epoch).(fractional)TAI
-	 * 
-	 * where parentheses are not included.
+	 * Length of the binary form: seconds as a big-endian long followed by
+	 * nanos as a big-endian int.
 	 */
-	private static Pattern pattern = Pattern
-			.compile("(\\d{1,12})\\.(\\d{3,15})TAI");
+	public static final int encodedLength = Codec.secondsNanosLength;
 
 	/**
 	 * Seconds since beginning of TAI epoch.
@@ -121,7 +115,7 @@ public final class TAIInstant implements Comparable<TAIInstant>, Serializable {
 	 */
 	@Override
 	public String toString() {
-		return Long.toString(seconds) + "." + Long.toString(nanos) + "TAI";
+		return EpochSeconds.toString(seconds, nanos, EpochSeconds.Scale.TAI);
 	}
 
 	/**
@@ -136,14 +130,102 @@ public final class TAIInstant implements Comparable<TAIInstant>, Serializable {
 	 * @throws ParseException
 	 */
 	public static TAIInstant parse(String string) throws ParseException {
-		Matcher m = pattern.matcher(string);
-		if (!m.matches()) {
-			throw new ParseException("Invalid format for TAInstant given; \""
-					+ string + "\"", 0);
-		}
-		long seconds = Long.parseLong(m.group(1));
-		long nanos = Long.parseLong(m.group(2));
-		return new TAIInstant(seconds, nanos);
+		long[] out = new long[2];
+		EpochSeconds.parseTAI(string, out, 0);
+		return new TAIInstant(out[0], out[1]);
+	}
+
+	/**
+	 * Write the binary form at the position of a buffer and advance it. The
+	 * form is big-endian whatever the order of the buffer.
+	 * 
+	 * @param buffer
+	 */
+	public void put(ByteBuffer buffer) {
+		int position = buffer.position();
+		Codec.putSecondsNanos(buffer, position, seconds, nanos);
+		buffer.position(position + encodedLength);
+	}
+
+	/**
+	 * Write the binary form at an absolute index of a buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 */
+	public void put(ByteBuffer buffer, int index) {
+		Codec.putSecondsNanos(buffer, index, seconds, nanos);
+	}
+
+	/**
+	 * Read the binary form at the position of a buffer and advance it.
+	 * 
+	 * @param buffer
+	 * @return
+	 */
+	public static TAIInstant get(ByteBuffer buffer) {
+		int position = buffer.position();
+		TAIInstant instant = get(buffer, position);
+		buffer.position(position + encodedLength);
+		return instant;
+	}
+
+	/**
+	 * Read the binary form at an absolute index of a buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @return
+	 */
+	public static TAIInstant get(ByteBuffer buffer, int index) {
+		return new TAIInstant(Codec.getSeconds(buffer, index), Codec.getNanos(
+				buffer, index));
+	}
+
+	/**
+	 * Write seconds and nanos in the binary form at an absolute index of a
+	 * buffer, without an instance.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @param seconds
+	 * @param nanos
+	 */
+	public static void put(ByteBuffer buffer, int index, long seconds,
+			long nanos) {
+		Codec.putSecondsNanos(buffer, index, seconds, nanos);
+	}
+
+	/**
+	 * Write consecutive seconds and nanos in the binary form from an absolute
+	 * index of a buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @param seconds
+	 * @param nanos
+	 * @param offset
+	 * @param length
+	 */
+	public static void put(ByteBuffer buffer, int index, long[] seconds,
+			long[] nanos, int offset, int length) {
+		Codec.putSecondsNanos(buffer, index, seconds, nanos, offset, length);
+	}
+
+	/**
+	 * Read consecutive seconds and nanos in the binary form from an absolute
+	 * index of a buffer.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @param seconds
+	 * @param nanos
+	 * @param offset
+	 * @param length
+	 */
+	public static void get(ByteBuffer buffer, int index, long[] seconds,
+			long[] nanos, int offset, int length) {
+		Codec.getSecondsNanos(buffer, index, seconds, nanos, offset, length);
 	}
 
 	@Override
@@ -1,7 +1,9 @@
 package com.duramec.time;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public final class TickGen {
-	private long lastTick = Long.MIN_VALUE;
+	private final AtomicLong lastTick = new AtomicLong(Long.MIN_VALUE);
 
 	/**
 	 * Performs fast, imprecise generation of 100-ns ticks relative to the UUID
@@ -15,18 +17,89 @@ public final class TickGen {
 	 * This means in practicality that there will be a much higher tick density
 	 * after the beginning of the millisecond barrier than prior to a new one.
 	 * 
+	 * Ticks are strictly increasing across all threads. The last tick is
+	 * advanced with a compare-and-set instead of a lock, so callers never
+	 * block each other and a losing caller simply retries against the newer
+	 * value.
+	 * 
+	 * @return
+	 */
+	public final long next() {
+		long ms = System.currentTimeMillis();
+		long tick = (ms * 10000L) + 0x01B21DD213814000L;
+
+		while (true) {
+			long last = lastTick.get();
+			long next = (tick > last) ? tick : last + 1;
+			if (lastTick.compareAndSet(last, next)) {
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * Reserves a contiguous block of n ticks in a single operation and returns
+	 * the first of them. The caller owns every tick from the returned value up
+	 * to, but not including, the returned value plus n.
+	 * 
+	 * The block is taken exactly as n calls to next() would have taken it: it
+	 * starts at the current millisecond marker if that is past every tick
+	 * handed out so far, and otherwise directly after the last one, spilling
+	 * past the millisecond boundary if the block is larger than what is left
+	 * of it. A block of no ticks reserves nothing and returns the tick the next
+	 * block would start at, were the clock to stand still.
+	 * 
+	 * @param n
 	 * @return
+	 * @throws IllegalArgumentException
+	 *             if n is negative
 	 */
-	public synchronized final long next() {
+	public final long nextBlock(int n) {
+		if (n < 0) {
+			throw new IllegalArgumentException("block of " + n
+					+ " ticks is negative");
+		}
 		long ms = System.currentTimeMillis();
 		long tick = (ms * 10000L) + 0x01B21DD213814000L;
 
-		if (tick > lastTick) {
-			lastTick = tick;
-		} else {
-			tick = ++lastTick;
+		while (true) {
+			long last = lastTick.get();
+			long first = (tick > last) ? tick : last + 1;
+			if (n == 0) {
+				return first;
+			}
+			if (lastTick.compareAndSet(last, first + n - 1)) {
+				return first;
+			}
+		}
+	}
+
+	/**
+	 * Fills part of an array with a contiguous block of increasing ticks, as
+	 * reserved by nextBlock.
+	 * 
+	 * @param ticks
+	 * @param offset
+	 * @param length
+	 */
+	public final void next(long[] ticks, int offset, int length) {
+		if (length == 0) {
+			return;
 		}
-		return tick;
+		long tick = nextBlock(length);
+		int end = offset + length;
+		for (int i = offset; i < end; i++) {
+			ticks[i] = tick++;
+		}
+	}
+
+	/**
+	 * Fills an array with a contiguous block of increasing ticks.
+	 * 
+	 * @param ticks
+	 */
+	public final void next(long[] ticks) {
+		next(ticks, 0, ticks.length);
 	}
 
 }
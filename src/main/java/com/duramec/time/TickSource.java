@@ -0,0 +1,17 @@
+package com.duramec.time;
+
+/**
+ * A source of 100-ns ticks on the T60 (UUID) epoch which follows the wall
+ * clock, such as T60Clock. Clock is not one: its ticks are counted from
+ * System.nanoTime(), whose origin is arbitrary, so they are not T60 ticks.
+ */
+public interface TickSource {
+
+	/**
+	 * The current tick.
+	 *
+	 * @return
+	 */
+	long tick();
+
+}
@@ -0,0 +1,277 @@
+package com.duramec.time;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Generation of time-based (version 1) UUIDs from 100-ns ticks relative to the
+ * UUID epoch, which is also the T60 epoch.
+ *
+ * Like StripedTickGen, the generator is split into a number of independent
+ * stripes so that threads do not contend on a single last tick. Each stripe
+ * owns a distinct set of clock sequence values: the stripe number is kept in
+ * the low bits of the 14-bit clock sequence. Within a stripe ticks are handed
+ * out strictly increasing, as by TickGen, so every UUID from a generator is
+ * unique without any lock.
+ *
+ * When the system clock steps back by more than a second, a stripe moves on to
+ * its next clock sequence and restarts from the earlier time, as RFC 4122
+ * describes, rather than running ahead of the clock until it catches up.
+ * Smaller steps back are absorbed by handing out ticks directly after the last
+ * one. A stripe has 2^(14 - log2(stripes)) clock sequences, but at most 16,
+ * starting from a random one. Once it has used them all it never reuses one:
+ * further large steps back are absorbed like small ones, the stripe running
+ * ahead of the clock until it catches up.
+ *
+ * Apart from the UUID returned by next(), generation does not allocate.
+ */
+public final class UUIDGen {
+
+	/**
+	 * Distance between the states of two stripes in the backing array; see
+	 * StripedTickGen.
+	 */
+	private static final int padding = 16;
+
+	/**
+	 * A step back of the clock larger than this many ticks starts a new clock
+	 * sequence for the stripe.
+	 */
+	private static final long backwardsLimit = 10000000L;
+
+	/**
+	 * Multicast bit of the node id, set on random node ids so that they cannot
+	 * clash with the address of a real network interface.
+	 */
+	public static final long multicastBit = 0x010000000000L;
+
+	private static final long nodeMask = 0xFFFFFFFFFFFFL;
+
+	private final long node;
+
+	private final int stripes;
+
+	private final int mask;
+
+	private final int stripeBits;
+
+	/**
+	 * Random starting clock sequence, in units of stripes.
+	 */
+	private final int baseSequence;
+
+	/**
+	 * Number of clock sequences of each stripe.
+	 */
+	private final int sequences;
+
+	/**
+	 * Per stripe, the last tick handed out shifted left by 4, with the number
+	 * of clock sequence changes in the low 4 bits. Ticks are 60 bits, so the
+	 * shifted tick still fits and is read back with an unsigned shift.
+	 */
+	private final AtomicLongArray states;
+
+	/**
+	 * Create a generator with a random node id and two stripes for every
+	 * available processor.
+	 */
+	public UUIDGen() {
+		this(randomNode(), Runtime.getRuntime().availableProcessors() * 2);
+	}
+
+	/**
+	 * Create a generator with the given 48-bit node id and two stripes for
+	 * every available processor.
+	 *
+	 * @param node
+	 */
+	public UUIDGen(long node) {
+		this(node, Runtime.getRuntime().availableProcessors() * 2);
+	}
+
+	/**
+	 * Create a generator with the given 48-bit node id and at least the given
+	 * number of stripes, rounded up to a power of two of at most 4096.
+	 *
+	 * @param node
+	 * @param stripes
+	 */
+	public UUIDGen(long node, int stripes) {
+		assert (stripes > 0 && stripes <= (1 << 12));
+		int n = Integer.highestOneBit(stripes);
+		if (n < stripes) {
+			n <<= 1;
+		}
+		this.node = node & nodeMask;
+		this.stripes = n;
+		this.mask = n - 1;
+		this.stripeBits = Integer.numberOfTrailingZeros(n);
+		this.sequences = Math.min(16, 1 << (14 - stripeBits));
+		this.baseSequence = new SecureRandom().nextInt(1 << (14 - stripeBits));
+		this.states = new AtomicLongArray(n * padding);
+	}
+
+	/**
+	 * A random node id with the multicast bit set.
+	 *
+	 * @return
+	 */
+	public static long randomNode() {
+		return (new SecureRandom().nextLong() & nodeMask) | multicastBit;
+	}
+
+	public long getNode() {
+		return node;
+	}
+
+	public int getStripes() {
+		return stripes;
+	}
+
+	/**
+	 * Stripe used by the calling thread; see StripedTickGen.stripe().
+	 *
+	 * @return
+	 */
+	public int stripe() {
+		long id = Thread.currentThread().getId();
+		int h = (int) (id ^ (id >>> 32));
+		h *= 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Advance a stripe given the current clock reading in ticks, and return
+	 * its new state.
+	 */
+	long advance(int stripe, long clockTick) {
+		int slot = (stripe & mask) * padding;
+		while (true) {
+			long state = states.get(slot);
+			long last = state >>> 4;
+			long changes = state & 0xF;
+			long next;
+			if (clockTick > last) {
+				next = (clockTick << 4) | changes;
+			} else if (last - clockTick > backwardsLimit
+					&& changes + 1 < sequences) {
+				next = (clockTick << 4) | (changes + 1);
+			} else {
+				next = state + (1L << 4);
+			}
+			if (states.compareAndSet(slot, state, next)) {
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * Clock sequence of a stripe in a given state.
+	 */
+	int clockSeq(int stripe, long state) {
+		int sequence = baseSequence + (int) (state & 0xF);
+		return ((sequence << stripeBits) | (stripe & mask)) & 0x3FFF;
+	}
+
+	/**
+	 * Write the most and least significant bits of the next UUID from the
+	 * stripe of the calling thread into out[outOffset] and out[outOffset + 1].
+	 *
+	 * @param out
+	 * @param outOffset
+	 */
+	public void next(long[] out, int outOffset) {
+		int stripe = stripe();
+		long tick = (System.currentTimeMillis() * 10000L) + 0x01B21DD213814000L;
+		long state = advance(stripe, tick);
+		out[outOffset] = mostSignificantBits(state >>> 4);
+		out[outOffset + 1] = leastSignificantBits(clockSeq(stripe, state),
+				node);
+	}
+
+	/**
+	 * Next UUID from the stripe of the calling thread.
+	 *
+	 * @return
+	 */
+	public UUID next() {
+		int stripe = stripe();
+		long tick = (System.currentTimeMillis() * 10000L) + 0x01B21DD213814000L;
+		long state = advance(stripe, tick);
+		return new UUID(mostSignificantBits(state >>> 4),
+				leastSignificantBits(clockSeq(stripe, state), node));
+	}
+
+	/**
+	 * Write the 16 bytes of the next UUID into a buffer at its position, in
+	 * network byte order whatever the order of the buffer.
+	 *
+	 * @param buffer
+	 */
+	public void next(ByteBuffer buffer) {
+		int position = buffer.position();
+		next(buffer, position);
+		buffer.position(position + 16);
+	}
+
+	/**
+	 * Write the 16 bytes of the next UUID into a buffer at an absolute index,
+	 * in network byte order, without changing its position.
+	 *
+	 * @param buffer
+	 * @param index
+	 */
+	public void next(ByteBuffer buffer, int index) {
+		int stripe = stripe();
+		long tick = (System.currentTimeMillis() * 10000L) + 0x01B21DD213814000L;
+		long state = advance(stripe, tick);
+		long msb = mostSignificantBits(state >>> 4);
+		long lsb = leastSignificantBits(clockSeq(stripe, state), node);
+		if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+			msb = Long.reverseBytes(msb);
+			lsb = Long.reverseBytes(lsb);
+		}
+		buffer.putLong(index, msb);
+		buffer.putLong(index + 8, lsb);
+	}
+
+	/**
+	 * Most significant bits of a version 1 UUID: the 60-bit tick split into
+	 * its low, middle and high fields around the version number.
+	 *
+	 * @param tick
+	 * @return
+	 */
+	public static long mostSignificantBits(long tick) {
+		return (tick << 32) | ((tick >>> 16) & 0xFFFF0000L) | 0x1000L
+				| ((tick >>> 48) & 0x0FFFL);
+	}
+
+	/**
+	 * Least significant bits of a UUID in the RFC 4122 variant: the 14-bit
+	 * clock sequence and the 48-bit node id.
+	 *
+	 * @param clockSeq
+	 * @param node
+	 * @return
+	 */
+	public static long leastSignificantBits(long clockSeq, long node) {
+		return ((0x8000L | (clockSeq & 0x3FFF)) << 48) | (node & nodeMask);
+	}
+
+	/**
+	 * Tick of a version 1 UUID given its most significant bits.
+	 *
+	 * @param msb
+	 * @return
+	 */
+	public static long tick(long msb) {
+		return (msb >>> 32) | ((msb & 0xFFFF0000L) << 16)
+				| ((msb & 0x0FFFL) << 48);
+	}
+
+}
@@ -0,0 +1,768 @@
+package com.duramec.time;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compiler of the tzdata source files (africa, europe, northamerica, …) into
+ * ZoneRules, doing the work of zic: the Rule, Zone and Link lines of the
+ * files are read one line at a time and every zone is turned into sorted
+ * transitions and the UTC offsets which follow them.
+ *
+ * Rules which go on forever ("max") are expanded into transitions up to the
+ * end of lastYear; the offset in effect at the end of that year holds from
+ * then on. Only offsets are compiled: time zone abbreviations (the FORMAT and
+ * LETTER/S columns) are not kept.
+ *
+ * Rule lines with a TYPE other than "-", which need the yearistype.sh
+ * script, are not supported; none of the zone files use them.
+ */
+public final class ZoneCompiler {
+
+	/**
+	 * Files of the tzdata distribution holding zones and links.
+	 */
+	public static final String[] defaultFiles = { "africa", "antarctica",
+			"asia", "australasia", "europe", "northamerica", "southamerica",
+			"etcetera", "backward" };
+
+	/**
+	 * Last year for which transitions are generated.
+	 */
+	public static final int lastYear = 2100;
+
+	/**
+	 * Earliest year for which transitions are generated, for rules starting
+	 * at "min".
+	 */
+	private static final int firstYear = 1800;
+
+	private static final Charset utf8 = Charset.forName("UTF-8");
+
+	private static final String[] months = { "jan", "feb", "mar", "apr",
+			"may", "jun", "jul", "aug", "sep", "oct", "nov", "dec" };
+
+	private static final String[] weekdays = { "sun", "mon", "tue", "wed",
+			"thu", "fri", "sat" };
+
+	private static final int dayFixed = 0;
+
+	private static final int dayLast = 1;
+
+	private static final int dayOnOrAfter = 2;
+
+	private static final int dayOnOrBefore = 3;
+
+	/**
+	 * A day of a month, as in the ON column of a rule: a fixed day, the last
+	 * given weekday, or the first given weekday on or after, or on or before,
+	 * a day.
+	 */
+	private static final class Day {
+
+		final int kind;
+
+		final int day;
+
+		final int weekday;
+
+		Day(int kind, int day, int weekday) {
+			this.kind = kind;
+			this.day = day;
+			this.weekday = weekday;
+		}
+
+		/**
+		 * Days since the POSIX epoch of this day in a month.
+		 */
+		long days(int year, int month) {
+			if (kind == dayFixed) {
+				return Julian.posixDays(year, month, day);
+			}
+			if (kind == dayLast) {
+				long next = (month == 12) ? Julian.posixDays(year + 1, 1, 1)
+						: Julian.posixDays(year, month + 1, 1);
+				long last = next - 1;
+				return last - floorMod(weekday(last) - weekday, 7);
+			}
+			long d = Julian.posixDays(year, month, day);
+			if (kind == dayOnOrAfter) {
+				return d + floorMod(weekday - weekday(d), 7);
+			}
+			return d - floorMod(weekday(d) - weekday, 7);
+		}
+	}
+
+	private static final class Rule {
+
+		final int from;
+
+		final int to;
+
+		final int month;
+
+		final Day on;
+
+		/**
+		 * Time of day in seconds, and whether it is wall clock ('w'),
+		 * standard ('s') or UTC ('u') time.
+		 */
+		final int at;
+
+		final char atSuffix;
+
+		final int save;
+
+		Rule(int from, int to, int month, Day on, int at, char atSuffix,
+				int save) {
+			this.from = from;
+			this.to = to;
+			this.month = month;
+			this.on = on;
+			this.at = at;
+			this.atSuffix = atSuffix;
+			this.save = save;
+		}
+
+		long local(int year) {
+			return (on.days(year, month) * 86400L) + at;
+		}
+	}
+
+	/**
+	 * One line of a zone: its standard offset and rules up to a time.
+	 */
+	private static final class Era {
+
+		final int standardOffset;
+
+		/**
+		 * Name of the rules, or null for a fixed amount of daylight saving.
+		 */
+		final String rules;
+
+		final int save;
+
+		final boolean hasUntil;
+
+		final int untilYear;
+
+		/**
+		 * Until as seconds in the frame given by untilSuffix.
+		 */
+		final long until;
+
+		final char untilSuffix;
+
+		Era(int standardOffset, String rules, int save, boolean hasUntil,
+				int untilYear, long until, char untilSuffix) {
+			this.standardOffset = standardOffset;
+			this.rules = rules;
+			this.save = save;
+			this.hasUntil = hasUntil;
+			this.untilYear = untilYear;
+			this.until = until;
+			this.untilSuffix = untilSuffix;
+		}
+	}
+
+	/**
+	 * Transitions and offsets under construction.
+	 */
+	private static final class Builder {
+
+		long[] times = new long[64];
+
+		int[] offsets = new int[64];
+
+		int count;
+
+		void add(long time, int offset) {
+			if (count == times.length) {
+				times = Arrays.copyOf(times, count * 2);
+				offsets = Arrays.copyOf(offsets, count * 2);
+			}
+			times[count] = time;
+			offsets[count] = offset;
+			count++;
+		}
+
+		/**
+		 * Add a change of offset to the zone, dropping changes to the same
+		 * offset. A change at or before the last one replaces it.
+		 */
+		void emit(long time, int offset) {
+			if (count > 0 && time <= times[count - 1]) {
+				offsets[count - 1] = offset;
+				if (count > 1 && offsets[count - 2] == offset) {
+					count--;
+				}
+				return;
+			}
+			if (count > 0 && offsets[count - 1] == offset) {
+				return;
+			}
+			add(time, offset);
+		}
+	}
+
+	/**
+	 * Steps of the rules of an era in order: the POSIX seconds of each, the
+	 * daylight saving from then on, and the local time and frame ('w', 's'
+	 * or 'u') the rule gave.
+	 */
+	private static final class Steps {
+
+		long[] times = new long[64];
+
+		int[] saves = new int[64];
+
+		long[] locals = new long[64];
+
+		char[] frames = new char[64];
+
+		int count;
+
+		void add(long time, int save, long local, char frame) {
+			if (count == times.length) {
+				times = Arrays.copyOf(times, count * 2);
+				saves = Arrays.copyOf(saves, count * 2);
+				locals = Arrays.copyOf(locals, count * 2);
+				frames = Arrays.copyOf(frames, count * 2);
+			}
+			times[count] = time;
+			saves[count] = save;
+			locals[count] = local;
+			frames[count] = frame;
+			count++;
+		}
+
+		/**
+		 * POSIX seconds of a step taken in a frame other than the era's own,
+		 * with the given standard and wall clock offsets.
+		 */
+		long time(int i, int standardOffset, int wallOffset) {
+			switch (frames[i]) {
+			case 'u':
+				return locals[i];
+			case 's':
+				return locals[i] - standardOffset;
+			default:
+				return locals[i] - wallOffset;
+			}
+		}
+	}
+
+	private final HashMap<String, ArrayList<Rule>> rules = new HashMap<String, ArrayList<Rule>>();
+
+	private final LinkedHashMap<String, ArrayList<Era>> zones = new LinkedHashMap<String, ArrayList<Era>>();
+
+	private final HashMap<String, String> links = new HashMap<String, String>();
+
+	private final ArrayList<String> fields = new ArrayList<String>();
+
+	/**
+	 * Eras of the zone whose last line had an UNTIL, so that a continuation
+	 * line is expected.
+	 */
+	private ArrayList<Era> continuing;
+
+	private String file;
+
+	private int number;
+
+	/**
+	 * Compile the default files of a tzdata directory.
+	 *
+	 * @param directory
+	 * @return
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public static Map<String, ZoneRules> compile(Path directory)
+			throws IOException, ParseException {
+		ZoneCompiler compiler = new ZoneCompiler();
+		for (String name : defaultFiles) {
+			compiler.parse(directory.resolve(name));
+		}
+		return compiler.compile();
+	}
+
+	/**
+	 * Read the lines of a tzdata source file.
+	 *
+	 * @param file
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public void parse(Path file) throws IOException, ParseException {
+		InputStream in = Files.newInputStream(file);
+		try {
+			parse(in, file.getFileName().toString());
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Read the lines of a tzdata source file from a stream, which is read to
+	 * its end but not closed. The name is only used in error messages.
+	 *
+	 * @param in
+	 * @param name
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public void parse(InputStream in, String name) throws IOException,
+			ParseException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in,
+				utf8));
+		file = name;
+		number = 0;
+		continuing = null;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			number++;
+			line(line);
+		}
+		if (continuing != null) {
+			throw fail("zone continues past the end of the file");
+		}
+	}
+
+	private void line(String line) throws ParseException {
+		split(line);
+		if (fields.isEmpty()) {
+			return;
+		}
+		String first = fields.get(0);
+		if (continuing != null) {
+			era(continuing, 0);
+		} else if (first.equals("Rule")) {
+			rule();
+		} else if (first.equals("Zone")) {
+			String name = field(1);
+			if (zones.containsKey(name)) {
+				throw fail("zone " + name + " is defined twice");
+			}
+			ArrayList<Era> eras = new ArrayList<Era>();
+			zones.put(name, eras);
+			era(eras, 2);
+		} else if (first.equals("Link")) {
+			links.put(field(2), field(1));
+		} else {
+			throw fail("unknown line \"" + line + "\"");
+		}
+	}
+
+	/**
+	 * Split the part of a line before any comment into fields separated by
+	 * white space. Quoted fields are taken as they are, without the quotes.
+	 */
+	private void split(String line) {
+		fields.clear();
+		int length = line.length();
+		int i = 0;
+		while (i < length) {
+			char c = line.charAt(i);
+			if (c == '#') {
+				break;
+			}
+			if (Character.isWhitespace(c)) {
+				i++;
+				continue;
+			}
+			int start = i;
+			if (c == '"') {
+				int end = line.indexOf('"', i + 1);
+				end = (end < 0) ? length : end;
+				fields.add(line.substring(start + 1, end));
+				i = end + 1;
+				continue;
+			}
+			while (i < length) {
+				c = line.charAt(i);
+				if (Character.isWhitespace(c) || c == '#') {
+					break;
+				}
+				i++;
+			}
+			fields.add(line.substring(start, i));
+		}
+	}
+
+	private String field(int index) throws ParseException {
+		if (index >= fields.size()) {
+			throw fail("missing field " + (index + 1));
+		}
+		return fields.get(index);
+	}
+
+	private ParseException fail(String reason) {
+		return new ParseException(file + ", line " + number + ": " + reason,
+				number);
+	}
+
+	private void rule() throws ParseException {
+		String name = field(1);
+		String fromField = field(2);
+		int from = fromField.equals("min") ? firstYear : number(fromField);
+		String toField = field(3);
+		int to;
+		if (toField.equals("only")) {
+			to = from;
+		} else if (toField.equals("max")) {
+			to = Integer.MAX_VALUE;
+		} else {
+			to = number(toField);
+		}
+		if (!field(4).equals("-")) {
+			throw fail("rule type \"" + field(4) + "\" is not supported");
+		}
+		int month = month(field(5));
+		Day on = day(field(6));
+		String at = field(7);
+		Rule rule = new Rule(from, to, month, on, time(at), suffix(at),
+				time(field(8)));
+		ArrayList<Rule> set = rules.get(name);
+		if (set == null) {
+			set = new ArrayList<Rule>();
+			rules.put(name, set);
+		}
+		set.add(rule);
+	}
+
+	/**
+	 * Read the fields of a zone line from an index: STDOFF RULES FORMAT
+	 * [UNTIL].
+	 */
+	private void era(ArrayList<Era> eras, int i) throws ParseException {
+		int standardOffset = time(field(i));
+		String rulesField = field(i + 1);
+		field(i + 2);
+		String rulesName = null;
+		int save = 0;
+		if (!rulesField.equals("-")) {
+			char c = rulesField.charAt(0);
+			if ((c >= '0' && c <= '9') || c == '-') {
+				save = time(rulesField);
+			} else {
+				rulesName = rulesField;
+			}
+		}
+		int u = i + 3;
+		if (fields.size() <= u) {
+			eras.add(new Era(standardOffset, rulesName, save, false, 0, 0,
+					'w'));
+			continuing = null;
+			return;
+		}
+		int year = number(field(u));
+		int month = (fields.size() > u + 1) ? month(field(u + 1)) : 1;
+		Day day = (fields.size() > u + 2) ? day(field(u + 2)) : new Day(
+				dayFixed, 1, 0);
+		String at = (fields.size() > u + 3) ? field(u + 3) : "0";
+		long until = (day.days(year, month) * 86400L) + time(at);
+		eras.add(new Era(standardOffset, rulesName, save, true, year, until,
+				suffix(at)));
+		continuing = eras;
+	}
+
+	private int number(String s) throws ParseException {
+		if (s.isEmpty() || s.length() > 9) {
+			throw fail("\"" + s + "\" is not a number");
+		}
+		int value = 0;
+		for (int i = 0; i < s.length(); i++) {
+			int digit = s.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				throw fail("\"" + s + "\" is not a number");
+			}
+			value = (value * 10) + digit;
+		}
+		return value;
+	}
+
+	/**
+	 * Index from 0 of a name in a table of lowercase names, matched on their
+	 * first three letters as zic does for months and weekdays.
+	 */
+	private int name(String s, String[] names, String what)
+			throws ParseException {
+		if (s.length() >= 3) {
+			String prefix = s.substring(0, 3).toLowerCase();
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equals(prefix)) {
+					return i;
+				}
+			}
+		}
+		throw fail("\"" + s + "\" is not a " + what);
+	}
+
+	private int month(String s) throws ParseException {
+		return name(s, months, "month") + 1;
+	}
+
+	private Day day(String s) throws ParseException {
+		if (s.startsWith("last")) {
+			return new Day(dayLast, 0, name(s.substring(4), weekdays,
+					"weekday"));
+		}
+		int i = s.indexOf(">=");
+		if (i > 0) {
+			return new Day(dayOnOrAfter, number(s.substring(i + 2)), name(
+					s.substring(0, i), weekdays, "weekday"));
+		}
+		i = s.indexOf("<=");
+		if (i > 0) {
+			return new Day(dayOnOrBefore, number(s.substring(i + 2)), name(
+					s.substring(0, i), weekdays, "weekday"));
+		}
+		return new Day(dayFixed, number(s), 0);
+	}
+
+	/**
+	 * Seconds of a time or offset of the form [-]h[:mm[:ss]], ignoring a
+	 * trailing suffix letter. A lone "-" is zero.
+	 */
+	private int time(String s) throws ParseException {
+		if (s.equals("-")) {
+			return 0;
+		}
+		int end = s.length();
+		if (end > 0 && Character.isLetter(s.charAt(end - 1))) {
+			end--;
+		}
+		boolean negative = s.startsWith("-");
+		int i = negative ? 1 : 0;
+		int seconds = 0;
+		int multiplier = 3600;
+		while (multiplier > 0) {
+			int colon = s.indexOf(':', i);
+			int stop = (colon < 0 || colon > end) ? end : colon;
+			if (stop == i) {
+				throw fail("\"" + s + "\" is not a time");
+			}
+			seconds += number(s.substring(i, stop)) * multiplier;
+			if (stop == end) {
+				break;
+			}
+			i = stop + 1;
+			multiplier /= 60;
+		}
+		if (multiplier == 0) {
+			throw fail("\"" + s + "\" is not a time");
+		}
+		return negative ? -seconds : seconds;
+	}
+
+	/**
+	 * Frame of a time: 'w' for wall clock time, the default, 's' for standard
+	 * time or 'u' for UTC.
+	 */
+	private char suffix(String s) throws ParseException {
+		char c = s.isEmpty() ? 'w' : s.charAt(s.length() - 1);
+		switch (c) {
+		case 's':
+			return 's';
+		case 'u':
+		case 'g':
+		case 'z':
+			return 'u';
+		case 'w':
+			return 'w';
+		default:
+			if (Character.isLetter(c)) {
+				throw fail("\"" + s + "\" has an unknown suffix");
+			}
+			return 'w';
+		}
+	}
+
+	private static long floorMod(long a, long b) {
+		long m = a % b;
+		return (m < 0) ? m + b : m;
+	}
+
+	/**
+	 * Day of the week of days since the POSIX epoch, from 0 for Sunday; the
+	 * epoch was a Thursday.
+	 */
+	private static long weekday(long days) {
+		return floorMod(days + 4, 7);
+	}
+
+	/**
+	 * Compile every zone read so far, and the links to them.
+	 *
+	 * @return
+	 * @throws ParseException
+	 */
+	public Map<String, ZoneRules> compile() throws ParseException {
+		TreeMap<String, ZoneRules> compiled = new TreeMap<String, ZoneRules>();
+		for (Map.Entry<String, ArrayList<Era>> zone : zones.entrySet()) {
+			compiled.put(zone.getKey(),
+					compile(zone.getKey(), zone.getValue()));
+		}
+		for (String name : links.keySet()) {
+			String target = links.get(name);
+			for (int hops = 0; links.containsKey(target) && hops < 8; hops++) {
+				target = links.get(target);
+			}
+			ZoneRules rules = compiled.get(target);
+			if (rules == null) {
+				throw new ParseException("link " + name
+						+ " to unknown zone " + target, 0);
+			}
+			compiled.put(name, rules);
+		}
+		return Collections.unmodifiableMap(compiled);
+	}
+
+	private ZoneRules compile(String name, ArrayList<Era> eras)
+			throws ParseException {
+		Builder zone = new Builder();
+		long start = Long.MIN_VALUE;
+		int previousStandard = 0;
+		for (Era era : eras) {
+			int standardOffset = era.standardOffset;
+			if (era.rules == null) {
+				zone.emit(start, standardOffset + era.save);
+				start = until(era, era.save);
+				previousStandard = standardOffset;
+				continue;
+			}
+			Steps steps = steps(name, era);
+			/**
+			 * The daylight saving in effect at the start of the era is that
+			 * of the last step of its rules at or before the start. As zic
+			 * does, a step also counts when it is at or before the start as
+			 * read with the offsets in effect until then, so that a rule
+			 * falling on the same local time as the UNTIL of the line before
+			 * takes effect with the line.
+			 */
+			boolean first = (zone.count == 0);
+			int previousWall = first ? 0 : zone.offsets[zone.count - 1];
+			int save = 0;
+			int i = 0;
+			for (; i < steps.count; i++) {
+				if (steps.times[i] > start
+						&& (first || steps.time(i, previousStandard,
+								previousWall) > start)) {
+					break;
+				}
+				save = steps.saves[i];
+			}
+			zone.emit(start, standardOffset + save);
+			/**
+			 * An UNTIL in wall clock time is taken with the daylight saving of
+			 * the last step before it.
+			 */
+			int saveAtUntil = save;
+			if (era.hasUntil && era.untilSuffix == 'w') {
+				for (int j = i; j < steps.count; j++) {
+					if (steps.times[j] >= era.until - standardOffset
+							- saveAtUntil) {
+						break;
+					}
+					saveAtUntil = steps.saves[j];
+				}
+			}
+			long until = until(era, saveAtUntil);
+			for (; i < steps.count && steps.times[i] < until; i++) {
+				zone.emit(steps.times[i], standardOffset + steps.saves[i]);
+			}
+			start = until;
+			previousStandard = standardOffset;
+		}
+		return new ZoneRules(name, Arrays.copyOf(zone.times, zone.count),
+				Arrays.copyOf(zone.offsets, zone.count));
+	}
+
+	/**
+	 * POSIX seconds at which an era ends, given the daylight saving then.
+	 */
+	private static long until(Era era, int save) {
+		if (!era.hasUntil) {
+			return Long.MAX_VALUE;
+		}
+		switch (era.untilSuffix) {
+		case 'u':
+			return era.until;
+		case 's':
+			return era.until - era.standardOffset;
+		default:
+			return era.until - era.standardOffset - save;
+		}
+	}
+
+	/**
+	 * Every step of the rules of an era, from the first year of the rules up
+	 * to the end of the era.
+	 */
+	private Steps steps(String name, Era era) throws ParseException {
+		ArrayList<Rule> set = rules.get(era.rules);
+		if (set == null) {
+			throw new ParseException("zone " + name + " uses unknown rules "
+					+ era.rules, 0);
+		}
+		int from = Integer.MAX_VALUE;
+		int to = Integer.MIN_VALUE;
+		for (Rule rule : set) {
+			from = Math.min(from, rule.from);
+			to = Math.max(to, rule.to);
+		}
+		from = Math.max(from, firstYear);
+		to = Math.min(to, era.hasUntil ? era.untilYear : lastYear);
+		Steps steps = new Steps();
+		Rule[] year = new Rule[set.size()];
+		long[] local = new long[set.size()];
+		int save = 0;
+		for (int y = from; y <= to; y++) {
+			/**
+			 * Rules in effect this year, sorted by their local time.
+			 */
+			int n = 0;
+			for (Rule rule : set) {
+				if (rule.from <= y && y <= rule.to) {
+					long t = rule.local(y);
+					int k = n++;
+					while (k > 0 && local[k - 1] > t) {
+						year[k] = year[k - 1];
+						local[k] = local[k - 1];
+						k--;
+					}
+					year[k] = rule;
+					local[k] = t;
+				}
+			}
+			for (int k = 0; k < n; k++) {
+				Rule rule = year[k];
+				long time = local[k];
+				if (rule.atSuffix == 's') {
+					time -= era.standardOffset;
+				} else if (rule.atSuffix == 'w') {
+					time -= era.standardOffset + save;
+				}
+				steps.add(time, rule.save, local[k], rule.atSuffix);
+				save = rule.save;
+			}
+		}
+		return steps;
+	}
+
+}
@@ -0,0 +1,266 @@
+package com.duramec.time;
+
+import java.util.Arrays;
+
+/**
+ * The UTC offsets of one time zone, as compiled by ZoneCompiler: sorted POSIX
+ * seconds at which the offset changes, and the offset in seconds from each
+ * of them onwards.
+ *
+ * Lookups are a binary search over the primitive arrays, behind a fast path
+ * for the interval between transitions that holds the latest time looked up
+ * so far. That interval is kept in an immutable object published through a
+ * volatile reference, so it tracks the present as time goes on; lookups of
+ * older times fall through to the search without moving it.
+ *
+ * Local fields are computed from the offset with the integer day arithmetic
+ * of Julian, without going through Joda or allocating.
+ */
+public final class ZoneRules {
+
+	/**
+	 * Number of ints written for each instant by localFields: year, month,
+	 * day, hour, minute, second, nanos of the second and the UTC offset in
+	 * seconds, in that order.
+	 */
+	public static final int fieldCount = 8;
+
+	private static final long ticksPerSecond = 10000000L;
+
+	private final String id;
+
+	/**
+	 * POSIX seconds at which each offset comes into effect. The first entry
+	 * is MIN_VALUE, for the offset in effect before any transition.
+	 */
+	private final long[] transitions;
+
+	/**
+	 * UTC offset in seconds from the matching entry of transitions onwards.
+	 */
+	private final int[] offsets;
+
+	private static final class Interval {
+
+		final long from;
+
+		final long until;
+
+		final int offset;
+
+		Interval(long from, long until, int offset) {
+			this.from = from;
+			this.until = until;
+			this.offset = offset;
+		}
+	}
+
+	private volatile Interval current;
+
+	/**
+	 * Create rules from transitions, which must be sorted and start with
+	 * MIN_VALUE, and the matching offsets. The arrays are kept, not copied.
+	 *
+	 * @param id
+	 * @param transitions
+	 * @param offsets
+	 */
+	ZoneRules(String id, long[] transitions, int[] offsets) {
+		assert (transitions.length > 0 && transitions.length == offsets.length);
+		assert (transitions[0] == Long.MIN_VALUE);
+		this.id = id;
+		this.transitions = transitions;
+		this.offsets = offsets;
+		this.current = interval(indexOf(System.currentTimeMillis() / 1000L));
+	}
+
+	/**
+	 * Name of the zone, such as "America/New_York".
+	 *
+	 * @return
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Number of offsets, including the one before the first transition.
+	 *
+	 * @return
+	 */
+	public int size() {
+		return transitions.length;
+	}
+
+	/**
+	 * Get a copy of the transitions, in POSIX seconds.
+	 *
+	 * @return
+	 */
+	public long[] getTransitions() {
+		return transitions.clone();
+	}
+
+	/**
+	 * Get a copy of the offsets in seconds matching getTransitions.
+	 *
+	 * @return
+	 */
+	public int[] getOffsets() {
+		return offsets.clone();
+	}
+
+	private int indexOf(long posixSeconds) {
+		int i = Arrays.binarySearch(transitions, posixSeconds);
+		return (i < 0) ? -i - 2 : i;
+	}
+
+	private Interval interval(int i) {
+		long until = (i + 1 < transitions.length) ? transitions[i + 1]
+				: Long.MAX_VALUE;
+		return new Interval(transitions[i], until, offsets[i]);
+	}
+
+	/**
+	 * UTC offset in seconds at a number of seconds in the POSIX frame.
+	 *
+	 * @param posixSeconds
+	 * @return
+	 */
+	public int offset(long posixSeconds) {
+		Interval c = current;
+		if (posixSeconds >= c.from && posixSeconds < c.until) {
+			return c.offset;
+		}
+		int i = indexOf(posixSeconds);
+		if (posixSeconds >= c.until) {
+			current = interval(i);
+		}
+		return offsets[i];
+	}
+
+	/**
+	 * UTC offset in seconds at a number of T60 ticks.
+	 *
+	 * @param ticks
+	 * @return
+	 */
+	public int offsetOfTicks(long ticks) {
+		return offset(posixSeconds(ticks));
+	}
+
+	private static long posixSeconds(long ticks) {
+		long elapsed = ticks - T60Instant.lilianToPosixTicks;
+		long seconds = elapsed / ticksPerSecond;
+		if (elapsed % ticksPerSecond < 0) {
+			seconds--;
+		}
+		return seconds;
+	}
+
+	/**
+	 * Nanos of the second of T60 ticks, given their POSIX seconds.
+	 */
+	private static int nanos(long ticks, long posixSeconds) {
+		long remainder = ticks - T60Instant.lilianToPosixTicks
+				- (posixSeconds * ticksPerSecond);
+		return (int) (remainder * 100L);
+	}
+
+	/**
+	 * T60 ticks shifted by the UTC offset, i.e. counting local time as if it
+	 * were UTC.
+	 *
+	 * @param ticks
+	 * @return
+	 */
+	public long localTicks(long ticks) {
+		return ticks + (offsetOfTicks(ticks) * ticksPerSecond);
+	}
+
+	/**
+	 * Write the local fields of T60 ticks into fieldCount consecutive elements
+	 * of an array.
+	 *
+	 * @param ticks
+	 * @param out
+	 * @param outOffset
+	 */
+	public void localFields(long ticks, int[] out, int outOffset) {
+		long posix = posixSeconds(ticks);
+		fields(posix, offset(posix), nanos(ticks, posix), out, outOffset);
+	}
+
+	/**
+	 * Write the local fields of T60 ticks into an array, fieldCount elements
+	 * for each. The interval of the previous instant is checked first, so
+	 * that sorted or clustered input costs a binary search only at
+	 * transitions.
+	 *
+	 * @param ticks
+	 * @param offset
+	 * @param out
+	 * @param outOffset
+	 * @param length
+	 */
+	public void localFields(long[] ticks, int offset, int[] out,
+			int outOffset, int length) {
+		Interval c = current;
+		long from = c.from;
+		long until = c.until;
+		int zoneOffset = c.offset;
+		for (int i = 0; i < length; i++) {
+			long t = ticks[offset + i];
+			long posix = posixSeconds(t);
+			if (posix < from || posix >= until) {
+				int j = indexOf(posix);
+				from = transitions[j];
+				until = (j + 1 < transitions.length) ? transitions[j + 1]
+						: Long.MAX_VALUE;
+				zoneOffset = offsets[j];
+			}
+			fields(posix, zoneOffset, nanos(t, posix), out, outOffset
+					+ (i * fieldCount));
+		}
+	}
+
+	/**
+	 * Write the local fields of a number of seconds in the POSIX frame and
+	 * nanos into fieldCount consecutive elements of an array.
+	 *
+	 * @param posixSeconds
+	 * @param nanos
+	 * @param out
+	 * @param outOffset
+	 */
+	public void localFieldsOfPosix(long posixSeconds, int nanos, int[] out,
+			int outOffset) {
+		fields(posixSeconds, offset(posixSeconds), nanos, out, outOffset);
+	}
+
+	private static void fields(long posix, int zoneOffset, int nanos,
+			int[] out, int outOffset) {
+		long local = posix + zoneOffset;
+		long days = local / 86400L;
+		int secondsOfDay = (int) (local % 86400L);
+		if (secondsOfDay < 0) {
+			secondsOfDay += 86400;
+			days--;
+		}
+		long civil = Julian.civil(days);
+		out[outOffset] = Julian.civilYear(civil);
+		out[outOffset + 1] = Julian.civilMonth(civil);
+		out[outOffset + 2] = Julian.civilDay(civil);
+		out[outOffset + 3] = secondsOfDay / 3600;
+		out[outOffset + 4] = (secondsOfDay / 60) % 60;
+		out[outOffset + 5] = secondsOfDay % 60;
+		out[outOffset + 6] = nanos;
+		out[outOffset + 7] = zoneOffset;
+	}
+
+	@Override
+	public String toString() {
+		return id;
+	}
+
+}
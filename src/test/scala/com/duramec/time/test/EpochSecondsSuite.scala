@@ -0,0 +1,77 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import java.io.ByteArrayInputStream
+import java.nio.ByteBuffer
+import java.nio.channels.Channels
+import java.text.ParseException
+import org.scalatest.FunSuite
+
+class EpochSecondsSuite extends FunSuite {
+
+  test ("a short fraction is a decimal fraction of a second") {
+    val out = new Array[Long](2)
+    expectResult (12L) { EpochSeconds.parseTAI("12.5TAI", out, 0) }
+    expectResult (500000000L) { out(1) }
+    EpochSeconds.parseGPS("7.000001GPS", out, 0)
+    expectResult (1000L) { out(1) }
+  }
+
+  test ("bytes and buffers parse the same as text") {
+    val out = new Array[Long](2)
+    val bytes = "xx-3.000000001GPS".getBytes("UTF-8")
+    EpochSeconds.parseGPS(bytes, 2, bytes.length - 2, out, 0)
+    expectResult ((-3L, 1L)) { (out(0), out(1)) }
+    val buffer = ByteBuffer.allocateDirect(bytes.length)
+    buffer.put(bytes)
+    out(0) = 0
+    EpochSeconds.parseGPS(buffer, 2, bytes.length - 2, out, 0)
+    expectResult ((-3L, 1L)) { (out(0), out(1)) }
+    out(0) = 0
+    EpochSeconds.parseGPS(ByteBuffer.wrap(bytes), 2, bytes.length - 2, out, 0)
+    expectResult ((-3L, 1L)) { (out(0), out(1)) }
+  }
+
+  test ("rejects malformed text") {
+    val out = new Array[Long](2)
+    for (text <- Seq("", "1TAI", "1.TAI", "1.5", "1.5GPS", "1.5TAIX",
+        "1.1234567890TAI", "-.5TAI", "1.5T\u0141I")) {
+      intercept[ParseException] { EpochSeconds.parseTAI(text, out, 0) }
+    }
+  }
+
+  test ("GPS instants parse their own string form") {
+    val instant = new GPSInstant(1234567890L, 5L)
+    expectResult ("1234567890.000000005GPS") { instant.toString }
+    expectResult (instant) { GPSInstant.parse(instant.toString) }
+  }
+
+  test ("reads lines into columns") {
+    val instants = (0 until 5000).map(i => new TAIInstant(i * 1000003L, i * 7919L))
+    val text = instants.map(_.toString).mkString("", "\r\n", "\n\n")
+    val reader = new EpochSecondsReader(Channels.newChannel(
+      new ByteArrayInputStream(text.getBytes("UTF-8"))), EpochSeconds.Scale.TAI, 256)
+    val seconds = new Array[Long](6000)
+    val nanos = new Array[Long](6000)
+    var read = 0
+    var n = 0
+    do {
+      n = reader.read(seconds, nanos, read, 333)
+      read += n
+    } while (n > 0)
+    reader.close()
+    expectResult (instants.size) { read }
+    expectResult (instants) {
+      (0 until read).map(i => new TAIInstant(seconds(i), nanos(i)))
+    }
+  }
+
+  test ("reports the line of a malformed instant") {
+    val reader = new EpochSecondsReader(Channels.newChannel(
+      new ByteArrayInputStream("1.0TAI\n2.0GPS\n".getBytes("UTF-8"))), EpochSeconds.Scale.TAI)
+    val e = intercept[ParseException] {
+      reader.read(new Array[Long](2), new Array[Long](2), 0, 2)
+    }
+    assert (e.getMessage.endsWith("on line 2"))
+  }
+}
@@ -0,0 +1,36 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import org.scalatest.FunSuite
+
+class GPSCalendarSuite extends FunSuite {
+
+  test ("finds the week of an instant in every scale") {
+    val gps = new GPSInstant(new Posix(1999, 8, 22, 0, 0, 0, 1))
+    expectResult (1024) { GPSCalendar.weekOf(gps) }
+    expectResult (1024) { GPSCalendar.weekOf(gps.toT60Instant) }
+    expectResult (1024) { GPSCalendar.weekOf(gps.toTAIInstant) }
+    expectResult (1023) { GPSCalendar.weekOfGPS(1024L * 7 * 86400 - 1) }
+  }
+
+  test ("gives negative weeks before the GPS epoch") {
+    expectResult (-1) { GPSCalendar.weekOfGPS(-1) }
+    expectResult (-1) { GPSCalendar.weekOf(new GPSInstant(0, 0).toT60Instant.asLong - 1) }
+    intercept[IllegalArgumentException] { GPSCalendar.week(-1) }
+  }
+
+  test ("hands out shared weeks which contain their instants") {
+    val ticks = new GPSInstant(1024L * 7 * 86400, 0).toT60Instant.asLong
+    val week = GPSCalendar.weekContaining(ticks)
+    expectResult (true) { week eq GPSCalendar.week(1024) }
+    expectResult (true) { week.contains(ticks) }
+    expectResult (false) { week.contains(ticks - 1) }
+    expectResult (ticks) { GPSCalendar.beginTicks(1024) }
+  }
+
+  test ("grows to later weeks and does not overflow") {
+    val week = GPSCalendar.week(5000)
+    expectResult (true) { week eq GPSCalendar.week(5000) }
+    expectResult (new GPSInstant(5000L * 7 * 86400, 0).toT60Instant) { week.getBegin }
+  }
+}
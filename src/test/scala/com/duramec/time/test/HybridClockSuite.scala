@@ -0,0 +1,117 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import java.nio.ByteBuffer
+import org.scalatest.FunSuite
+
+class HybridClockSuite extends FunSuite {
+
+  /**
+    * A node of a simulated cluster: a clock whose physical time is set by
+    * hand, standing for a machine whose clock is off by some skew.
+    */
+  class Node(var ticks: Long, drift: Long) extends TickSource {
+    def tick() = ticks
+    val clock = new HybridClock(this, drift)
+  }
+
+  val base = 0x01E0000000000000L
+
+  val ms = 10000L
+
+  val granule = 1L << HybridClock.logicalBits
+
+  test ("stamps are unique and increasing across threads") {
+    val clock = new HybridClock()
+    val results = Array.ofDim[Long](4, 20000)
+    val workers = (0 until 4).map { t =>
+      new Thread(new Runnable {
+        def run() {
+          for (i <- 0 until 20000) results(t)(i) = clock.now()
+        }
+      })
+    }
+    workers.foreach(_.start())
+    workers.foreach(_.join())
+    expectResult (80000) { results.flatten.toSet.size }
+    assert (results.forall(_.sliding(2).forall { case Array(a, b) => a < b }))
+  }
+
+  test ("stamps follow the physical clock") {
+    val node = new Node(base + 12345, 500 * ms)
+    val first = node.clock.now()
+    expectResult (HybridClock.physical(base + 12345)) { first }
+    expectResult (first + 1) { node.clock.now() }
+    node.ticks += 10 * ms
+    val later = node.clock.now()
+    expectResult (0) { HybridClock.logical(later) }
+    expectResult (HybridClock.physical(base + 12345 + 10 * ms)) { HybridClock.physical(later) }
+  }
+
+  test ("receipt is ordered after the send across skewed nodes") {
+    val nodes = Array(new Node(base, 500 * ms),
+      new Node(base + 300 * ms, 500 * ms),
+      new Node(base - 150 * ms, 500 * ms))
+    val random = new scala.util.Random(7)
+    val last = Array.fill(3)(0L)
+    for (i <- 0 until 20000) {
+      nodes.foreach(_.ticks += random.nextInt(2000))
+      val from = random.nextInt(3)
+      val to = (from + 1 + random.nextInt(2)) % 3
+      val sent = nodes(from).clock.send()
+      assert (sent > last(from))
+      last(from) = sent
+      val received = nodes(to).clock.receive(sent)
+      assert (received > sent)
+      assert (received > last(to))
+      last(to) = received
+    }
+    // every node is carried along with the one furthest ahead, to within
+    // the few steps since it last heard from it
+    for (node <- nodes) {
+      assert (HybridClock.physical(node.clock.last) >= nodes(1).ticks - 2 * granule)
+    }
+  }
+
+  test ("a node ahead is not slowed down by one behind") {
+    val ahead = new Node(base + 100 * ms, 500 * ms)
+    val behind = new Node(base, 500 * ms)
+    val received = ahead.clock.receive(behind.clock.send())
+    expectResult (HybridClock.physical(base + 100 * ms)) { received }
+  }
+
+  test ("refuses stamps beyond the maximum drift") {
+    val node = new Node(base, 50 * ms)
+    node.clock.receive(base + 40 * ms)
+    intercept[IllegalArgumentException] {
+      node.clock.receive(base + 60 * ms)
+    }
+    intercept[IllegalArgumentException] {
+      new HybridClock(node, -1)
+    }
+  }
+
+  test ("a full counter carries into the physical part") {
+    val node = new Node(base, 0)
+    var previous = 0L
+    for (i <- 0 until granule.toInt + 10) {
+      val stamp = node.clock.now()
+      assert (stamp > previous)
+      previous = stamp
+    }
+    expectResult (base + granule) { HybridClock.physical(previous) }
+    expectResult (9) { HybridClock.logical(previous) }
+  }
+
+  test ("stamps use the binary form of T60 ticks") {
+    val stamp = HybridClock.stamp(base + 5 * ms, 42)
+    expectResult (42) { HybridClock.logical(stamp) }
+    val buffer = ByteBuffer.allocate(16)
+    HybridClock.putStamp(buffer, 8, stamp)
+    expectResult (stamp) { T60Instant.getTicks(buffer, 8) }
+    expectResult (stamp) { HybridClock.getStamp(buffer, 8) }
+    expectResult (stamp) { HybridClock.toInstant(stamp).asLong }
+    intercept[IllegalArgumentException] { HybridClock.stamp(base, 1 << 16) }
+  }
+
+}
@@ -28,4 +28,43 @@ class JulianSuite extends FunSuite {
     }
   }
 
-}
\ No newline at end of file
+  test ("epoch constants agree with the conversion") {
+    expectResult (Seq(Epoch.LILIAN_TJD, Epoch.POSIX_TJD, Epoch.GPS_TJD, Epoch.TAI_TJD, Epoch.JULIAN_TJD)) {
+      Seq(Epoch.LILIAN, Epoch.POSIX, Epoch.GPS, Epoch.TAI, Epoch.JULIAN).map(Julian.truncated(_))
+    }
+  }
+
+  test ("gives MJD and JDN for J2000") {
+    expectResult (51544) { Julian.modified(2000, 1, 1) }
+    expectResult (2451545) { Julian.dayNumber(2000, 1, 1) }
+  }
+
+  test ("converts day numbers back to civil dates") {
+    for ((year, month, day) <- Seq((1582, 10, 15), (1900, 2, 28), (2000, 2, 29), (2012, 6, 30), (-4713, 11, 24), (9999, 12, 31))) {
+      val civil = Julian.civilOfTruncated(Julian.truncated(year, month, day))
+      expectResult ((year, month, day)) {
+        (Julian.civilYear(civil), Julian.civilMonth(civil), Julian.civilDay(civil))
+      }
+    }
+    expectResult (0L) { Julian.dayNumber(-4713, 11, 24) }
+    val mjd = Julian.civilOfModified(0)
+    expectResult ((1858, 11, 17)) {
+      (Julian.civilYear(mjd), Julian.civilMonth(mjd), Julian.civilDay(mjd))
+    }
+  }
+
+  test ("converts in bulk") {
+    val years = Array(1970, 1999, 2012)
+    val months = Array(1, 8, 7)
+    val days = Array(1, 22, 1)
+    val tjd = new Array[Long](3)
+    Julian.truncated(years, months, days, 0, tjd, 0, 3)
+    val back = Array.ofDim[Int](3, 3)
+    Julian.civilOfTruncated(tjd, 0, back(0), back(1), back(2), 0, 3)
+    expectResult (Seq(years.toSeq, months.toSeq, days.toSeq)) { back.map(_.toSeq).toSeq }
+    val buckets = new Array[Int](3)
+    Julian.truncatedOfPosixSeconds(Array(-1L, 0L, 86400L), 0, buckets, 0, 3)
+    expectResult (Seq(586, 587, 588)) { buckets.toSeq }
+  }
+
+}
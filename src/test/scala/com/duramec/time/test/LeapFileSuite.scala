@@ -0,0 +1,66 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import java.io.ByteArrayInputStream
+import java.nio.file.{ Files, Paths }
+import java.text.ParseException
+import org.scalatest.FunSuite
+import scala.collection.JavaConverters._
+
+class LeapFileSuite extends FunSuite {
+
+  def parse(text: String) = LeapFile.parse(new ByteArrayInputStream(text.getBytes("UTF-8")))
+
+  test ("reads the tzdata leapseconds file") {
+    val file = LeapFile.parse(Paths.get("./tzdata/leapseconds"))
+    expectResult (25) { file.getLeapSeconds.size }
+    expectResult (LeapFile.NEVER_VALID) { file.getExpires }
+    val last = file.getLeapSeconds.get(24)
+    expectResult ((2012, 6, 30, 35)) {
+      (last.getYear, last.getMonth, last.getDay, last.getOffset)
+    }
+  }
+
+  test ("reads leap-seconds.list the same as tzdata") {
+    val list = LeapFile.parse(Paths.get("./tzdata/leap-seconds.list"))
+    val tzdata = LeapFile.parse(Paths.get("./tzdata/leapseconds"))
+    val both = list.getLeapSeconds.asScala.zip(tzdata.getLeapSeconds.asScala)
+    for ((a, b) <- both) {
+      expectResult (b.occursAtPosixSeconds) { a.occursAtPosixSeconds }
+      expectResult (b.getOffset) { a.getOffset }
+      expectResult (b.getSecond) { a.getSecond }
+    }
+    expectResult (37) { list.getLeapSeconds.asScala.last.getOffset }
+    expectResult (3991593600L - 2208988800L) { list.getExpires }
+  }
+
+  test ("reads the expiry of tzdata") {
+    expectResult (1782604800L) {
+      parse("Leap\t1972\tJun\t30\t23:59:60\t+\tS\nExpires 2026\tJun\t28\t00:00:00\n").getExpires
+    }
+    expectResult (1782604800L) {
+      parse("#expires 1782604800 (2026-06-28 00:00:00 UTC)\n").getExpires
+    }
+  }
+
+  test ("checks the hash of leap-seconds.list") {
+    val text = new String(Files.readAllBytes(Paths.get("./tzdata/leap-seconds.list")), "UTF-8")
+    intercept[ParseException] {
+      parse(text.replace("#@\t3991593600", "#@\t3991593601"))
+    }
+  }
+
+  test ("rejects malformed lines") {
+    intercept[ParseException] { parse("Leap\t1972\tJux\t30\t23:59:60\t+\tS\n") }
+    intercept[ParseException] { parse("Leap\t1972\tJun\t30\t23:59\t+\tS\n") }
+    intercept[ParseException] { parse("Lead\t1972\tJun\t30\t23:59:60\t+\tS\n") }
+  }
+
+  test ("loads from a stream and publishes the expiry") {
+    val in = Files.newInputStream(Paths.get("./tzdata/leap-seconds.list"))
+    try LeapTable.load(in) finally in.close()
+    expectResult (37) { LeapTable.offset(1800000000L) }
+    expectResult (3991593600L - 2208988800L) { LeapTable.expires }
+    LeapTable.load("./tzdata/leapseconds")
+  }
+}
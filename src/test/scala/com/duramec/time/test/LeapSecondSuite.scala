@@ -76,6 +76,70 @@ class LeapSecondSuite extends FunSuite with PrivateMethodTester {
     }
   }
 
+  test ("gives TAI-UTC offset for each side of a leap second") {
+    LeapTable.load("./tzdata/leapseconds")
+    expectResult (10) {
+      LeapTable.offset(new Posix(1972, 6, 30, 23, 59, 59))
+    }
+    expectResult (11) {
+      LeapTable.offset(new Posix(1972, 7, 1))
+    }
+    expectResult (19) {
+      LeapTable.offset(new Posix(1980, 1, 6))
+    }
+    expectResult (34) {
+      LeapTable.offset(new Posix(2012, 6, 30, 23, 59, 59).secondsPosixEpoch)
+    }
+    expectResult (35) {
+      LeapTable.offset(new Posix(2012, 7, 1).secondsPosixEpoch)
+    }
+    expectResult (10) {
+      LeapTable.offset(Epoch.POSIX)
+    }
+  }
+
+  test ("identifies the instant a leap second takes effect") {
+    LeapTable.load("./tzdata/leapseconds")
+    expectResult (true) {
+      LeapTable.isLeapSecond(new Posix(2008, 12, 31, 23, 59, 60).secondsPosixEpoch)
+    }
+    expectResult (false) {
+      LeapTable.isLeapSecond(new Posix(2008, 12, 31, 23, 59, 59).secondsPosixEpoch)
+    }
+  }
+
+  test ("converts a batch of POSIX seconds to TAI in any order") {
+    LeapTable.load("./tzdata/leapseconds")
+    val leap = new Posix(2012, 7, 1).secondsPosixEpoch
+    val sorted = Array(Epoch.POSIX.secondsPosixEpoch, leap - 1, leap, leap + 86400)
+    val shuffled = Array(leap + 86400, leap - 1, Epoch.POSIX.secondsPosixEpoch, leap)
+    for (batch <- Seq(sorted, shuffled)) {
+      val out = new Array[Long](batch.length)
+      LeapTable.toTAI(batch, 0, out, 0, batch.length)
+      expectResult (batch.map(p => new TAIInstant(new Posix(p)).getSecondsSinceEpoch).toSeq) {
+        out.toSeq
+      }
+    }
+  }
+
+  test ("starts out with the table compiled from the bundled file") {
+    LeapTable.load("./tzdata/leapseconds")
+    LeapTable.loadCompiled()
+    val compiled = LeapTable.snapshot()
+    LeapTable.load("./tzdata/leap-seconds.list")
+    val loaded = LeapTable.snapshot()
+    expectResult (loaded.size) { compiled.size }
+    for (i <- 0 until loaded.size) {
+      val a = compiled.getTableClone.get(i)
+      val b = loaded.getTableClone.get(i)
+      expectResult (b.occursAtPosixSeconds) { a.occursAtPosixSeconds }
+      expectResult (b.getOffset) { a.getOffset }
+    }
+    expectResult (loaded.getExpires) { compiled.getExpires }
+    // TAI-UTC has been 37 s since the start of 2017
+    expectResult (37) { compiled.offset(System.currentTimeMillis() / 1000L) }
+  }
+
   /*
   test ("handles staggering positive and negative leapseconds") {
     fail()
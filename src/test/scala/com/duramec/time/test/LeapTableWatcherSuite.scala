@@ -0,0 +1,128 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import java.nio.file.{ Files, Path, Paths }
+import org.scalatest.FunSuite
+import scala.collection.JavaConversions._
+
+class LeapTableWatcherSuite extends FunSuite {
+
+  val leapseconds = "./tzdata/leapseconds"
+
+  /**
+    * The bundled table with the leap second of June 2015 added, so that it
+    * differs from it in its size, its last entry and the current offset.
+    */
+  val extended = new String(Files.readAllBytes(Paths.get(leapseconds)), "UTF-8") +
+    "Leap\t2015\tJun\t30\t23:59:60\t+\tS\n"
+
+  val now = System.currentTimeMillis() / 1000L
+
+  /**
+    * Wait up to ten seconds for a condition which the watcher thread makes
+    * true.
+    */
+  def eventually(condition: => Boolean): Boolean = {
+    val end = System.currentTimeMillis() + 10000L
+    while (!condition && System.currentTimeMillis() < end) {
+      Thread.sleep(10)
+    }
+    condition
+  }
+
+  /**
+    * Run a test with a temporary directory, which is deleted afterwards
+    * along with the files in it, and the bundled table loaded again.
+    */
+  def withDirectory(test: Path => Unit) {
+    val directory = Files.createTempDirectory("leapwatch")
+    try {
+      test(directory)
+    } finally {
+      val files = Files.newDirectoryStream(directory)
+      try {
+        files.foreach(Files.delete(_))
+      } finally {
+        files.close()
+      }
+      Files.delete(directory)
+      LeapTable.load(leapseconds)
+    }
+  }
+
+  def write(file: Path, text: String) {
+    Files.write(file, text.getBytes("UTF-8"))
+  }
+
+  test ("readers see either the old table or the new one") {
+    withDirectory { directory =>
+      val file = directory.resolve("leapseconds")
+      write(file, extended)
+      @volatile var running = true
+      @volatile var mixed = 0
+      val readers = (0 until 4).map { _ =>
+        new Thread(new Runnable {
+          def run() {
+            while (running) {
+              val snapshot = LeapTable.snapshot()
+              val consistent = (snapshot.size, snapshot.getLast.getOffset,
+                snapshot.offset(now)) match {
+                case (25, 35, 35) => true
+                case (26, 36, 36) => true
+                case _ => false
+              }
+              if (!consistent) mixed += 1
+            }
+          }
+        })
+      }
+      try {
+        LeapTable.load(leapseconds)
+        readers.foreach(_.start())
+        for (i <- 0 until 2000) {
+          LeapTable.load(if (i % 2 == 0) file.toString else leapseconds)
+        }
+      } finally {
+        running = false
+        readers.foreach(_.join())
+      }
+      expectResult (0) { mixed }
+    }
+  }
+
+  test ("reloads a watched file when it changes") {
+    withDirectory { directory =>
+      val file = directory.resolve("leapseconds")
+      Files.copy(Paths.get(leapseconds), file)
+      LeapTable.load(file.toString)
+      val watcher = new LeapTableWatcher(file)
+      try {
+        expectResult (35) { LeapTable.offset(now) }
+        write(file, extended)
+        assert (eventually(watcher.getReloads > 0 && LeapTable.offset(now) == 36))
+        expectResult (26) { LeapTable.snapshot().size }
+      } finally {
+        watcher.close()
+      }
+    }
+  }
+
+  test ("keeps the old table when the watched file is malformed") {
+    withDirectory { directory =>
+      val file = directory.resolve("leapseconds")
+      write(file, extended)
+      LeapTable.load(file.toString)
+      val before = LeapTable.snapshot()
+      val watcher = new LeapTableWatcher(file)
+      try {
+        write(file, "Leap\t1972\tJun\t30\t23:59:60\t+\tS\n")
+        assert (eventually(watcher.getLastError != null))
+        assert (LeapTable.snapshot() eq before)
+        expectResult (36) { LeapTable.offset(now) }
+      } finally {
+        watcher.close()
+      }
+    }
+  }
+
+}
@@ -0,0 +1,54 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import java.util.TimeZone
+import org.joda.time.DateTimeZone
+import org.scalatest.FunSuite
+
+class PosixSuite extends FunSuite {
+
+  def ensureFields(posix: Posix, year: Int, month: Int, day: Int,
+                   hour: Int, minute: Int, second: Int) {
+    expectResult(year) { posix.getYear() }
+    expectResult(month) { posix.getMonth() }
+    expectResult(day) { posix.getDay() }
+    expectResult(hour) { posix.getHour() }
+    expectResult(minute) { posix.getMinute() }
+    expectResult(second) { posix.getSecond() }
+  }
+
+  test ("decomposes the POSIX epoch") {
+    ensureFields(new Posix(0L), 1970, 1, 1, 0, 0, 0)
+  }
+
+  test ("decomposes in UTC regardless of default time zone") {
+    val zone = TimeZone.getDefault
+    val dateTimeZone = DateTimeZone.getDefault
+    try {
+      TimeZone.setDefault(TimeZone.getTimeZone("Pacific/Kiritimati"))
+      DateTimeZone.setDefault(DateTimeZone.forID("Pacific/Kiritimati"))
+      ensureFields(new Posix(1341100799L), 2012, 6, 30, 23, 59, 59)
+      ensureFields(new Posix(1341100800L), 2012, 7, 1, 0, 0, 0)
+    } finally {
+      TimeZone.setDefault(zone)
+      DateTimeZone.setDefault(dateTimeZone)
+    }
+  }
+
+  test ("decomposes leap days and century years") {
+    ensureFields(new Posix(951782400L), 2000, 2, 29, 0, 0, 0)
+    ensureFields(new Posix(4107542399L), 2100, 2, 28, 23, 59, 59)
+    ensureFields(new Posix(4107542400L), 2100, 3, 1, 0, 0, 0)
+  }
+
+  test ("decomposes times before the POSIX epoch") {
+    ensureFields(new Posix(-1L), 1969, 12, 31, 23, 59, 59)
+    ensureFields(new Posix(Epoch.LILIAN.secondsPosixEpoch), 1582, 10, 15, 0, 0, 0)
+  }
+
+  test ("round trips through civil construction") {
+    val civil = new Posix(1999, 8, 21, 23, 59, 59)
+    ensureFields(new Posix(civil.secondsPosixEpoch), 1999, 8, 21, 23, 59, 59)
+  }
+
+}
@@ -0,0 +1,158 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import java.nio.ByteBuffer
+import java.text.ParseException
+import org.scalatest.FunSuite
+
+class RFC3339Suite extends FunSuite {
+
+  LeapTable.load("./tzdata/leapseconds")
+
+  def ensureRejected(text: String) {
+    intercept[ParseException] {
+      RFC3339.parseT60(text)
+    }
+  }
+
+  test ("parses the same ticks from text, chars and bytes") {
+    val text = "2012-07-04T20:14:34.193000000Z"
+    val ticks = RFC3339.parseT60(text)
+    val bytes = ("  " + text).getBytes("UTF-8")
+    expectResult (ticks) {
+      RFC3339.parseT60(("  " + text).toCharArray, 2, text.length)
+    }
+    expectResult (ticks) {
+      RFC3339.parseT60(bytes, 2, text.length)
+    }
+    expectResult (ticks) {
+      RFC3339.parseT60(ByteBuffer.wrap(bytes), 2, text.length)
+    }
+    val slice = { val b = ByteBuffer.wrap(bytes); b.position(1); b.slice() }
+    expectResult (ticks) {
+      RFC3339.parseT60(slice, 1, text.length)
+    }
+    val direct = ByteBuffer.allocateDirect(bytes.length)
+    direct.put(bytes)
+    expectResult (ticks) {
+      RFC3339.parseT60(direct, 2, text.length)
+    }
+  }
+
+  test ("applies numeric time offsets") {
+    expectResult (RFC3339.parseT60("2012-07-04T20:14:34.193Z")) {
+      RFC3339.parseT60("2012-07-05T05:44:34.193+09:30")
+    }
+    expectResult (RFC3339.parseT60("2012-07-04T20:14:34.193Z")) {
+      RFC3339.parseT60("2012-07-04T15:14:34.193-05:00")
+    }
+  }
+
+  test ("scales fractions of any accepted length") {
+    val tai = new Array[Long](2)
+    RFC3339.parseTAI("2012-07-04T20:14:34.193Z", tai, 0)
+    expectResult (193000000L) { tai(1) }
+    RFC3339.parseTAI("2012-07-04T20:14:34.193456Z", tai, 0)
+    expectResult (193456000L) { tai(1) }
+  }
+
+  test ("places a leap second between its neighbours in TAI") {
+    val before = RFC3339.parseTAI("2012-06-30T23:59:59.000Z")
+    val leap = RFC3339.parseTAI("2012-06-30T23:59:60.000Z")
+    val after = RFC3339.parseTAI("2012-07-01T00:00:00.000Z")
+    expectResult (before.getSecondsSinceEpoch + 1) {
+      leap.getSecondsSinceEpoch
+    }
+    expectResult (leap.getSecondsSinceEpoch + 1) {
+      after.getSecondsSinceEpoch
+    }
+  }
+
+  test ("agrees with TAIInstant conversion outside of leap seconds") {
+    expectResult (new TAIInstant(new Posix(2009, 1, 1))) {
+      RFC3339.parseTAI("2009-01-01T00:00:00.000Z")
+    }
+  }
+
+  test ("pins a leap second to the last tick of second 59 in T60") {
+    expectResult (RFC3339.parseT60("2012-07-01T00:00:00.000Z") - 1) {
+      RFC3339.parseT60("2012-06-30T23:59:60.500Z")
+    }
+  }
+
+  test ("accepts a leap second given in local time") {
+    expectResult (RFC3339.parseT60("2012-06-30T23:59:60.000Z")) {
+      RFC3339.parseT60("2012-07-01T08:59:60.000+09:00")
+    }
+  }
+
+  test ("rejects second 60 where there is no leap second") {
+    ensureRejected("2013-06-30T23:59:60.000Z")
+    ensureRejected("2012-06-30T22:59:60.000Z")
+  }
+
+  test ("rejects malformed instants") {
+    ensureRejected("2012-07-04T20:14:34Z")
+    ensureRejected("2012-07-04T20:14:34.19Z")
+    ensureRejected("2012-07-04T20:14:34.1930000000Z")
+    ensureRejected("2012-07-04T20:14:34.193")
+    ensureRejected("2012-07-04T20:14:34.193+0900")
+    ensureRejected("2012-07-04X20:14:34.193Z")
+    ensureRejected("2012-02-30T00:00:00.000Z")
+    ensureRejected("2012-07-04T24:00:00.000Z")
+    ensureRejected("2012-07-04T20:14:34.193\u015A")
+  }
+
+  test ("rejects instants outside of the T60 range") {
+    ensureRejected("1582-10-14T23:59:59.999Z")
+  }
+
+  test ("formats T60 ticks with each precision") {
+    val ticks = RFC3339.parseT60("2012-07-04T20:14:34.193456700Z")
+    expectResult ("2012-07-04T20:14:34Z") {
+      RFC3339.formatT60(ticks, 0, new java.lang.StringBuilder).toString
+    }
+    expectResult ("2012-07-04T20:14:34.193Z") {
+      RFC3339.formatT60(ticks, 3, new java.lang.StringBuilder).toString
+    }
+    expectResult ("2012-07-04T20:14:34.193456Z") {
+      RFC3339.formatT60(ticks, 6, new java.lang.StringBuilder).toString
+    }
+    expectResult ("2012-07-04T20:14:34.193456700Z") {
+      RFC3339.formatT60(ticks, 9, new java.lang.StringBuilder).toString
+    }
+  }
+
+  test ("formats the same text into chars and bytes") {
+    val ticks = RFC3339.parseT60("2012-07-04T20:14:34.193Z")
+    val chars = new Array[Char](RFC3339.maximumLength + 2)
+    val end = RFC3339.formatT60(ticks, 3, chars, 2)
+    val bytes = ByteBuffer.allocate(RFC3339.maximumLength)
+    RFC3339.formatT60(ticks, 3, bytes)
+    expectResult ("2012-07-04T20:14:34.193Z") {
+      new String(chars, 2, end - 2)
+    }
+    expectResult ("2012-07-04T20:14:34.193Z") {
+      new String(bytes.array, 0, bytes.position, "UTF-8")
+    }
+  }
+
+  test ("formats a TAI leap second as second 60") {
+    for (text <- Seq("2012-06-30T23:59:59.250Z",
+                     "2012-06-30T23:59:60.250Z",
+                     "2012-07-01T00:00:00.250Z")) {
+      val tai = RFC3339.parseTAI(text)
+      expectResult (text) {
+        RFC3339.formatTAI(tai.getSecondsSinceEpoch, tai.getNanos, 3,
+          new java.lang.StringBuilder).toString
+      }
+    }
+  }
+
+  test ("formats the GPS epoch") {
+    expectResult ("1980-01-06T00:00:00.000Z") {
+      RFC3339.formatGPS(0L, 0L, 3, new java.lang.StringBuilder).toString
+    }
+  }
+
+}
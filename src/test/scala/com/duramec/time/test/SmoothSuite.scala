@@ -0,0 +1,59 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import org.scalatest.FunSuite
+
+class SmoothSuite extends FunSuite {
+
+  LeapTable.load("./tzdata/leapseconds")
+
+  // TAI seconds at the start of the inserted second 2012-06-30T23:59:60
+  val leap = RFC3339.parseTAI("2012-06-30T23:59:60.000Z").getSecondsSinceEpoch
+
+  test ("agrees with UTC outside the window") {
+    val smooth = new Smooth(Smooth.Profile.LINEAR, 1000, Smooth.Alignment.END)
+    for (text <- Seq("2012-06-30T23:43:20.000Z", "2012-07-01T00:00:00.000Z", "1970-01-01T00:00:00.000Z")) {
+      val t60 = RFC3339.parseT60(text)
+      expectResult (t60) { smooth.fromT60(t60) }
+    }
+  }
+
+  test ("UTC-SLS is half a second behind halfway through the window") {
+    val smooth = new Smooth(Smooth.Profile.LINEAR, 1000, Smooth.Alignment.END)
+    expectResult ("2012-06-30T23:51:40.500000000Z") {
+      new T60Instant(smooth.fromTAI(leap - 499, 0)).toString
+    }
+  }
+
+  test ("never shows second 60 and never goes backwards") {
+    for (profile <- Smooth.Profile.values; alignment <- Smooth.Alignment.values) {
+      val smooth = new Smooth(profile, 86400, alignment)
+      var previous = smooth.fromTAI(leap - 90007, 0)
+      for (seconds <- (leap - 90000) to (leap + 90000) by 7) {
+        val smeared = smooth.fromTAI(seconds, 0)
+        assert (smeared > previous)
+        previous = smeared
+      }
+    }
+  }
+
+  test ("bulk conversion agrees with single values") {
+    val smooth = new Smooth(Smooth.Profile.COSINE, 86400, Smooth.Alignment.CENTER)
+    val seconds = Array.tabulate(100)(i => leap - 50000 + i * 1000L)
+    val nanos = Array.tabulate(100)(i => i * 10000000L)
+    val ticks = new Array[Long](100)
+    smooth.fromTAI(seconds, nanos, 0, ticks, 0, 100)
+    expectResult (seconds.indices.map(i => smooth.fromTAI(seconds(i), nanos(i)))) {
+      ticks.toSeq
+    }
+  }
+
+  test ("rejects windows which are too short or overlap") {
+    intercept[IllegalArgumentException] {
+      new Smooth(Smooth.Profile.LINEAR, 1, Smooth.Alignment.END)
+    }
+    intercept[IllegalArgumentException] {
+      new Smooth(Smooth.Profile.LINEAR, 366L * 86400, Smooth.Alignment.END)
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import org.scalatest.FunSuite
+
+class T60ColumnSuite extends FunSuite {
+
+  LeapTable.load("./tzdata/leapseconds")
+
+  val posix = Array(
+    new Posix(1969, 12, 31, 23, 59, 59, 500000000L),
+    new Posix(1980, 1, 6),
+    new Posix(1999, 8, 22, 0, 0, 0, 100L),
+    new Posix(2012, 6, 30, 23, 59, 59, 999999900L),
+    new Posix(2012, 7, 1))
+
+  val ticks = posix.map(p => new T60Instant(p).asLong)
+
+  test ("converts to POSIX and back") {
+    val seconds = new Array[Long](ticks.length)
+    val nanos = new Array[Long](ticks.length)
+    val back = new Array[Long](ticks.length)
+    T60Column.toPosix(ticks, 0, seconds, nanos, 0, ticks.length)
+    expectResult (posix.map(_.secondsPosixEpoch).toSeq) { seconds.toSeq }
+    expectResult (posix.map(_.getNanos).toSeq) { nanos.toSeq }
+    T60Column.fromPosix(seconds, nanos, 0, back, 0, ticks.length)
+    expectResult (ticks.toSeq) { back.toSeq }
+  }
+
+  test ("agrees with GPSInstant") {
+    val seconds = new Array[Long](ticks.length)
+    val nanos = new Array[Long](ticks.length)
+    val weeks = new Array[Int](ticks.length)
+    val secondsOfWeek = new Array[Int](ticks.length)
+    T60Column.toGPS(ticks, 0, seconds, nanos, 0, ticks.length)
+    T60Column.toGPSWeeks(ticks, 0, weeks, secondsOfWeek, 0, ticks.length)
+    for (i <- 1 until ticks.length) {
+      val gps = new GPSInstant(new T60Instant(ticks(i)))
+      expectResult (gps.getSecondsSinceEpoch) { seconds(i) }
+      expectResult (gps.getNanos) { nanos(i) }
+      expectResult (gps.getAbsoluteWeek) { weeks(i) }
+      expectResult (gps.toT60Instant.asLong) { ticks(i) }
+    }
+  }
+
+  test ("agrees with TAIInstant and converts back") {
+    val seconds = new Array[Long](ticks.length)
+    val nanos = new Array[Long](ticks.length)
+    val back = new Array[Long](ticks.length)
+    T60Column.toTAI(ticks, 0, seconds, nanos, 0, ticks.length)
+    for (i <- 0 until ticks.length) {
+      expectResult (new TAIInstant(posix(i)).getSecondsSinceEpoch) {
+        seconds(i)
+      }
+    }
+    T60Column.fromTAI(seconds, nanos, 0, back, 0, ticks.length)
+    expectResult (ticks.toSeq) { back.toSeq }
+  }
+
+  test ("grows when values are added") {
+    val column = new T60Column(1)
+    ticks.foreach(column.add(_))
+    expectResult (ticks.length) { column.size }
+    expectResult (ticks(4)) { column.get(4) }
+  }
+
+}
@@ -0,0 +1,51 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import java.nio.ByteBuffer
+import org.scalatest.FunSuite
+
+class T60DeltaSuite extends FunSuite {
+
+  val start = new GPSInstant(1000L * 604800, 0).toT60Instant.asLong
+
+  // one sample a second with a little jitter, and a gap in the middle
+  val ticks = Array.tabulate(5000) { i =>
+    start + i * 10000000L + (i % 7) * 30 + (if (i >= 2500) 36000000000L else 0)
+  }
+
+  def encode(blockSize: Int) = {
+    val buffer = ByteBuffer.allocate(T60DeltaEncoder.maximumBlockLength(blockSize) * 10)
+    val encoder = new T60DeltaEncoder(buffer, blockSize)
+    encoder.append(ticks, 0, ticks.length)
+    encoder.flush()
+    buffer.flip()
+    buffer
+  }
+
+  test ("round trips ticks through blocks") {
+    val decoder = new T60DeltaDecoder(encode(1000))
+    val back = new Array[Long](6000)
+    expectResult (5000) { decoder.read(back, 0, 6000) }
+    expectResult (ticks.toSeq) { back.take(5000).toSeq }
+    expectResult (0) { decoder.read(back, 0, 1) }
+  }
+
+  test ("takes a small fraction of 8 bytes a tick for regular series") {
+    expectResult (true) { encode(1000).limit < ticks.length }
+  }
+
+  test ("seeks to the first tick at or after a time") {
+    val decoder = new T60DeltaDecoder(encode(512))
+    val one = new Array[Long](2)
+    for (i <- Seq(0, 1, 511, 512, 2500, 4999)) {
+      expectResult (true) { decoder.seek(ticks(i) - 1) }
+      decoder.read(one, 0, 2)
+      expectResult (ticks(i)) { one(0) }
+    }
+    expectResult (true) { decoder.seek(ticks(2499) + 1) }
+    decoder.read(one, 0, 1)
+    expectResult (ticks(2500)) { one(0) }
+    expectResult (false) { decoder.seek(ticks(4999) + 1) }
+    expectResult (0) { decoder.read(one, 0, 1) }
+  }
+}
@@ -0,0 +1,100 @@
+package com.duramec.time
+
+import org.scalatest.FunSuite
+
+class T60DisciplineSuite extends FunSuite {
+
+  val base = 0x01E0000000000000L
+
+  val period = 4000000000L
+
+  /**
+    * Run a discipline against a wall clock while nanoTime runs fast by a
+    * number of parts per million, sampling every period. Ticks are checked
+    * to never go back between samples, including across each switch.
+    */
+  def simulate(discipline: T60Discipline, ppm: Double, samples: Int,
+      wall: Long => Long = real => base + real / 100) {
+    var last = Long.MinValue
+    var previous = 0L
+    for (k <- 1 to samples) {
+      val real = k * period
+      val nanos = (real * (1 + ppm * 1e-6)).toLong
+      var n = previous
+      previous = nanos
+      while (n < nanos) {
+        val tick = discipline.tickAt(n)
+        assert (tick >= last, "tick went back at sample " + k)
+        last = tick
+        n += 9999991L
+      }
+      discipline.sample(nanos, wall(real))
+    }
+  }
+
+  test ("learns the frequency of a drifting nanoTime") {
+    for (ppm <- List(50.0, -120.0, 0.0)) {
+      val discipline = new T60Discipline(500, 0L, base)
+      simulate(discipline, ppm, 300)
+      assert (math.abs(discipline.getOffset) <= 1)
+      assert (math.abs(discipline.getFrequency + ppm * 1000) < 100)
+    }
+  }
+
+  test ("slews back to a wall clock behind it no faster than the maximum") {
+    val discipline = new T60Discipline(500, 0L, base)
+    simulate(discipline, 0.0, 1, real => base + real / 100 - 10000000L)
+    expectResult (-10000000L) { discipline.getOffset }
+    expectResult (-500000L) { discipline.getRate }
+    simulate(discipline, 0.0, 600, real => base + real / 100 - 10000000L)
+    assert (math.abs(discipline.getOffset) <= 1)
+    assert (math.abs(discipline.getFrequency) < 100)
+  }
+
+  test ("steps forward to a wall clock far ahead of it") {
+    val discipline = new T60Discipline(500, 0L, base)
+    discipline.sample(period, base + period / 100 + 20000000L)
+    expectResult (20000000L) { discipline.getOffset }
+    expectResult (base + (period + 2000000L) / 100 + 20000000L) {
+      discipline.tickAt(period + 2000000L)
+    }
+    assert (discipline.tickAt(period) <= discipline.tickAt(period + 1000000L))
+  }
+
+  test ("a sample published late switches over after it was published") {
+    val discipline = new T60Discipline(500, 0L, base)
+    val nanos = period
+    val published = nanos + 3000000L
+    // a reader past the usual switch, before the slower state is published
+    val seen = discipline.tickAt(published)
+    discipline.sample(nanos, base + nanos / 100 - 10000000L, published)
+    expectResult (-500000L) { discipline.getRate }
+    assert (discipline.tickAt(published) >= seen)
+    assert (discipline.tickAt(published + 1000000L) >= seen)
+  }
+
+  test ("a disciplined clock never goes back while it is being sampled") {
+    // how closely it follows the wall clock is left to the simulations
+    // above, as the real wall clock may be stepped at any time
+    val discipline = new T60Discipline(20, 500)
+    try {
+      val clock = new T60Clock(discipline)
+      var last = clock.tick()
+      val end = System.nanoTime() + 200000000L
+      while (System.nanoTime() < end) {
+        val tick = clock.tick()
+        assert (tick >= last)
+        last = tick
+      }
+    } finally {
+      discipline.close()
+    }
+  }
+
+  test ("rejects bad settings") {
+    intercept[IllegalArgumentException] { new T60Discipline(1, 500) }
+    intercept[IllegalArgumentException] { new T60Discipline(1000, -1) }
+    intercept[IllegalArgumentException] { new T60Clock(null) }
+  }
+
+}
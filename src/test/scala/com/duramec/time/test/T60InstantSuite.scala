@@ -1,6 +1,7 @@
 package com.duramec.time.test
 
 import com.duramec.time.T60Instant
+import java.nio.{ ByteBuffer, ByteOrder }
 import org.scalatest.FunSuite
 
 class T60InstantSuite extends FunSuite {
@@ -50,6 +51,28 @@ class T60InstantSuite extends FunSuite {
     }
   }
 
+  test ("writes the same big-endian bytes into any buffer") {
+    val inst = new T60Instant(0x0123456789ABCDEFL)
+    for (buffer <- Seq(ByteBuffer.allocate(16), ByteBuffer.allocateDirect(16).order(ByteOrder.LITTLE_ENDIAN))) {
+      inst.put(buffer)
+      inst.put(buffer, 8)
+      expectResult (8) { buffer.position }
+      expectResult (inst.getBytes.toSeq) { (0 until 8).map(buffer.get(_)) }
+      expectResult (inst) { T60Instant.get(buffer, 8) }
+    }
+    expectResult (inst) { new T60Instant(inst.getBytes) }
+  }
+
+  test ("transfers ticks between arrays and buffers in bulk") {
+    val ticks = Array.tabulate(100)(i => i * 0x0101010101010101L)
+    val buffer = ByteBuffer.allocate(800)
+    T60Instant.putTicks(buffer, ticks, 0, 100)
+    expectResult (800) { buffer.position }
+    val back = new Array[Long](100)
+    T60Instant.getTicks(buffer, 0, back, 0, 100)
+    expectResult (ticks.toSeq) { back.toSeq }
+  }
+
   /*
   test ("implements UTC-SLS correctly") {
     fail()
@@ -0,0 +1,86 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import java.io.RandomAccessFile
+import java.nio.file.Files
+import org.scalatest.FunSuite
+
+class T60LogSuite extends FunSuite {
+
+  // an hour before the start of GPS week 1000, one record a minute
+  val start = new GPSInstant(1000L * 604800 - 3600, 0).toT60Instant.asLong
+  val ticks = Array.tabulate(300)(i => start + i * 600000000L)
+
+  def write(recordsPerSegment: Int) = {
+    val directory = Files.createTempDirectory("t60log")
+    val writer = new T60LogWriter(directory, 2, recordsPerSegment)
+    for (i <- ticks.indices) {
+      writer.append(ticks(i), Array(i.toByte, (i >> 8).toByte), 0)
+    }
+    writer.close()
+    directory
+  }
+
+  test ("rolls segments per GPS week and when full") {
+    val reader = new T60LogReader(write(100))
+    expectResult (Seq(999, 1000, 1000, 1000)) {
+      (0 until reader.getSegmentCount).map(reader.getSegment(_).getWeek)
+    }
+    expectResult (300) { reader.size }
+    reader.close()
+  }
+
+  test ("reads ticks and payloads in place") {
+    val reader = new T60LogReader(write(1000))
+    val read = new Array[Long](400)
+    expectResult (300) { reader.getTicks(0, read, 0, 400) }
+    expectResult (ticks.toSeq) { read.take(300).toSeq }
+    val payload = new Array[Byte](2)
+    reader.getPayload(257, payload, 0)
+    expectResult (Seq(1, 1)) { payload.toSeq }
+    reader.close()
+  }
+
+  test ("searches by time across segments") {
+    val reader = new T60LogReader(write(50))
+    expectResult (0) { reader.search(0L) }
+    expectResult (60) { reader.search(ticks(60)) }
+    expectResult (61) { reader.search(ticks(60) + 1) }
+    expectResult (300) { reader.search(ticks(299) + 1) }
+    reader.close()
+  }
+
+  test ("sees records committed after it was opened") {
+    val directory = write(1000)
+    val reader = new T60LogReader(directory)
+    val writer = new T60LogWriter(directory, 2, 1000)
+    intercept[IllegalArgumentException] { writer.append(start) }
+    writer.append(ticks(299) + 1)
+    expectResult (301) { reader.size }
+    writer.close()
+    reader.close()
+  }
+
+  test ("stops at a torn record and writes over it after a crash") {
+    val directory = write(1000)
+    val reader = new T60LogReader(directory)
+    // record 260 of the log is record 200 of the segment of week 1000,
+    // after a 64-byte header and records of tick, payload and checksum
+    val file = new RandomAccessFile(reader.getSegment(1).getFile.toFile, "rw")
+    file.seek(64 + 200 * (8 + 2 + 4) + 8)
+    file.write(0xFF)
+    file.close()
+    reader.close()
+    val torn = new T60LogReader(directory)
+    expectResult (260) { torn.size }
+    expectResult (260) { torn.search(ticks(299)) }
+    val writer = new T60LogWriter(directory, 2, 1000)
+    writer.append(ticks(299) + 1)
+    expectResult (261) { torn.size }
+    val read = new Array[Long](1)
+    torn.getTicks(260, read, 0, 1)
+    expectResult (ticks(299) + 1) { read(0) }
+    writer.close()
+    torn.close()
+  }
+}
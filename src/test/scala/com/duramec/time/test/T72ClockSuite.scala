@@ -0,0 +1,49 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import java.nio.{ ByteBuffer, ByteOrder }
+import org.scalatest.FunSuite
+
+class T72ClockSuite extends FunSuite {
+
+  test ("stamps are unique across many threads") {
+    val clock = new T72Clock()
+    val threads = 200
+    val stamps = 2000
+    val results = Array.ofDim[Long](threads, stamps * 2)
+    val workers = (0 until threads).map { t =>
+      new Thread(new Runnable {
+        def run() {
+          for (i <- 0 until stamps) clock.next(results(t), i * 2)
+        }
+      })
+    }
+    workers.foreach(_.start())
+    workers.foreach(_.join())
+    val all = results.flatMap(_.grouped(2).map(p => (p(0), p(1))))
+    expectResult (threads * stamps) { all.toSet.size }
+  }
+
+  test ("stamps from one thread are strictly increasing") {
+    val clock = new T72Clock(4)
+    val stamps = (0 until 10000).map { _ =>
+      val instant = clock.next()
+      (instant.getT60.asLong, instant.getClockSeq)
+    }
+    expectResult (true) {
+      stamps.sliding(2).forall { case Seq(a, b) => Ordering[(Long, Long)].lt(a, b) }
+    }
+  }
+
+  test ("encodes in 9 bytes in either buffer order") {
+    val instant = new T72Instant(new T60Instant(0x0123456789ABCDEFL), 0xABC)
+    expectResult (Seq(0x12, 0x34, 0x56, 0x78, 0x9A, 0xBC, 0xDE, 0xFA, 0xBC).map(_.toByte)) {
+      instant.getBytes.toSeq
+    }
+    val buffer = ByteBuffer.allocate(10).order(ByteOrder.LITTLE_ENDIAN)
+    instant.put(buffer, 1)
+    val decoded = new T72Instant(buffer, 1)
+    expectResult (0x0123456789ABCDEFL) { decoded.getT60.asLong }
+    expectResult (0xABC) { decoded.getClockSeq }
+  }
+}
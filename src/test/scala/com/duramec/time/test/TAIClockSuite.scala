@@ -0,0 +1,96 @@
+package com.duramec.time
+
+import org.scalatest.FunSuite
+
+class TAIClockSuite extends FunSuite {
+
+  LeapTable.load("./tzdata/leap-seconds.list")
+
+  test ("agrees with the system clock converted through the leap table") {
+    val clock = new TAIClock()
+    val out = new Array[Long](2)
+    clock.now(out, 0)
+    val reference = new TAIInstant(new Posix(System.currentTimeMillis() / 1000L))
+    assert (math.abs(out(0) - reference.getSecondsSinceEpoch) <= 1)
+    assert (out(1) >= 0 && out(1) < 1000000000L)
+  }
+
+  test ("GPS time is TAI time less the fixed offset") {
+    val clock = new TAIClock()
+    val tai = new Array[Long](2)
+    val gps = new Array[Long](2)
+    clock.now(tai, 0)
+    clock.nowGPS(gps, 0)
+    val expected = new TAIInstant(tai(0), tai(1)).toGPSInstant.getSecondsSinceEpoch
+    assert (math.abs(gps(0) - expected) <= 1)
+  }
+
+  test ("GPS week and seconds of week match GPSInstant") {
+    val clock = new TAIClock()
+    val gps = new Array[Long](2)
+    val week = new Array[Long](4)
+    clock.nowGPS(gps, 0)
+    clock.nowGPSWeek(week, 1)
+    val instant = new GPSInstant(gps(0), gps(1))
+    expectResult (instant.getAbsoluteWeek.toLong) { week(1) }
+    assert (week(1) * 604800L + week(2) - gps(0) <= 1)
+    assert (week(2) >= 0 && week(2) < 604800L)
+  }
+
+  test ("readings from one thread do not go backwards") {
+    val clock = new TAIClock()
+    val out = new Array[Long](2)
+    var previous = 0L
+    for (i <- 0 until 100000) {
+      clock.now(out, 0)
+      val nanos = out(0) * 1000000000L + out(1)
+      assert (nanos >= previous)
+      previous = nanos
+    }
+  }
+
+  test ("picks up a newly loaded table") {
+    LeapTable.load("./tzdata/leap-seconds.list")
+    val clock = new TAIClock()
+    val before = clock.instant()
+    LeapTable.load("./tzdata/leap-seconds.list")
+    val after = clock.instant()
+    assert (after.compareTo(before) >= 0)
+  }
+
+  test ("counts through an inserted leap second without a jump") {
+    // 2012-07-01T00:00:00Z, the end of the leap second 2012-06-30T23:59:60Z
+    val leap = 1341100800L
+    val taiAtLeap = new TAIInstant(new Posix(leap)).getSecondsSinceEpoch
+    // anchored at 23:59:58.5; the system clock is never read again, so it
+    // repeating 23:59:59 makes no difference
+    val clock = new TAIClock(0L, (leap - 2) * 1000L + 500L)
+    val out = new Array[Long](2)
+    val start = (taiAtLeap - 3) * 1000000000L + 500000000L
+    for (nanos <- 0L to 4000000000L by 10000000L) {
+      clock.at(nanos, out, 0)
+      expectResult (start + nanos) { out(0) * 1000000000L + out(1) }
+    }
+    val fresh = new TAIClock(0L, (leap - 2) * 1000L + 500L)
+    fresh.at(1500000000L, out, 0)
+    expectResult (taiAtLeap - 1) { out(0) }
+    fresh.at(2500000000L, out, 0)
+    expectResult (taiAtLeap) { out(0) }
+    expectResult (0L) { out(1) }
+  }
+
+  test ("keeps counting from the same anchor when a table is loaded") {
+    val leap = 1341100800L
+    val taiAtLeap = new TAIInstant(new Posix(leap)).getSecondsSinceEpoch
+    val start = (taiAtLeap - 3) * 1000000000L + 500000000L
+    val clock = new TAIClock(0L, (leap - 2) * 1000L + 500L)
+    val out = new Array[Long](2)
+    // before, during and after the inserted second
+    for (nanos <- Seq(1000000000L, 2000000000L, 2100000000L, 3000000000L,
+        3100000000L)) {
+      LeapTable.load("./tzdata/leap-seconds.list")
+      clock.at(nanos, out, 0)
+      expectResult (start + nanos) { out(0) * 1000000000L + out(1) }
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.duramec.time.test
 
 import org.scalatest.{ FunSuite, ShouldMatchers }
 import com.duramec.time._
+import java.nio.ByteBuffer
 
 class TAIInstantSuite extends FunSuite with ShouldMatchers {
 
@@ -85,4 +86,14 @@ class TAIInstantSuite extends FunSuite with ShouldMatchers {
     testConversion(2009, 1, 1, 0, 0, 0, "2009-01-01T00:00:00.000Z")
   }
 
-}
\ No newline at end of file
+  test ("encodes seconds and nanos in 12 bytes") {
+    val buffer = ByteBuffer.allocate(24)
+    testInstant.put(buffer)
+    new GPSInstant(987654321L, 123L).put(buffer, 12)
+    expectResult (TAIInstant.encodedLength) { buffer.position }
+    expectResult (testInstant) { TAIInstant.get(buffer, 0) }
+    expectResult (new GPSInstant(987654321L, 123L)) { GPSInstant.get(buffer, 12) }
+    expectResult (Seq(0x13, 0x91, 0xE4, 0x88).map(_.toByte)) { (8 until 12).map(buffer.get(_)) }
+  }
+
+}
@@ -0,0 +1,117 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import org.scalatest.FunSuite
+
+class TickGenSuite extends FunSuite {
+
+  val threads = 8
+
+  val ticksPerThread = 50000
+
+  /**
+    * Run a generator from several threads at once and return the ticks
+    * each thread received, in order.
+    */
+  def generate(next: Int => Long): Array[Array[Long]] = {
+    val results = Array.ofDim[Long](threads, ticksPerThread)
+    val workers = (0 until threads).map { t =>
+      new Thread(new Runnable {
+        def run() {
+          var i = 0
+          while (i < ticksPerThread) {
+            results(t)(i) = next(t)
+            i += 1
+          }
+        }
+      })
+    }
+    workers.foreach(_.start())
+    workers.foreach(_.join())
+    results
+  }
+
+  def strictlyIncreasing(ticks: Array[Long]): Boolean =
+    ticks.sliding(2).forall { case Array(a, b) => a < b }
+
+  test ("ticks are unique and increasing across threads") {
+    val gen = new TickGen()
+    val results = generate(_ => gen.next())
+    expectResult (threads * ticksPerThread) {
+      results.flatten.toSet.size
+    }
+    expectResult (true) {
+      results.forall(strictlyIncreasing)
+    }
+  }
+
+  test ("ticks are near the current time on the UUID epoch") {
+    val gen = new TickGen()
+    val ms = System.currentTimeMillis()
+    val tick = gen.next()
+    expectResult (true) {
+      (tick - 0x01B21DD213814000L) / 10000L - ms < 1000L
+    }
+  }
+
+  test ("blocks are contiguous and do not overlap single ticks") {
+    val gen = new TickGen()
+    val before = gen.next()
+    val first = gen.nextBlock(25000)
+    val after = gen.next()
+    expectResult (true) {
+      first > before
+    }
+    // the clock may have moved past the end of the block in between
+    expectResult (true) {
+      after >= first + 25000
+    }
+  }
+
+  test ("empty blocks reserve nothing and negative blocks are refused") {
+    val gen = new TickGen()
+    val before = gen.next()
+    gen.next(new Array[Long](0))
+    assert (gen.nextBlock(0) > before)
+    assert (gen.next() > before)
+    intercept[IllegalArgumentException] {
+      gen.nextBlock(-1)
+    }
+  }
+
+  test ("blocks spill past the millisecond boundary") {
+    val gen = new TickGen()
+    val ticks = new Array[Long](30000)
+    gen.next(ticks)
+    expectResult (true) {
+      strictlyIncreasing(ticks)
+    }
+    expectResult (ticks(0) + 29999) {
+      ticks(29999)
+    }
+  }
+
+  test ("striped ticks are unique across stripes and increasing within one") {
+    val gen = new StripedTickGen(4)
+    val results = generate(t => gen.next(t))
+    expectResult (threads * ticksPerThread) {
+      results.flatten.toSet.size
+    }
+    expectResult (true) {
+      results.forall(strictlyIncreasing)
+    }
+  }
+
+  test ("striped ticks belong to their stripe") {
+    val gen = new StripedTickGen(6)
+    expectResult (8) {
+      gen.getStripes()
+    }
+    for (stripe <- 0 until 8) {
+      expectResult (stripe) {
+        (gen.next(stripe) & 7L).toInt
+      }
+    }
+  }
+
+}
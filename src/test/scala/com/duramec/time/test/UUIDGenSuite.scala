@@ -0,0 +1,84 @@
+package com.duramec.time
+
+import java.nio.ByteBuffer
+import java.util.UUID
+import org.scalatest.FunSuite
+
+class UUIDGenSuite extends FunSuite {
+
+  val node = 0x123456789ABCL
+
+  test ("generates version 1 UUIDs with the node id") {
+    val uuid = new UUIDGen(node, 4).next()
+    expectResult (1) { uuid.version }
+    expectResult (2) { uuid.variant }
+    expectResult (node) { uuid.node }
+  }
+
+  test ("random node ids have the multicast bit set") {
+    expectResult (UUIDGen.multicastBit) {
+      new UUIDGen().getNode & UUIDGen.multicastBit
+    }
+  }
+
+  test ("UUIDs are unique across threads") {
+    val gen = new UUIDGen(node, 4)
+    val threads = 8
+    val results = Array.ofDim[UUID](threads, 20000)
+    val workers = (0 until threads).map { t =>
+      new Thread(new Runnable {
+        def run() {
+          for (i <- 0 until 20000) results(t)(i) = gen.next()
+        }
+      })
+    }
+    workers.foreach(_.start())
+    workers.foreach(_.join())
+    expectResult (threads * 20000) { results.flatten.toSet.size }
+  }
+
+  test ("round trips through T72Instant") {
+    val uuid = new UUIDGen(node, 4).next()
+    val t72 = T72Instant.fromUUID(uuid)
+    expectResult (uuid.timestamp) { t72.getT60.asLong }
+    expectResult (uuid) { t72.toUUID(node) }
+  }
+
+  test ("writes the same bytes as UUID into a buffer") {
+    val buffer = ByteBuffer.allocate(16)
+    new UUIDGen(node, 1).next(buffer)
+    expectResult (16) { buffer.position }
+    val uuid = new UUID(buffer.getLong(0), buffer.getLong(8))
+    expectResult (node) { uuid.node }
+    expectResult (1) { uuid.version }
+  }
+
+  test ("changes clock sequence when the clock steps back") {
+    val gen = new UUIDGen(node, 4)
+    val now = 0x01B21DD213814000L + System.currentTimeMillis * 10000L
+    val first = gen.advance(1, now)
+    val small = gen.advance(1, now - 10000L)
+    expectResult (now + 1) { small >>> 4 }
+    expectResult (gen.clockSeq(1, first)) { gen.clockSeq(1, small) }
+    val large = gen.advance(1, now - 600000000L)
+    expectResult (now - 600000000L) { large >>> 4 }
+    expectResult (false) { gen.clockSeq(1, first) == gen.clockSeq(1, large) }
+    expectResult (1) { gen.clockSeq(1, large) & 3 }
+  }
+
+  test ("never reuses a clock sequence however often the clock steps back") {
+    val gen = new UUIDGen(node, 4)
+    val now = 0x01B21DD213814000L + System.currentTimeMillis * 10000L
+    var state = gen.advance(1, now)
+    val seen = scala.collection.mutable.Map(gen.clockSeq(1, state) -> (state >>> 4))
+    for (i <- 1 to 40) {
+      state = gen.advance(1, now - i * 600000000L)
+      val sequence = gen.clockSeq(1, state)
+      // a sequence seen before only carries on from its own last tick
+      seen.get(sequence).foreach(last => assert ((state >>> 4) > last))
+      seen(sequence) = state >>> 4
+    }
+    expectResult (16) { seen.size }
+    expectResult (now - 15 * 600000000L + 25) { state >>> 4 }
+  }
+}
@@ -0,0 +1,103 @@
+package com.duramec.time.test
+
+import com.duramec.time._
+import java.io.ByteArrayInputStream
+import java.nio.file.Paths
+import java.text.ParseException
+import org.scalatest.FunSuite
+
+class ZoneCompilerSuite extends FunSuite {
+
+  val zones = ZoneCompiler.compile(Paths.get("./tzdata"))
+
+  def ticks(posix: Long) = T60Instant.lilianToPosixTicks + posix * 10000000L
+
+  def compile(text: String) = {
+    val compiler = new ZoneCompiler()
+    compiler.parse(new ByteArrayInputStream(text.getBytes("UTF-8")), "test")
+    compiler.compile()
+  }
+
+  test ("finds the offsets around daylight saving changes") {
+    val newYork = zones.get("America/New_York")
+    expectResult (-18000) { newYork.offset(1331449199L) }
+    expectResult (-14400) { newYork.offset(1331449200L) }
+    expectResult (-14400) { newYork.offset(1352008799L) }
+    expectResult (-18000) { newYork.offset(1352008800L) }
+    val sydney = zones.get("Australia/Sydney")
+    expectResult (39600) { sydney.offset(1301759999L) }
+    expectResult (36000) { sydney.offset(1301760000L) }
+  }
+
+  test ("applies a rule falling on the start of a zone line") {
+    expectResult (10800) { zones.get("Europe/Moscow").offset(670374000L) }
+    expectResult (10800) { zones.get("Europe/Berlin").offset(-776563200L) }
+  }
+
+  test ("gives the same offset from T60 ticks") {
+    val newYork = zones.get("America/New_York")
+    expectResult (-14400) { newYork.offsetOfTicks(ticks(1331449200L)) }
+    expectResult (-18000) { newYork.offsetOfTicks(ticks(1331449200L) - 1) }
+  }
+
+  test ("fixed zones and links") {
+    expectResult (1) { zones.get("Etc/GMT+5").size }
+    expectResult (-18000) { zones.get("Etc/GMT+5").offset(0L) }
+    assert (zones.get("US/Eastern") eq zones.get("America/New_York"))
+  }
+
+  test ("lookups out of order agree with the transitions") {
+    val london = zones.get("Europe/London")
+    val transitions = london.getTransitions
+    val offsets = london.getOffsets
+    for (i <- (1 until transitions.length).reverse) {
+      expectResult (offsets(i)) { london.offset(transitions(i)) }
+      expectResult (offsets(i - 1)) { london.offset(transitions(i) - 1) }
+    }
+  }
+
+  test ("local fields of T60 ticks") {
+    val fields = new Array[Int](ZoneRules.fieldCount + 1)
+    zones.get("America/New_York").localFields(ticks(1341100800L) + 1234567, fields, 1)
+    expectResult (List(2012, 6, 30, 20, 0, 0, 123456700, -14400)) { fields.toList.tail }
+    zones.get("Asia/Tokyo").localFields(ticks(-1L), fields, 0)
+    expectResult (List(1970, 1, 1, 8, 59, 59, 0, 32400)) { fields.toList.take(8) }
+  }
+
+  test ("local fields in bulk match one at a time") {
+    val rules = zones.get("Europe/Paris")
+    val input = Array.tabulate(1000) { i => ticks(1300000000L + i * 86399L * 7) }
+    val bulk = new Array[Int](input.length * ZoneRules.fieldCount)
+    rules.localFields(input, 0, bulk, 0, input.length)
+    val single = new Array[Int](ZoneRules.fieldCount)
+    for (i <- 0 until input.length) {
+      rules.localFields(input(i), single, 0)
+      expectResult (single.toList) {
+        bulk.slice(i * ZoneRules.fieldCount, (i + 1) * ZoneRules.fieldCount).toList
+      }
+    }
+  }
+
+  test ("compiles rules given inline") {
+    val compiled = compile(
+      "Rule\tTest\t2000\tmax\t-\tMar\tlastSun\t1:00u\t1:00\tS\n" +
+      "Rule\tTest\t2000\tmax\t-\tOct\tlastSun\t1:00u\t0\t-\n" +
+      "Zone\tTest/Zone\t0:30\t-\tLMT\t2000\n" +
+      "\t\t\t1:00\tTest\tT%sT\n" +
+      "Link\tTest/Zone\tTest/Link\n")
+    val zone = compiled.get("Test/Zone")
+    expectResult (1800) { zone.offset(946682999L) } // until midnight at +0:30
+    expectResult (3600) { zone.offset(946683000L) }
+    expectResult (7200) { zone.offset(954032400L) } // 2000-03-26 01:00 UTC
+    expectResult (3600) { zone.offset(954032399L) }
+    assert (compiled.get("Test/Link") eq zone)
+  }
+
+  test ("rejects malformed lines") {
+    intercept[ParseException] { compile("Rule\tX\t1990\tonly\t-\tFoo\t1\t0:00\t1:00\tS\n") }
+    intercept[ParseException] { compile("Zone\tX/Y\t1:00\t-\tLMT\t1990\n") }
+    intercept[ParseException] { compile("Zone\tX/Y\t1:00\tNone\tLMT\n") }
+    intercept[ParseException] { compile("Link\tX/Y\tX/Z\n") }
+  }
+
+}